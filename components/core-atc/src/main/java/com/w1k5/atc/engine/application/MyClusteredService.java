@@ -1,5 +1,14 @@
 package com.w1k5.atc.engine.application;
 
+import com.w1k5.atc.engine.domain.conflict.Advisory;
+import com.w1k5.atc.engine.domain.conflict.Conflict;
+import com.w1k5.atc.engine.domain.conflict.ConflictAlert;
+import com.w1k5.atc.engine.domain.conflict.ConflictDetectionEngine;
+import com.w1k5.atc.engine.domain.conflict.DetectionScheduler;
+import com.w1k5.atc.engine.domain.conflict.ResolutionAdvisor;
+import com.w1k5.atc.engine.domain.fusion.TrackFusion;
+import com.w1k5.atc.engine.domain.time.ManualClock;
+import com.w1k5.atc.engine.domain.track.TrackLifecycle;
 import io.aeron.ExclusivePublication;
 import io.aeron.Image;
 import io.aeron.cluster.codecs.CloseReason;
@@ -11,28 +20,88 @@ import org.agrona.DirectBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 public class MyClusteredService implements ClusteredService, AutoCloseable {
 
     private static final Logger log = LoggerFactory.getLogger(MyClusteredService.class);
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final ConflictDetectionEngine conflictEngine = new ConflictDetectionEngine();
+    private final DetectionScheduler detectionScheduler = new DetectionScheduler(conflictEngine);
+    private final ResolutionAdvisor resolutionAdvisor = new ResolutionAdvisor(conflictEngine);
+    private final TrackLifecycle trackLifecycle = new TrackLifecycle(conflictEngine);
+    // RADAR and ADSB adapter plots are fused here into one system track per aircraft
+    private final TrackFusion trackFusion = new TrackFusion(trackLifecycle);
+    // Domain time, fed only from the replicated log so every replica stamps the same values
+    private final ManualClock clock = new ManualClock();
     private Cluster cluster;
+    // Unit of cluster timestamps and timer deadlines, taken from the cluster on start (milliseconds by default)
+    private TimeUnit clusterTimeUnit = TimeUnit.NANOSECONDS;
 
     @Override
     public void onStart(Cluster cluster, Image image) {
         this.cluster = cluster;
+        this.clusterTimeUnit = cluster.timeUnit();
+        advanceClock(toNanos(cluster.time()));
         log.info("Clustered service started with cluster: {}", cluster);
+
+        // Records the engine stamps itself take the replicated time, never the wall clock
+        conflictEngine.setClock(clock);
+
+        // Full detection output is identical at any parallelism, so replicas may differ in core count
+        conflictEngine.setParallelism(Integer.getInteger("atc.conflict.parallelism", 1));
+        configureDetectionRegions(System.getProperty("atc.detection.regions", "ALL:100"));
+        // Predicted alerts and resolution probes look this far ahead; level changes longer than this are not advised
+        conflictEngine.setLookaheadSeconds(Integer.getInteger("atc.conflict.lookaheadSeconds", 120));
+        resolutionAdvisor.setParallelism(Integer.getInteger("atc.resolution.parallelism", 1));
+        resolutionAdvisor.setBudgetNanos(Long.getLong("atc.resolution.budgetMillis", 20) * NANOS_PER_MILLI);
+        trackLifecycle.addListener(new TrackLifecycle.Listener() {
+            @Override
+            public void onCoasting(String flightId, long timeNanos) {
+                log.info("Track coasting: {}", flightId);
+            }
+
+            @Override
+            public void onDropped(String flightId, long timeNanos) {
+                log.info("Track dropped: {}", flightId);
+            }
+        });
         
         // Schedule periodic timers for ATC processing
         schedulePeriodicTimers();
     }
     
+    /**
+     * Add detection regions from a spec such as {@code "TMA:100:1,2,3;UPPER:1000:10,11"},
+     * each {@code name:periodMillis[:sectorIds]}; a region without sectors covers all traffic.
+     */
+    void configureDetectionRegions(String spec) {
+        for (String entry : spec.split(";")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length < 2 || parts.length > 3) {
+                throw new IllegalArgumentException("Invalid detection region: " + entry);
+            }
+            int[] sectorIds = parts.length == 3
+                ? Arrays.stream(parts[2].split(",")).mapToInt(id -> Integer.parseInt(id.trim())).toArray()
+                : new int[0];
+            detectionScheduler.addRegion(parts[0].trim(), Long.parseLong(parts[1].trim()) * NANOS_PER_MILLI, sectorIds);
+        }
+        log.info("Detection regions: {}", detectionScheduler.getRegions());
+    }
+
     private void schedulePeriodicTimers() {
         if (cluster != null) {
+            long now = toNanos(cluster.time());
             // Schedule conflict detection every 100ms (10Hz)
-            cluster.scheduleTimer(1, cluster.time() + 100_000_000L);
+            cluster.scheduleTimer(1, toClusterTime(now + 100_000_000L));
             // Schedule optimization every 200ms (5Hz)
-            cluster.scheduleTimer(2, cluster.time() + 200_000_000L);
+            cluster.scheduleTimer(2, toClusterTime(now + 200_000_000L));
             // Schedule health check every 1000ms (1Hz)
-            cluster.scheduleTimer(3, cluster.time() + 1_000_000_000L);
+            cluster.scheduleTimer(3, toClusterTime(now + 1_000_000_000L));
             log.info("Scheduled periodic timers for ATC processing");
         }
     }
@@ -49,6 +118,7 @@ public class MyClusteredService implements ClusteredService, AutoCloseable {
 
     @Override
     public void onSessionMessage(ClientSession clientSession, long sessionId, DirectBuffer directBuffer, int offset, int length, Header header) {
+        advanceClock(toNanos(cluster.time()));
         byte[] message = new byte[length];
         directBuffer.getBytes(offset, message);
         log.info("Received message from session {}: {} bytes", sessionId, length);
@@ -58,28 +128,30 @@ public class MyClusteredService implements ClusteredService, AutoCloseable {
     @Override
     public void onTimerEvent(long correlationId, long timestamp) {
         log.info("Timer event: correlationId={}, timestamp={}", timestamp, correlationId);
+        long timeNanos = toNanos(timestamp);
+        advanceClock(timeNanos);
         
         // Handle different timer types
         switch ((int) correlationId) {
             case 1: // Conflict detection timer
-                processConflictDetection();
-                // Reschedule for next cycle (100ms)
+                processConflictDetection(timeNanos);
+                // Reschedule for the next region due, so slow regions do not force a fast tick
                 if (cluster != null) {
-                    cluster.scheduleTimer(1, timestamp + 100_000_000L);
+                    cluster.scheduleTimer(1, toClusterTime(detectionScheduler.getNextDueNanos()));
                 }
                 break;
             case 2: // Optimization timer
                 processOptimization();
                 // Reschedule for next cycle (200ms)
                 if (cluster != null) {
-                    cluster.scheduleTimer(2, timestamp + 200_000_000L);
+                    cluster.scheduleTimer(2, toClusterTime(timeNanos + 200_000_000L));
                 }
                 break;
             case 3: // Health check timer
                 processHealthCheck();
                 // Reschedule for next cycle (1000ms)
                 if (cluster != null) {
-                    cluster.scheduleTimer(3, timestamp + 1_000_000_000L);
+                    cluster.scheduleTimer(3, toClusterTime(timeNanos + 1_000_000_000L));
                 }
                 break;
             default:
@@ -87,9 +159,78 @@ public class MyClusteredService implements ClusteredService, AutoCloseable {
         }
     }
     
-    private void processConflictDetection() {
-        // TODO: Implement conflict detection logic
-        log.debug("Processing conflict detection");
+    private void processConflictDetection(long timeNanos) {
+        // Fused tracks that received plots go to the engine once per cycle, then
+        // tracks that stopped reporting are evicted before they are detected against
+        trackFusion.publish();
+        trackLifecycle.poll(timeNanos);
+
+        // Dead-reckon every track to this cluster time, so detection between scans is not stale
+        conflictEngine.extrapolateTo(timeNanos);
+
+        // Only regions due at this cluster time are detected, and each advances only
+        // its own pairs' alerts; alerts damp pairs flickering at the boundary, so each
+        // cycle only forwards transitions
+        List<Conflict> raised = new ArrayList<>();
+        detectionScheduler.tick(timeNanos, (region, conflicts, transitions) -> {
+            log.debug("Region {} detected {} conflicts", region.getName(), conflicts.size());
+            for (ConflictAlert transition : transitions) {
+                log.info("Conflict alert: {}", transition);
+                if (transition.isRaised()) {
+                    raised.add(transition.getConflict());
+                }
+            }
+        });
+
+        // Advisories are searched within a time budget, so they depend on local timing
+        // and are only forwarded, never applied to replicated state
+        if (!raised.isEmpty()) {
+            for (Advisory advisory : resolutionAdvisor.resolve(raised)) {
+                log.info("Resolution advisory: {}", advisory);
+            }
+        }
+    }
+
+    private void advanceClock(long timeNanos) {
+        if (timeNanos > clock.nanos()) {
+            clock.set(timeNanos);
+        }
+    }
+
+    /**
+     * Convert a cluster timestamp to the nanoseconds every domain API takes.
+     */
+    private long toNanos(long clusterTime) {
+        return clusterTimeUnit.toNanos(clusterTime);
+    }
+
+    /**
+     * Convert a deadline in nanoseconds to a cluster timer deadline, rounding up so
+     * the timer never fires before the work it was scheduled for is due.
+     */
+    private long toClusterTime(long timeNanos) {
+        long clusterTime = clusterTimeUnit.convert(timeNanos, TimeUnit.NANOSECONDS);
+        return clusterTimeUnit.toNanos(clusterTime) < timeNanos ? clusterTime + 1 : clusterTime;
+    }
+
+    public ManualClock getClock() {
+        return clock;
+    }
+
+    public ConflictDetectionEngine getConflictEngine() {
+        return conflictEngine;
+    }
+
+    public DetectionScheduler getDetectionScheduler() {
+        return detectionScheduler;
+    }
+
+    public TrackLifecycle getTrackLifecycle() {
+        return trackLifecycle;
+    }
+
+    public TrackFusion getTrackFusion() {
+        return trackFusion;
     }
     
     private void processOptimization() {
@@ -99,7 +240,9 @@ public class MyClusteredService implements ClusteredService, AutoCloseable {
     
     private void processHealthCheck() {
         // TODO: Implement health monitoring
-        log.debug("Processing health check");
+        // Stats are cached per detection epoch, so this read never re-runs detection
+        log.debug("Processing health check: {}, {}, {}, {}", conflictEngine.getStats(),
+                trackLifecycle, trackFusion, detectionScheduler.getRegions());
     }
 
     @Override
@@ -124,6 +267,8 @@ public class MyClusteredService implements ClusteredService, AutoCloseable {
     @Override
     public void close() {
         log.info("Closing clustered service.");
+        resolutionAdvisor.close();
+        conflictEngine.close();
         // TODO: Clean up resources, close connections, etc.
     }
 }
@@ -0,0 +1,64 @@
+package com.w1k5.atc.engine.domain.conflict;
+
+import com.w1k5.atc.engine.domain.entities.AircraftState;
+
+import java.util.Objects;
+
+/**
+ * A manoeuvre proposed to resolve a conflict: one flight turns to a track, changes
+ * speed or changes level, and no longer conflicts with the other flight of the pair.
+ * Carries the state the manoeuvre starts from, climbing or descending at the
+ * performance rate for a level change, and the number of other flights it still
+ * loses separation with over the lookahead horizon.
+ */
+public class Advisory {
+    private final String flightId;
+    private final String conflictingFlightId;
+    private final Type type;
+    private final double targetValue;  // degrees track, knots or feet, by type
+    private final double change;       // from the current value, in the same unit
+    private final int remainingConflicts;
+    private final AircraftState resolvedState;
+
+    public enum Type {
+        HEADING, SPEED, ALTITUDE
+    }
+
+    public Advisory(String flightId, String conflictingFlightId, Type type, double targetValue, double change,
+                    int remainingConflicts, AircraftState resolvedState) {
+        this.flightId = Objects.requireNonNull(flightId, "Flight ID cannot be null");
+        this.conflictingFlightId = Objects.requireNonNull(conflictingFlightId, "Conflicting flight ID cannot be null");
+        this.type = Objects.requireNonNull(type, "Advisory type cannot be null");
+        this.targetValue = targetValue;
+        this.change = change;
+        this.remainingConflicts = remainingConflicts;
+        this.resolvedState = Objects.requireNonNull(resolvedState, "Resolved state cannot be null");
+    }
+
+    // Getters
+    public String getFlightId() { return flightId; }
+    public String getConflictingFlightId() { return conflictingFlightId; }
+    public Type getType() { return type; }
+    public double getTargetValue() { return targetValue; }
+    public double getChange() { return change; }
+    public int getRemainingConflicts() { return remainingConflicts; }
+    public AircraftState getResolvedState() { return resolvedState; }
+
+    /**
+     * Check if the manoeuvre leaves the flight clear of all traffic, not just the pair.
+     */
+    public boolean isConflictFree() {
+        return remainingConflicts == 0;
+    }
+
+    @Override
+    public String toString() {
+        String unit = switch (type) {
+            case HEADING -> "deg";
+            case SPEED -> "kt";
+            case ALTITUDE -> "ft";
+        };
+        return String.format("Advisory{%s %s %.0f%s (%+.0f) vs %s, remaining=%d}",
+                flightId, type, targetValue, unit, change, conflictingFlightId, remainingConflicts);
+    }
+}
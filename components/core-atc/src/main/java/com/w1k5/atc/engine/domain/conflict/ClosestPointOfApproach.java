@@ -0,0 +1,105 @@
+package com.w1k5.atc.engine.domain.conflict;
+
+/**
+ * Closest point of approach between two constant-velocity tracks within a lookahead horizon.
+ * Works on the relative position and velocity of the second track with respect to the first.
+ * Instances are reusable: each {@link #compute} call overwrites the previous result, so a
+ * detection cycle can solve every candidate pair without allocating.
+ */
+public class ClosestPointOfApproach {
+    public static final double NO_LOSS_OF_SEPARATION = -1.0;
+
+    private double time;                 // seconds from now
+    private double horizontalDistance;   // meters at closest approach
+    private double verticalDistance;     // meters at closest approach
+    private double lossOfSeparationTime; // seconds from now, or NO_LOSS_OF_SEPARATION
+    private double regainOfSeparationTime; // seconds from now, at most the horizon, or NO_LOSS_OF_SEPARATION
+
+    // Getters
+    public double getTime() { return time; }
+    public double getHorizontalDistance() { return horizontalDistance; }
+    public double getVerticalDistance() { return verticalDistance; }
+    public double getLossOfSeparationTime() { return lossOfSeparationTime; }
+
+    /**
+     * Get the end of the first loss of separation: the time separation is regained,
+     * or the horizon if it is still lost then.
+     */
+    public double getRegainOfSeparationTime() { return regainOfSeparationTime; }
+
+    /**
+     * Check if separation is lost at any time within the horizon.
+     */
+    public boolean losesSeparation() {
+        return lossOfSeparationTime != NO_LOSS_OF_SEPARATION;
+    }
+
+    /**
+     * Solve for the closest point of approach and the first loss of separation.
+     *
+     * @param dx relative horizontal X position in meters
+     * @param dy relative horizontal Y position in meters
+     * @param dz relative altitude in meters
+     * @param dvx relative X velocity in meters per second
+     * @param dvy relative Y velocity in meters per second
+     * @param dvz relative vertical rate in meters per second
+     * @param horizon lookahead horizon in seconds
+     * @param horizontalMinima horizontal minima in meters
+     * @param verticalMinima vertical minima in meters
+     */
+    public void compute(double dx, double dy, double dz, double dvx, double dvy, double dvz,
+                        double horizon, double horizontalMinima, double verticalMinima) {
+        double speedSquared = dvx * dvx + dvy * dvy;
+
+        // Horizontal closest approach, clamped to [0, horizon]
+        double t = speedSquared > 0.0 ? -(dx * dvx + dy * dvy) / speedSquared : 0.0;
+        t = Math.max(0.0, Math.min(horizon, t));
+        double cx = dx + dvx * t;
+        double cy = dy + dvy * t;
+        this.time = t;
+        this.horizontalDistance = Math.sqrt(cx * cx + cy * cy);
+        this.verticalDistance = Math.abs(dz + dvz * t);
+
+        // Interval where horizontal distance < minima: |d + v t|^2 < H^2
+        double entry = 0.0;
+        double exit = horizon;
+        double c = dx * dx + dy * dy - horizontalMinima * horizontalMinima;
+        if (speedSquared > 0.0) {
+            double b = dx * dvx + dy * dvy;
+            double discriminant = b * b - speedSquared * c;
+            if (discriminant <= 0.0) {
+                setNoLoss();
+                return;
+            }
+            double root = Math.sqrt(discriminant);
+            entry = Math.max(entry, (-b - root) / speedSquared);
+            exit = Math.min(exit, (-b + root) / speedSquared);
+        } else if (c >= 0.0) {
+            setNoLoss();
+            return;
+        }
+
+        // Interval where vertical distance < minima: |dz + dvz t| < V
+        if (dvz != 0.0) {
+            double t1 = (-verticalMinima - dz) / dvz;
+            double t2 = (verticalMinima - dz) / dvz;
+            entry = Math.max(entry, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+        } else if (Math.abs(dz) >= verticalMinima) {
+            setNoLoss();
+            return;
+        }
+
+        if (entry < exit) {
+            lossOfSeparationTime = entry;
+            regainOfSeparationTime = exit;
+        } else {
+            setNoLoss();
+        }
+    }
+
+    private void setNoLoss() {
+        lossOfSeparationTime = NO_LOSS_OF_SEPARATION;
+        regainOfSeparationTime = NO_LOSS_OF_SEPARATION;
+    }
+}
@@ -57,6 +57,13 @@ public class Conflict {
      * Get the urgency level based on time to conflict.
      */
     public Urgency getUrgency() {
+        return urgencyOf(timeToConflict);
+    }
+
+    /**
+     * Get the urgency level for a time to conflict in seconds.
+     */
+    public static Urgency urgencyOf(double timeToConflict) {
         if (timeToConflict < 30) return Urgency.IMMEDIATE; // Less than 30 seconds
         if (timeToConflict < 120) return Urgency.URGENT;   // Less than 2 minutes
         if (timeToConflict < 300) return Urgency.HIGH;     // Less than 5 minutes
@@ -89,8 +96,8 @@ public class Conflict {
 
     @Override
     public int hashCode() {
-        // Order-independent hash code
-        return Objects.hash(flightId1, flightId2) + Objects.hash(flightId2, flightId1);
+        // Order-independent hash code, without the varargs arrays of Objects.hash
+        return flightId1.hashCode() + flightId2.hashCode();
     }
 
     @Override
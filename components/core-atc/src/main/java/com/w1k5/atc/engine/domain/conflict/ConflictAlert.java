@@ -0,0 +1,52 @@
+package com.w1k5.atc.engine.domain.conflict;
+
+import java.util.Objects;
+
+/**
+ * A state transition of a pair's conflict alert.
+ * Only transitions are emitted, so a pair hovering at the separation boundary
+ * produces one alert instead of one per detection cycle.
+ */
+public class ConflictAlert {
+    private final String flightId1;
+    private final String flightId2;
+    private final State previousState; // null when the alert is raised
+    private final State state;
+    private final Conflict conflict;   // latest observation of the pair
+    private final long timeNanos;
+
+    public enum State {
+        PREDICTED, ACTIVE, RESOLVING, CLOSED
+    }
+
+    public ConflictAlert(String flightId1, String flightId2, State previousState, State state,
+                         Conflict conflict, long timeNanos) {
+        this.flightId1 = Objects.requireNonNull(flightId1, "Flight ID 1 cannot be null");
+        this.flightId2 = Objects.requireNonNull(flightId2, "Flight ID 2 cannot be null");
+        this.previousState = previousState;
+        this.state = Objects.requireNonNull(state, "State cannot be null");
+        this.conflict = Objects.requireNonNull(conflict, "Conflict cannot be null");
+        this.timeNanos = timeNanos;
+    }
+
+    // Getters
+    public String getFlightId1() { return flightId1; }
+    public String getFlightId2() { return flightId2; }
+    public State getPreviousState() { return previousState; }
+    public State getState() { return state; }
+    public Conflict getConflict() { return conflict; }
+    public long getTimeNanos() { return timeNanos; }
+
+    /**
+     * Check if this transition raised a new alert for the pair.
+     */
+    public boolean isRaised() {
+        return previousState == null;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConflictAlert{%s<->%s, %s->%s, %.1fm, %.1fs}",
+                flightId1, flightId2, previousState, state, conflict.getDistance(), conflict.getTimeToConflict());
+    }
+}
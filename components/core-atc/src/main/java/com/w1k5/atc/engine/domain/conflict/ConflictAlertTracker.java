@@ -0,0 +1,246 @@
+package com.w1k5.atc.engine.domain.conflict;
+
+import java.util.*;
+import java.util.function.BiPredicate;
+
+/**
+ * Per-pair conflict alert lifecycle with hysteresis, so pairs hovering at the
+ * separation boundary do not raise and clear an alert every detection cycle.
+ * <ul>
+ *   <li>A loss of separation raises or escalates the pair to ACTIVE at once.</li>
+ *   <li>A predicted loss of separation raises PREDICTED once it is within the enter
+ *       horizon for the enter dwell; it is held until it is beyond the wider exit
+ *       horizon, or no longer predicted, for the close dwell.</li>
+ *   <li>ACTIVE becomes RESOLVING once separation has been kept for the exit dwell,
+ *       and RESOLVING becomes CLOSED once the pair has been clear for the close dwell.
+ *       A new loss of separation returns it to ACTIVE.</li>
+ * </ul>
+ * Escalations are never delayed; only de-escalations wait for their condition to
+ * hold for the whole dwell. Time is supplied by the caller, e.g. cluster time, so
+ * every replica emits the same transitions in the same order.
+ */
+public class ConflictAlertTracker {
+    public static final double DEFAULT_ENTER_SECONDS = 120.0;
+    public static final double DEFAULT_EXIT_SECONDS = 180.0;
+    public static final double DEFAULT_ENTER_DWELL_SECONDS = 1.0;
+    public static final double DEFAULT_EXIT_DWELL_SECONDS = 5.0;
+    public static final double DEFAULT_CLOSE_DWELL_SECONDS = 10.0;
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final long NOT_CLEAR = Long.MIN_VALUE;
+
+    private final double enterSeconds;
+    private final double exitSeconds;
+    private final long enterDwellNanos;
+    private final long exitDwellNanos;
+    private final long closeDwellNanos;
+
+    // Insertion ordered, so transitions come out in the same order on every replica
+    private final Map<ConflictPair, PairAlert> alerts;
+    private final Map<ConflictPair, Conflict> observedActive;
+    private final Map<ConflictPair, Conflict> observedPredicted;
+    private long lastTimeNanos = Long.MIN_VALUE;
+
+    public ConflictAlertTracker() {
+        this(DEFAULT_ENTER_SECONDS, DEFAULT_EXIT_SECONDS,
+                DEFAULT_ENTER_DWELL_SECONDS, DEFAULT_EXIT_DWELL_SECONDS, DEFAULT_CLOSE_DWELL_SECONDS);
+    }
+
+    /**
+     * Create a tracker with explicit thresholds.
+     *
+     * @param enterSeconds predicted time to loss of separation at which a PREDICTED alert is raised
+     * @param exitSeconds predicted time to loss of separation beyond which a PREDICTED alert may close
+     * @param enterDwellSeconds how long a prediction must stay within the enter horizon to be raised
+     * @param exitDwellSeconds how long separation must be kept before ACTIVE becomes RESOLVING
+     * @param closeDwellSeconds how long a pair must be clear before its alert closes
+     */
+    public ConflictAlertTracker(double enterSeconds, double exitSeconds, double enterDwellSeconds,
+                                double exitDwellSeconds, double closeDwellSeconds) {
+        if (!(enterSeconds >= 0.0)) {
+            throw new IllegalArgumentException("Enter horizon cannot be negative");
+        }
+        if (!(exitSeconds >= enterSeconds)) {
+            throw new IllegalArgumentException("Exit horizon must be at least the enter horizon");
+        }
+        if (!(enterDwellSeconds >= 0.0) || !(exitDwellSeconds >= 0.0) || !(closeDwellSeconds >= 0.0)) {
+            throw new IllegalArgumentException("Dwell times cannot be negative");
+        }
+        this.enterSeconds = enterSeconds;
+        this.exitSeconds = exitSeconds;
+        this.enterDwellNanos = Math.round(enterDwellSeconds * NANOS_PER_SECOND);
+        this.exitDwellNanos = Math.round(exitDwellSeconds * NANOS_PER_SECOND);
+        this.closeDwellNanos = Math.round(closeDwellSeconds * NANOS_PER_SECOND);
+        this.alerts = new LinkedHashMap<>();
+        this.observedActive = new HashMap<>();
+        this.observedPredicted = new HashMap<>();
+    }
+
+    /**
+     * Advance every pair's alert with one detection cycle's observations and
+     * return the state transitions, in the order the pairs were first observed.
+     *
+     * @param activeConflicts pairs currently losing separation
+     * @param predictedConflicts pairs predicted to lose separation, time to conflict in seconds;
+     *                           pairs also in {@code activeConflicts} are treated as active
+     * @param timeNanos observation time, never earlier than the previous update
+     */
+    public List<ConflictAlert> update(Collection<Conflict> activeConflicts, Collection<Conflict> predictedConflicts,
+                                      long timeNanos) {
+        return update(activeConflicts, predictedConflicts, timeNanos, (flightId1, flightId2) -> true);
+    }
+
+    /**
+     * Advance the alerts of the pairs a partial detection cycle observed, e.g. one
+     * region of the airspace, and return their state transitions. A pair the cycle
+     * observed but did not report is clear; alerts of pairs it did not observe are
+     * left as they are, so regions polled at different cadences do not close each
+     * other's alerts.
+     *
+     * @param observed whether the cycle observed a pair of flight IDs; every reported pair must be observed
+     */
+    public List<ConflictAlert> update(Collection<Conflict> activeConflicts, Collection<Conflict> predictedConflicts,
+                                      long timeNanos, BiPredicate<String, String> observed) {
+        if (timeNanos < lastTimeNanos) {
+            throw new IllegalArgumentException("Alert time cannot go backwards");
+        }
+        lastTimeNanos = timeNanos;
+
+        observedActive.clear();
+        observedPredicted.clear();
+        for (Conflict conflict : activeConflicts) {
+            ConflictPair pair = ConflictPair.of(conflict.getFlightId1(), conflict.getFlightId2());
+            observedActive.put(pair, conflict);
+            alerts.computeIfAbsent(pair, key -> new PairAlert(timeNanos, conflict));
+        }
+        for (Conflict conflict : predictedConflicts) {
+            ConflictPair pair = ConflictPair.of(conflict.getFlightId1(), conflict.getFlightId2());
+            if (observedActive.containsKey(pair)) {
+                continue;
+            }
+            observedPredicted.put(pair, conflict);
+            if (conflict.getTimeToConflict() <= enterSeconds) {
+                alerts.computeIfAbsent(pair, key -> new PairAlert(timeNanos, conflict));
+            }
+        }
+
+        List<ConflictAlert> transitions = new ArrayList<>();
+        Iterator<Map.Entry<ConflictPair, PairAlert>> iterator = alerts.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<ConflictPair, PairAlert> entry = iterator.next();
+            if (!observed.test(entry.getKey().getFirst(), entry.getKey().getSecond())) {
+                continue;
+            }
+            PairAlert alert = entry.getValue();
+            Conflict active = observedActive.get(entry.getKey());
+            Conflict predicted = observedPredicted.get(entry.getKey());
+            if (active != null || predicted != null) {
+                alert.conflict = active != null ? active : predicted;
+            }
+
+            // A pending prediction must stay within the enter horizon for the whole enter dwell
+            if (alert.state == null && active == null
+                    && (predicted == null || predicted.getTimeToConflict() > enterSeconds)) {
+                iterator.remove();
+                continue;
+            }
+
+            ConflictAlert.State next = nextState(alert, active != null, predicted, timeNanos);
+            if (next == null) {
+                continue;
+            }
+            if (next != alert.state) {
+                transitions.add(new ConflictAlert(entry.getKey().getFirst(), entry.getKey().getSecond(),
+                        alert.state, next, alert.conflict, timeNanos));
+                alert.state = next;
+                // A pair becomes RESOLVING while clear, so its close dwell starts now
+                alert.clearSinceNanos = next == ConflictAlert.State.RESOLVING ? timeNanos : NOT_CLEAR;
+            }
+            if (next == ConflictAlert.State.CLOSED) {
+                iterator.remove();
+            }
+        }
+        return transitions;
+    }
+
+    /**
+     * Work out a pair's state after this cycle; null while a prediction is pending.
+     */
+    private ConflictAlert.State nextState(PairAlert alert, boolean active, Conflict predicted, long timeNanos) {
+        if (active) {
+            alert.clearSinceNanos = NOT_CLEAR;
+            return ConflictAlert.State.ACTIVE;
+        }
+
+        if (alert.state == null) {
+            return timeNanos - alert.sinceNanos >= enterDwellNanos ? ConflictAlert.State.PREDICTED : null;
+        }
+
+        switch (alert.state) {
+            case ACTIVE:
+                return clearFor(alert, timeNanos, exitDwellNanos) ? ConflictAlert.State.RESOLVING : alert.state;
+            case PREDICTED:
+            case RESOLVING:
+                if (predicted != null && predicted.getTimeToConflict() <= exitSeconds) {
+                    alert.clearSinceNanos = NOT_CLEAR;
+                    return alert.state;
+                }
+                return clearFor(alert, timeNanos, closeDwellNanos) ? ConflictAlert.State.CLOSED : alert.state;
+            default:
+                return alert.state;
+        }
+    }
+
+    /**
+     * Note that a pair is clear this cycle and check if it has been clear for the whole dwell.
+     */
+    private static boolean clearFor(PairAlert alert, long timeNanos, long dwellNanos) {
+        if (alert.clearSinceNanos == NOT_CLEAR) {
+            alert.clearSinceNanos = timeNanos;
+        }
+        return timeNanos - alert.clearSinceNanos >= dwellNanos;
+    }
+
+    /**
+     * Get the alert state of a pair, or null if it has no open alert.
+     */
+    public ConflictAlert.State getState(String flightId1, String flightId2) {
+        PairAlert alert = alerts.get(ConflictPair.of(flightId1, flightId2));
+        return alert == null ? null : alert.state;
+    }
+
+    /**
+     * Get the number of open alerts, excluding predictions not yet raised.
+     */
+    public int getOpenAlertCount() {
+        int count = 0;
+        for (PairAlert alert : alerts.values()) {
+            if (alert.state != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Drop every alert without emitting transitions.
+     */
+    public void clear() {
+        alerts.clear();
+    }
+
+    /**
+     * Mutable lifecycle of one pair's alert; a null state is a prediction waiting out the enter dwell.
+     */
+    private static final class PairAlert {
+        private final long sinceNanos;
+        private ConflictAlert.State state;
+        private long clearSinceNanos = NOT_CLEAR;
+        private Conflict conflict;
+
+        PairAlert(long sinceNanos, Conflict conflict) {
+            this.sinceNanos = sinceNanos;
+            this.conflict = conflict;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.w1k5.atc.engine.domain.conflict;
+
+import com.w1k5.atc.engine.domain.entities.FlightStore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reusable, column-oriented output buffer for conflict detection.
+ * Each conflict is a primitive pair key of two flight handles plus distance and
+ * time-to-conflict columns; entries are read through a flyweight {@link ConflictView}.
+ * Once the columns have grown to the peak conflict count, refilling the buffer every
+ * cycle allocates nothing. Handles refer to the {@link FlightStore} the buffer was
+ * created for and are only meaningful until the next flight is removed.
+ */
+public class ConflictBuffer {
+    private static final Conflict.Severity[] SEVERITIES = Conflict.Severity.values();
+
+    private final FlightStore store;
+    private final ConflictView view;
+
+    private long[] pairKeys;
+    private double[] distances;        // meters
+    private double[] timesToConflict;  // seconds
+    private byte[] severities;
+    private int size;
+
+    public ConflictBuffer(FlightStore store) {
+        this(store, 64);
+    }
+
+    public ConflictBuffer(FlightStore store, int initialCapacity) {
+        this.store = Objects.requireNonNull(store, "Flight store cannot be null");
+        this.view = new ConflictView();
+        int capacity = Math.max(8, initialCapacity);
+        this.pairKeys = new long[capacity];
+        this.distances = new double[capacity];
+        this.timesToConflict = new double[capacity];
+        this.severities = new byte[capacity];
+    }
+
+    /**
+     * Pack two flight handles into a pair key.
+     */
+    public static long pairKey(int handle1, int handle2) {
+        return ((long) handle1 << 32) | (handle2 & 0xFFFFFFFFL);
+    }
+
+    public static int firstHandle(long pairKey) {
+        return (int) (pairKey >>> 32);
+    }
+
+    public static int secondHandle(long pairKey) {
+        return (int) pairKey;
+    }
+
+    /**
+     * Get the store whose handles this buffer holds.
+     */
+    public FlightStore getStore() {
+        return store;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Reset the buffer, keeping its capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Append a conflict between two flight handles.
+     */
+    public void add(int handle1, int handle2, Conflict.Severity severity, double distance, double timeToConflict) {
+        if (size == pairKeys.length) {
+            int capacity = size * 2;
+            pairKeys = Arrays.copyOf(pairKeys, capacity);
+            distances = Arrays.copyOf(distances, capacity);
+            timesToConflict = Arrays.copyOf(timesToConflict, capacity);
+            severities = Arrays.copyOf(severities, capacity);
+        }
+        pairKeys[size] = pairKey(handle1, handle2);
+        distances[size] = distance;
+        timesToConflict[size] = timeToConflict;
+        severities[size] = (byte) severity.ordinal();
+        size++;
+    }
+
+    // Column accessors
+    public long getPairKey(int index) { return pairKeys[index]; }
+    public int getHandle1(int index) { return firstHandle(pairKeys[index]); }
+    public int getHandle2(int index) { return secondHandle(pairKeys[index]); }
+    public double getDistance(int index) { return distances[index]; }
+    public double getTimeToConflict(int index) { return timesToConflict[index]; }
+    public Conflict.Severity getSeverity(int index) { return SEVERITIES[severities[index]]; }
+
+    /**
+     * Point the shared flyweight at an entry. The returned view is reused by
+     * every call, so read it before asking for the next one.
+     */
+    public ConflictView view(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        view.index = index;
+        return view;
+    }
+
+    /**
+     * Materialize the buffer as standalone conflict objects.
+     */
+    public List<Conflict> toConflicts() {
+        List<Conflict> conflicts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            conflicts.add(view(i).toConflict());
+        }
+        return conflicts;
+    }
+
+    /**
+     * Flyweight read view over one buffer entry.
+     */
+    public final class ConflictView {
+        private int index;
+
+        private ConflictView() {
+        }
+
+        public int getIndex() { return index; }
+        public int getHandle1() { return ConflictBuffer.this.getHandle1(index); }
+        public int getHandle2() { return ConflictBuffer.this.getHandle2(index); }
+        public String getFlightId1() { return store.getFlightId(getHandle1()); }
+        public String getFlightId2() { return store.getFlightId(getHandle2()); }
+        public Conflict.Severity getSeverity() { return ConflictBuffer.this.getSeverity(index); }
+        public double getDistance() { return distances[index]; }
+        public double getTimeToConflict() { return timesToConflict[index]; }
+
+        /**
+         * Get the urgency level based on time to conflict.
+         */
+        public Conflict.Urgency getUrgency() {
+            return Conflict.urgencyOf(timesToConflict[index]);
+        }
+
+        /**
+         * Copy this entry into a standalone conflict.
+         */
+        public Conflict toConflict() {
+            return new Conflict(getFlightId1(), getFlightId2(), getSeverity(), getDistance(), getTimeToConflict());
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Conflict{%s<->%s, %s, %.1fm, %.1fs}",
+                    getFlightId1(), getFlightId2(), getSeverity(), getDistance(), getTimeToConflict());
+        }
+    }
+}
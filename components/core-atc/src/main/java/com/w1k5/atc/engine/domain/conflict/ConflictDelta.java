@@ -0,0 +1,46 @@
+package com.w1k5.atc.engine.domain.conflict;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Changes to the live conflict set since the previous poll.
+ * Lets egress and the admin gateway forward changes instead of full conflict lists.
+ */
+public class ConflictDelta {
+    private final List<Conflict> newConflicts;
+    private final List<Conflict> persistingConflicts;
+    private final List<Conflict> resolvedConflicts;
+
+    public ConflictDelta(List<Conflict> newConflicts, List<Conflict> persistingConflicts,
+                         List<Conflict> resolvedConflicts) {
+        this.newConflicts = Objects.requireNonNull(newConflicts, "New conflicts cannot be null");
+        this.persistingConflicts = Objects.requireNonNull(persistingConflicts, "Persisting conflicts cannot be null");
+        this.resolvedConflicts = Objects.requireNonNull(resolvedConflicts, "Resolved conflicts cannot be null");
+    }
+
+    // Getters
+    public List<Conflict> getNewConflicts() { return newConflicts; }
+    public List<Conflict> getPersistingConflicts() { return persistingConflicts; }
+    public List<Conflict> getResolvedConflicts() { return resolvedConflicts; }
+
+    /**
+     * Check if any conflict appeared or resolved since the previous poll.
+     */
+    public boolean hasChanges() {
+        return !newConflicts.isEmpty() || !resolvedConflicts.isEmpty();
+    }
+
+    /**
+     * Get the number of conflicts active at poll time.
+     */
+    public int getActiveCount() {
+        return newConflicts.size() + persistingConflicts.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConflictDelta{new=%d, persisting=%d, resolved=%d}",
+                newConflicts.size(), persistingConflicts.size(), resolvedConflicts.size());
+    }
+}
@@ -1,65 +1,736 @@
 package com.w1k5.atc.engine.domain.conflict;
 
-import com.w1k5.atc.engine.domain.constraints.AircraftPerformance;
+import com.w1k5.atc.engine.domain.entities.AircraftState;
 import com.w1k5.atc.engine.domain.entities.Flight;
+import com.w1k5.atc.engine.domain.entities.FlightStore;
 import com.w1k5.atc.engine.domain.separation.SeparationMinima;
+import com.w1k5.atc.engine.domain.separation.SeparationRuleTable;
+import com.w1k5.atc.engine.domain.spatial.FixedPointGeometry;
+import com.w1k5.atc.engine.domain.spatial.KdTree;
+import com.w1k5.atc.engine.domain.spatial.SectorIndex;
+import com.w1k5.atc.engine.domain.spatial.SpatialHashGrid;
+import com.w1k5.atc.engine.domain.time.DomainClock;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Core conflict detection engine for ATC operations.
  * Detects potential conflicts between aircraft based on separation minima.
+ * Flights are held in a structure-of-arrays {@link FlightStore}; the pair kernels
+ * read positions, velocities and wake categories straight from its primitive arrays.
+ * Separation minima come from a compiled {@link SeparationRuleTable}; each flight is
+ * mapped to its rule when indexed, so a pair test is a table lookup and two compares.
+ * Current-state pair tests run through a {@link SeparationKernel}, scalar or SIMD,
+ * chosen at construction. Full detection can optionally be spread over a dedicated
+ * fork/join pool; its output is merged in canonical handle-pair order so every run
+ * and every cluster replica produces the same list. Detection can write into a
+ * caller-owned {@link ConflictBuffer}, so a steady-state cycle allocates nothing.
  */
-public class ConflictDetectionEngine {
-    private final SeparationMinima defaultSeparationMinima;
-    private final Map<String, Flight> flights;
+public class ConflictDetectionEngine implements AutoCloseable {
+    private static final double SCALE = 100.0; // centimeters per meter
+    public static final int MAX_LOOKAHEAD_SECONDS = 300;
+    public static final int MTCD_HORIZON_SECONDS = 1200;
+    private static final int PARALLEL_THRESHOLD = 512; // flights below which a serial scan is faster
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int REBUILD_FRACTION = 4; // batches touching at least 1/4 of the flights rebuild the grid
+    public static final long MAX_EXTRAPOLATION_NANOS = 30_000_000_000L; // beyond a coasting track's drop time
+    static final double NOT_REGAINED = -1.0; // manoeuvre probe: separation from the partner not regained in time
+
+    private final FlightStore store;
+
+    // Time flights are recorded at when an update does not carry one
+    private DomainClock clock = DomainClock.SYSTEM;
+
+    // Kernel inputs: compiled minima, swapped whole on configuration change, and each handle's rule
+    private final SeparationKernel kernel;
+    private SeparationRuleTable separationRules;
+    private int[] handleRules;
+
+    // Live broadphase index keyed by store handle, with cells as large as the largest minima
+    private SpatialHashGrid grid;
+    private int[] handleCellX;
+    private int[] handleCellY;
+    private final Workspace workspace;
+
+    // Bulk updates: handles of the running batch, and the batch each handle was last in and its position there
+    private int[] batchHandles;
+    private int[] handleBatches;
+    private int[] handleBatchIndex;
+    private int batchId;
+    private int lastBatchSize;
+    private long lastBatchNanos;
+
+    // Sector membership, so sector queries only visit that sector's flights
+    private final SectorIndex sectorIndex;
+
+    // Nearest-neighbour index, rebuilt lazily on the first query of each epoch
+    private final KdTree nearestIndex;
+    private long nearestIndexEpoch = -1;
+
+    // Parallel detection: dedicated pool with one reusable chunk per slice of the handle range
+    private ForkJoinPool detectionPool;
+    private DetectionChunk[] detectionChunks;
+    private RecursiveAction detectionRoot;
+    private long[] mergedPairs;
+
+    // Output buffer behind the list-returning detectAllConflicts()
+    private final ConflictBuffer conflictBuffer;
+
+    // Lookahead detection: swept-volume grid rebuilt lazily on the first query of each
+    // epoch, shared by full detection and what-if probes, plus a reusable CPA solver
+    private SpatialHashGrid sweptGrid;
+    private long sweptGridEpoch = -1;
+    private int sweptGridHorizon;
+    private final ClosestPointOfApproach closestApproach;
+    private int lookaheadSeconds;
+
+    // Medium-term detection along flight intent, rebuilt lazily on the first query of each epoch
+    private final MediumTermConflictDetector mediumTermDetector;
+    private long mediumTermEpoch = -1;
+    private long mediumTermPictureNanos;
+
+    // Live conflict set, maintained incrementally on every update/remove
+    private final Map<ConflictPair, Conflict> activeConflicts;
+    private final Map<String, Set<String>> conflictPartners;
+    private final Map<ConflictPair, Conflict> reportedConflicts;
+
+    // Per-pair alert lifecycle, so only alert state transitions reach egress
+    private ConflictAlertTracker alertTracker;
+
+    // Aggregates over the live set; the epoch advances with every change to it
+    private final ConflictTally tally;
+    private long epoch;
+    private ConflictDetectionStats stats;
 
     public ConflictDetectionEngine() {
         this(new SeparationMinima());
     }
 
     public ConflictDetectionEngine(SeparationMinima defaultSeparationMinima) {
-        this.defaultSeparationMinima = Objects.requireNonNull(defaultSeparationMinima);
-        this.flights = new HashMap<>();
+        this(defaultSeparationMinima, SeparationKernel.Type.SCALAR);
+    }
+
+    /**
+     * Create an engine with a specific pair kernel. Requesting
+     * {@link SeparationKernel.Type#VECTOR} falls back to the scalar kernel
+     * when the Vector API module is not available.
+     */
+    public ConflictDetectionEngine(SeparationMinima defaultSeparationMinima, SeparationKernel.Type kernelType) {
+        this(SeparationRuleTable.compile(Objects.requireNonNull(defaultSeparationMinima)), kernelType);
+    }
+
+    /**
+     * Create an engine with compiled separation rules, e.g. with reduced
+     * separation airspaces, and a specific pair kernel.
+     */
+    public ConflictDetectionEngine(SeparationRuleTable separationRules, SeparationKernel.Type kernelType) {
+        this.separationRules = Objects.requireNonNull(separationRules, "Separation rules cannot be null");
+        this.kernel = SeparationKernel.create(Objects.requireNonNull(kernelType));
+        this.store = new FlightStore();
+        this.grid = new SpatialHashGrid(calculateCellSize(separationRules));
+        this.handleCellX = new int[64];
+        this.handleCellY = new int[64];
+        this.handleRules = new int[64];
+        this.workspace = new Workspace();
+        this.batchHandles = new int[64];
+        this.handleBatches = new int[64];
+        this.handleBatchIndex = new int[64];
+        this.sectorIndex = new SectorIndex();
+        this.nearestIndex = new KdTree();
+        this.mergedPairs = new long[64];
+        this.conflictBuffer = new ConflictBuffer(store);
+        this.sweptGrid = new SpatialHashGrid(grid.getCellSize());
+        this.closestApproach = new ClosestPointOfApproach();
+        this.mediumTermDetector = new MediumTermConflictDetector();
+        this.activeConflicts = new HashMap<>();
+        this.conflictPartners = new HashMap<>();
+        this.reportedConflicts = new HashMap<>();
+        this.alertTracker = new ConflictAlertTracker();
+        this.tally = new ConflictTally();
+    }
+
+    /**
+     * Size broadphase cells to the largest horizontal minima any pair can require,
+     * so a conflicting pair always lies in the same or an adjacent cell.
+     */
+    private static long calculateCellSize(SeparationRuleTable rules) {
+        return Math.max(1, rules.getMaxHorizontalMinima()); // centimeters
+    }
+
+    /**
+     * Get the separation rules in force.
+     */
+    public SeparationRuleTable getSeparationRules() {
+        return separationRules;
+    }
+
+    /**
+     * Replace the separation rules, e.g. when reduced separation airspaces change.
+     * The new table is compiled before the call and swapped in whole; every flight
+     * is re-mapped to its new rule, the broadphase is rebuilt if the largest minima
+     * changed, and the live conflict set is recomputed under the new minima.
+     */
+    public void setSeparationRules(SeparationRuleTable separationRules) {
+        Objects.requireNonNull(separationRules, "Separation rules cannot be null");
+        this.separationRules = separationRules;
+
+        int count = store.size();
+        long cellSize = calculateCellSize(separationRules);
+        if (cellSize != grid.getCellSize()) {
+            grid = new SpatialHashGrid(cellSize);
+            sweptGrid = new SpatialHashGrid(cellSize);
+            sweptGridEpoch = -1;
+            grid.clear(count);
+            for (int handle = 0; handle < count; handle++) {
+                indexFlight(handle);
+            }
+        } else {
+            for (int handle = 0; handle < count; handle++) {
+                handleRules[handle] = separationRules.ruleOf(store.getSectorId(handle), store.getWakeCategory(handle));
+            }
+        }
+
+        activeConflicts.clear();
+        conflictPartners.clear();
+        tally.clear();
+        for (int handle = 0; handle < count; handle++) {
+            refreshConflicts(handle);
+        }
+        epoch++;
+    }
+
+    /**
+     * Get the pair kernel type in use.
+     */
+    public SeparationKernel.Type getKernelType() {
+        return kernel.getType();
+    }
+
+    /**
+     * Get the number of threads used for full detection; 1 means serial.
+     */
+    public int getParallelism() {
+        return detectionPool == null ? 1 : detectionPool.getParallelism();
+    }
+
+    /**
+     * Set the number of threads used for full detection.
+     * Above one, a dedicated fork/join pool is created; the detected conflicts
+     * are identical to the serial scan whatever the parallelism.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        if (parallelism == getParallelism()) {
+            return;
+        }
+
+        close();
+        if (parallelism > 1) {
+            detectionPool = new ForkJoinPool(parallelism);
+            detectionChunks = new DetectionChunk[parallelism * CHUNKS_PER_THREAD];
+            for (int i = 0; i < detectionChunks.length; i++) {
+                detectionChunks[i] = new DetectionChunk();
+            }
+            detectionRoot = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(detectionChunks);
+                }
+            };
+        }
+    }
+
+    /**
+     * Shut down the parallel detection pool, if any.
+     */
+    @Override
+    public void close() {
+        if (detectionPool != null) {
+            detectionPool.shutdown();
+            detectionPool = null;
+            detectionChunks = null;
+            detectionRoot = null;
+        }
+    }
+
+    /**
+     * Get the clock flight updates are recorded at when no time is given.
+     */
+    public DomainClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Set the clock flight updates are recorded at when no time is given, e.g. one
+     * fed cluster time so every replica records and extrapolates identically.
+     * Defaults to {@link DomainClock#SYSTEM}.
+     */
+    public void setClock(DomainClock clock) {
+        this.clock = Objects.requireNonNull(clock, "Clock cannot be null");
+    }
+
+    /**
+     * Get the lookahead horizon used by {@link #detectPredictedConflicts()}.
+     */
+    public int getLookaheadSeconds() {
+        return lookaheadSeconds;
     }
 
     /**
-     * Add or update a flight in the system.
+     * Set the lookahead horizon used by {@link #detectPredictedConflicts()}.
+     */
+    public void setLookaheadSeconds(int lookaheadSeconds) {
+        if (lookaheadSeconds < 0 || lookaheadSeconds > MAX_LOOKAHEAD_SECONDS) {
+            throw new IllegalArgumentException("Lookahead must be between 0 and " + MAX_LOOKAHEAD_SECONDS + " seconds");
+        }
+        this.lookaheadSeconds = lookaheadSeconds;
+    }
+
+    /**
+     * Add or update a flight in the system, recorded at the engine clock's time.
+     * Only the changed flight is re-tested, against its spatial neighbours.
      */
     public void updateFlight(Flight flight) {
-        flights.put(flight.getFlightId(), flight);
+        updateFlight(flight, clock.nanos());
+    }
+
+    /**
+     * Add or update a flight in the system, measured at a given time, e.g. the
+     * cluster time of the report. Extrapolation advances the flight from that time.
+     */
+    public void updateFlight(Flight flight, long timeNanos) {
+        int existing = store.handleOf(flight.getFlightId());
+        if (existing != FlightStore.MISSING_HANDLE) {
+            grid.removeFromCell(existing, handleCellX[existing], handleCellY[existing]);
+        }
+
+        int handle = store.put(flight, timeNanos);
+        indexFlight(handle);
+        sectorIndex.put(handle, store.getSectorId(handle));
+        refreshConflicts(handle);
+        epoch++;
+    }
+
+    /**
+     * Apply a track update to a flight already in the system, in place: the new
+     * kinematics are written into its store record by handle, so the flight ID is
+     * not re-hashed and no flight or state objects are built. The flight keeps its
+     * intent, performance and sector; it only moves in the grid if it changed cell.
+     * Handles come from {@code getFlightStore().handleOf} and stay valid until the
+     * next removal.
+     *
+     * @throws IndexOutOfBoundsException if the handle is not in the store
+     */
+    public void updateTrack(int handle, long positionX, long positionY, long altitude,
+                            long velocityX, long velocityY, long timeNanos) {
+        updateTrack(handle, positionX, positionY, altitude, velocityX, velocityY, 0L, timeNanos);
     }
 
     /**
-     * Remove a flight from the system.
+     * Apply a track update with a measured vertical rate, in centimeters per second.
+     *
+     * @see #updateTrack(int, long, long, long, long, long, long)
+     */
+    public void updateTrack(int handle, long positionX, long positionY, long altitude,
+                            long velocityX, long velocityY, long verticalRate, long timeNanos) {
+        store.update(handle, positionX, positionY, altitude, velocityX, velocityY, verticalRate, timeNanos);
+        relocateFlight(handle);
+        refreshConflicts(handle);
+        epoch++;
+    }
+
+    /**
+     * Apply a batch of track updates in place, e.g. every track a fusion cycle
+     * refined, as a single change. Entry {@code i} of each column is the update for
+     * {@code handles[i]}, measured at {@code timeNanos[i]}. As with
+     * {@link #updateFlights}, only the changed flights are re-tested, each pair once,
+     * and the epoch advances once; a handle listed twice takes its last update.
+     *
+     * @see #updateTrack(int, long, long, long, long, long, long, long)
+     * @return the number of distinct flights changed
+     * @throws IndexOutOfBoundsException if a handle is not in the store
+     */
+    public int updateTracks(int count, int[] handles, long[] positionX, long[] positionY, long[] altitude,
+                            long[] velocityX, long[] velocityY, long[] verticalRate, long[] timeNanos) {
+        if (count == 0) {
+            return 0;
+        }
+        batchId++;
+        int changedCount = 0;
+        for (int i = 0; i < count; i++) {
+            int handle = handles[i];
+            store.update(handle, positionX[i], positionY[i], altitude[i],
+                    velocityX[i], velocityY[i], verticalRate[i], timeNanos[i]);
+            if (handleBatches[handle] != batchId) {
+                handleBatches[handle] = batchId;
+                handleBatchIndex[handle] = changedCount;
+                if (changedCount == batchHandles.length) {
+                    batchHandles = Arrays.copyOf(batchHandles, changedCount * 2);
+                }
+                batchHandles[changedCount++] = handle;
+            }
+        }
+
+        for (int b = 0; b < changedCount; b++) {
+            int handle = batchHandles[b];
+            relocateFlight(handle);
+            dropConflicts(store.getFlightId(handle));
+        }
+        for (int b = 0; b < changedCount; b++) {
+            recordConflicts(batchHandles[b], b);
+        }
+        epoch++;
+        return changedCount;
+    }
+
+    /**
+     * Dead-reckon the whole traffic picture to a cluster time, so detection between
+     * radar scans sees where flights are rather than where they were last measured.
+     * Every flight is advanced from its last measurement along its velocity and
+     * vertical rate, at nanosecond resolution and by at most
+     * {@link #MAX_EXTRAPOLATION_NANOS}, in one pass over the store's columns.
+     * Measured positions and {@link Flight} records are kept as reported. Only the
+     * flights that moved are relocated in the grid and re-tested, as one batch like
+     * {@link #updateFlights}: conflicts between flights that did not move are kept
+     * as they are, and each pair with a moved flight is tested once.
+     *
+     * @return the number of flights whose position changed
+     */
+    public int extrapolateTo(long timeNanos) {
+        int count = store.size();
+        if (batchHandles.length < count) {
+            batchHandles = Arrays.copyOf(batchHandles, Math.max(count, batchHandles.length * 2));
+        }
+        int moved = store.extrapolate(timeNanos, MAX_EXTRAPOLATION_NANOS, batchHandles);
+        if (moved == 0) {
+            return 0;
+        }
+
+        batchId++;
+        for (int b = 0; b < moved; b++) {
+            int handle = batchHandles[b];
+            relocateFlight(handle);
+            handleBatches[handle] = batchId;
+            handleBatchIndex[handle] = b;
+            dropConflicts(store.getFlightId(handle));
+        }
+        for (int b = 0; b < moved; b++) {
+            recordConflicts(batchHandles[b], b);
+        }
+        epoch++;
+        return moved;
+    }
+
+    /**
+     * Add or update a batch of flights, e.g. one radar scan, as a single change.
+     * The store is written first; the grid is then refit once, moving only flights
+     * that changed cell, or rebuilt outright when the batch touches a large share of
+     * the traffic. Only the changed flights are re-tested, each pair once, and the
+     * epoch advances once for the whole batch. A flight listed twice takes its last
+     * record. The apply time is reported by {@link #getLastBatchNanos()}. The
+     * batch is recorded at the engine clock's time.
+     *
+     * @return the number of distinct flights changed
+     */
+    public int updateFlights(Collection<Flight> batch) {
+        return updateFlights(batch, clock.nanos());
+    }
+
+    /**
+     * Add or update a batch of flights measured at a given time, e.g. the cluster
+     * time of the scan.
+     *
+     * @see #updateFlights(Collection)
+     * @return the number of distinct flights changed
+     */
+    public int updateFlights(Collection<Flight> batch, long timeNanos) {
+        long start = System.nanoTime();
+        int previousCount = store.size();
+        batchId++;
+
+        int changedCount = 0;
+        for (Flight flight : batch) {
+            int handle = store.put(flight, timeNanos);
+            ensureHandleCapacity(handle);
+            if (handleBatches[handle] != batchId) {
+                handleBatches[handle] = batchId;
+                handleBatchIndex[handle] = changedCount;
+                if (changedCount == batchHandles.length) {
+                    batchHandles = Arrays.copyOf(batchHandles, changedCount * 2);
+                }
+                batchHandles[changedCount++] = handle;
+            }
+        }
+
+        int count = store.size();
+        if (changedCount * REBUILD_FRACTION >= count) {
+            grid.clear(count);
+            for (int handle = 0; handle < count; handle++) {
+                indexFlight(handle);
+            }
+        } else {
+            for (int b = 0; b < changedCount; b++) {
+                int handle = batchHandles[b];
+                if (handle >= previousCount) {
+                    indexFlight(handle);
+                    continue;
+                }
+                relocateFlight(handle);
+            }
+        }
+
+        for (int b = 0; b < changedCount; b++) {
+            int handle = batchHandles[b];
+            sectorIndex.put(handle, store.getSectorId(handle));
+            dropConflicts(store.getFlightId(handle));
+        }
+        for (int b = 0; b < changedCount; b++) {
+            recordConflicts(batchHandles[b], b);
+        }
+        epoch++;
+
+        lastBatchSize = changedCount;
+        lastBatchNanos = System.nanoTime() - start;
+        return changedCount;
+    }
+
+    /**
+     * Get the number of distinct flights changed by the last {@link #updateFlights} call.
+     */
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    /**
+     * Get the time the last {@link #updateFlights} call took to apply, in nanoseconds.
+     */
+    public long getLastBatchNanos() {
+        return lastBatchNanos;
+    }
+
+    /**
+     * Remove a flight from the system, dropping every conflict it was part of.
      */
     public void removeFlight(String flightId) {
-        flights.remove(flightId);
+        int handle = store.handleOf(flightId);
+        if (handle == FlightStore.MISSING_HANDLE) {
+            return;
+        }
+
+        dropConflicts(flightId);
+        grid.removeFromCell(handle, handleCellX[handle], handleCellY[handle]);
+        sectorIndex.remove(handle);
+        epoch++;
+
+        // The store swaps its last record into the freed handle; re-key that flight in the indexes
+        int last = store.size() - 1;
+        store.remove(flightId);
+        if (handle != last) {
+            grid.removeFromCell(last, handleCellX[last], handleCellY[last]);
+            handleCellX[handle] = handleCellX[last];
+            handleCellY[handle] = handleCellY[last];
+            handleRules[handle] = handleRules[last];
+            grid.insertIntoCell(handle, handleCellX[handle], handleCellY[handle]);
+            sectorIndex.move(last, handle);
+        }
     }
 
     /**
      * Get all flights in the system.
      */
     public Collection<Flight> getAllFlights() {
-        return flights.values();
+        return store.flights();
+    }
+
+    /**
+     * Get the underlying flight store. Handles are valid until the next remove.
+     */
+    public FlightStore getFlightStore() {
+        return store;
     }
 
     /**
      * Detect all conflicts in the system.
+     * Pairs are found through the spatial hash broadphase and reported in the same
+     * order as a full pair scan over the flights in handle order would produce.
      */
     public List<Conflict> detectAllConflicts() {
+        detectAllConflicts(conflictBuffer);
+        return conflictBuffer.toConflicts();
+    }
+
+    /**
+     * Detect all conflicts into a reusable buffer, replacing its contents.
+     * Same pairs and order as {@link #detectAllConflicts()}, but once the buffer
+     * and the scratch arrays have grown to the peak conflict count, no objects
+     * are allocated. The buffer must have been created for this engine's store.
+     */
+    public void detectAllConflicts(ConflictBuffer output) {
+        if (output.getStore() != store) {
+            throw new IllegalArgumentException("Conflict buffer belongs to a different flight store");
+        }
+        output.clear();
+
+        int count = store.size();
+        if (detectionPool != null && count >= PARALLEL_THRESHOLD) {
+            detectAllConflictsInParallel(count, output);
+            return;
+        }
+
+        for (int i = 0; i < count; i++) {
+            int candidateCount = gatherCandidates(workspace, i, handleCellX[i], handleCellY[i]);
+            int matchCount = findConflicts(workspace, i, workspace.candidates, 0, candidateCount);
+
+            for (int m = 0; m < matchCount; m++) {
+                appendConflict(output, i, workspace.matches[m]);
+            }
+        }
+    }
+
+    /**
+     * Split the handle range into chunks, detect each on the pool, then merge the
+     * pairs sorted by (handle1, handle2) so the result does not depend on scheduling.
+     * Chunks cover ascending handle ranges and each emits its pairs in order, so
+     * concatenating them in chunk order is already sorted.
+     */
+    private void detectAllConflictsInParallel(int count, ConflictBuffer output) {
+        int chunkCount = detectionChunks.length;
+        for (int k = 0; k < chunkCount; k++) {
+            DetectionChunk chunk = detectionChunks[k];
+            chunk.reinitialize();
+            chunk.from = (int) ((long) count * k / chunkCount);
+            chunk.to = (int) ((long) count * (k + 1) / chunkCount);
+        }
+        detectionRoot.reinitialize();
+        detectionPool.invoke(detectionRoot);
+
+        int total = 0;
+        for (DetectionChunk chunk : detectionChunks) {
+            total += chunk.workspace.pairCount;
+        }
+        if (mergedPairs.length < total) {
+            mergedPairs = new long[Math.max(total, mergedPairs.length * 2)];
+        }
+        int offset = 0;
+        for (DetectionChunk chunk : detectionChunks) {
+            System.arraycopy(chunk.workspace.pairs, 0, mergedPairs, offset, chunk.workspace.pairCount);
+            offset += chunk.workspace.pairCount;
+        }
+
+        for (int p = 0; p < total; p++) {
+            appendConflict(output, ConflictBuffer.firstHandle(mergedPairs[p]), ConflictBuffer.secondHandle(mergedPairs[p]));
+        }
+    }
+
+    /**
+     * Detect conflicts predicted within the lookahead horizon.
+     * Each flight's path over the horizon is swept into an axis-aligned box and
+     * inserted into every grid cell it touches; only flights sharing a cell are
+     * solved for their closest point of approach. The reported distance is the
+     * minimum horizontal distance and the time is the first loss of separation.
+     * The swept boxes are kept until flights change, so repeated calls and what-if
+     * probes within an epoch share them.
+     * With a zero horizon this is the same as {@link #detectAllConflicts()}.
+     */
+    public List<Conflict> detectPredictedConflicts() {
+        if (lookaheadSeconds == 0) {
+            return detectAllConflicts();
+        }
+
+        int count = store.size();
+        long horizon = lookaheadSeconds;
+        long padding = sweptPadding();
+        SpatialHashGrid swept = sweptIndex();
+
         List<Conflict> conflicts = new ArrayList<>();
-        List<Flight> flightList = new ArrayList<>(flights.values());
+        for (int i = 0; i < count; i++) {
+            int candidateCount = gatherSweptCandidates(workspace, swept, store.getPositionX(i), store.getPositionY(i),
+                    store.getVelocityX(i), store.getVelocityY(i), horizon, padding, i);
+            for (int c = 0; c < candidateCount; c++) {
+                int other = workspace.candidates[c];
+                if (predictConflict(closestApproach, store.getPositionX(i), store.getPositionY(i), store.getAltitude(i),
+                        store.getVelocityX(i), store.getVelocityY(i), store.getVerticalRate(i), handleRules[i], other,
+                        lookaheadSeconds)) {
+                    conflicts.add(new Conflict(
+                        store.getFlightId(i),
+                        store.getFlightId(other),
+                        Conflict.Severity.HIGH,
+                        closestApproach.getHorizontalDistance(),
+                        closestApproach.getLossOfSeparationTime()
+                    ));
+                }
+            }
+        }
 
-        for (int i = 0; i < flightList.size(); i++) {
-            for (int j = i + 1; j < flightList.size(); j++) {
-                Flight flight1 = flightList.get(i);
-                Flight flight2 = flightList.get(j);
+        return conflicts;
+    }
 
-                Conflict conflict = detectConflict(flight1, flight2);
-                if (conflict != null) {
-                    conflicts.add(conflict);
+    /**
+     * Detect conflicts predicted within the lookahead horizon for pairs with at
+     * least one flight in the given sectors, including pairs across a sector
+     * boundary. Only the sectors' flights are visited, through the sector index,
+     * and each is tested against its swept candidates in any sector; a pair with
+     * both flights in the sectors is reported once. Each pair is solved as
+     * {@link #detectPredictedConflicts()} solves it, lower handle first, so a
+     * region reports the same numbers as the whole picture.
+     * With no sector IDs this is {@link #detectPredictedConflicts()}.
+     */
+    public List<Conflict> detectPredictedConflictsInSectors(int... sectorIds) {
+        if (sectorIds.length == 0) {
+            return detectPredictedConflicts();
+        }
+
+        long horizon = lookaheadSeconds;
+        long padding = sweptPadding();
+        SpatialHashGrid swept = lookaheadSeconds == 0 ? null : sweptIndex();
+
+        List<Conflict> conflicts = new ArrayList<>();
+        for (int sectorId : sectorIds) {
+            int sectorCount = sectorIndex.size(sectorId);
+            if (sectorCount == 0) {
+                continue;
+            }
+            workspace.members = sectorIndex.copyMembers(sectorId, workspace.members);
+            sortHandles(workspace.members, sectorCount);
+            for (int i = 0; i < sectorCount; i++) {
+                int handle = workspace.members[i];
+                if (swept == null) {
+                    int candidateCount = gatherCandidates(workspace, -1, handleCellX[handle], handleCellY[handle]);
+                    int matchCount = findConflicts(workspace, handle, workspace.candidates, 0, candidateCount);
+                    for (int m = 0; m < matchCount; m++) {
+                        int other = workspace.matches[m];
+                        if (reportsPair(handle, other, sectorIds)) {
+                            conflicts.add(createConflict(Math.min(handle, other), Math.max(handle, other)));
+                        }
+                    }
+                    continue;
+                }
+
+                int candidateCount = gatherSweptCandidates(workspace, swept, store.getPositionX(handle),
+                        store.getPositionY(handle), store.getVelocityX(handle), store.getVelocityY(handle),
+                        horizon, padding, -1);
+                for (int c = 0; c < candidateCount; c++) {
+                    int other = workspace.candidates[c];
+                    if (!reportsPair(handle, other, sectorIds)) {
+                        continue;
+                    }
+                    int first = Math.min(handle, other);
+                    int second = Math.max(handle, other);
+                    if (predictConflict(closestApproach, store.getPositionX(first), store.getPositionY(first),
+                            store.getAltitude(first), store.getVelocityX(first), store.getVelocityY(first),
+                            store.getVerticalRate(first), handleRules[first], second, lookaheadSeconds)) {
+                        conflicts.add(new Conflict(
+                            store.getFlightId(first),
+                            store.getFlightId(second),
+                            Conflict.Severity.HIGH,
+                            closestApproach.getHorizontalDistance(),
+                            closestApproach.getLossOfSeparationTime()
+                        ));
+                    }
                 }
             }
         }
@@ -68,36 +739,644 @@ public class ConflictDetectionEngine {
     }
 
     /**
-     * Detect conflicts for a specific flight.
+     * Check if a region flight reports a pair: not with itself, and a pair with both
+     * flights in the region only from its lower handle.
+     */
+    private boolean reportsPair(int handle, int other, int[] sectorIds) {
+        if (other == handle) {
+            return false;
+        }
+        return other > handle || !containsSector(sectorIds, store.getSectorId(other));
+    }
+
+    private static boolean containsSector(int[] sectorIds, int sectorId) {
+        for (int id : sectorIds) {
+            if (id == sectorId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the conflicts a hypothetical flight would have with the live traffic within
+     * the lookahead horizon, e.g. to test a clearance before issuing it. A live flight
+     * with the same ID is taken to be replaced and is not tested against. Nothing is
+     * changed: the probe reads the live indexes in place, without copying the traffic,
+     * so it can run between detection cycles at any rate. Each conflict names the
+     * hypothetical flight first; with a zero horizon only current separation is tested.
+     */
+    public List<Conflict> probe(Flight hypothetical) {
+        Objects.requireNonNull(hypothetical, "Hypothetical flight cannot be null");
+        prepareProbes();
+        return probe(hypothetical, workspace, closestApproach);
+    }
+
+    /**
+     * Build the indexes probes read, on the calling thread. After this, probes with
+     * their own {@link ProbeScratch} only read engine state, so they can run
+     * concurrently until the flights or the horizon change.
+     */
+    void prepareProbes() {
+        if (lookaheadSeconds > 0) {
+            sweptIndex();
+        }
+    }
+
+    /**
+     * Probe a hypothetical flight with a thread's own scratch buffers.
+     * {@link #prepareProbes()} must have been called since the flights last changed.
+     */
+    List<Conflict> probe(Flight hypothetical, ProbeScratch scratch) {
+        return probe(hypothetical, scratch.workspace, scratch.closestApproach);
+    }
+
+    private List<Conflict> probe(Flight hypothetical, Workspace workspace, ClosestPointOfApproach closestApproach) {
+        AircraftState state = hypothetical.getState();
+        int rule = separationRules.ruleOf(hypothetical.getSectorId(), hypothetical.getPerformance().getWakeCategory().ordinal());
+        int self = store.handleOf(hypothetical.getFlightId());
+
+        List<Conflict> conflicts = new ArrayList<>();
+        if (lookaheadSeconds == 0) {
+            int candidateCount = gatherCandidates(workspace, -1,
+                    grid.cellOf(state.getPositionX()), grid.cellOf(state.getPositionY()));
+            for (int c = 0; c < candidateCount; c++) {
+                int other = workspace.candidates[c];
+                if (other != self && losesSeparationNow(state, rule, other)) {
+                    double horizontalDistance = FixedPointGeometry.horizontalDistance(
+                        state.getPositionX() - store.getPositionX(other),
+                        state.getPositionY() - store.getPositionY(other)) / SCALE;
+                    conflicts.add(new Conflict(hypothetical.getFlightId(), store.getFlightId(other),
+                        Conflict.Severity.HIGH, horizontalDistance, 0.0));
+                }
+            }
+            return conflicts;
+        }
+
+        int candidateCount = gatherSweptCandidates(workspace, sweptGrid, state.getPositionX(), state.getPositionY(),
+                state.getVelocityX(), state.getVelocityY(), lookaheadSeconds, sweptPadding(), -1);
+        for (int c = 0; c < candidateCount; c++) {
+            int other = workspace.candidates[c];
+            if (other != self && predictConflict(closestApproach, state.getPositionX(), state.getPositionY(),
+                    state.getAltitude(), state.getVelocityX(), state.getVelocityY(), state.getVerticalRate(), rule, other,
+                    lookaheadSeconds)) {
+                conflicts.add(new Conflict(hypothetical.getFlightId(), store.getFlightId(other), Conflict.Severity.HIGH,
+                    closestApproach.getHorizontalDistance(), closestApproach.getLossOfSeparationTime()));
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Probe a state change of a live flight, keeping its intent, performance and
+     * sector, e.g. a new altitude for a climb clearance. Returns an empty list for
+     * an unknown flight.
+     *
+     * @see #probe(Flight)
+     */
+    public List<Conflict> probe(String flightId, AircraftState hypotheticalState) {
+        int handle = store.handleOf(flightId);
+        if (handle == FlightStore.MISSING_HANDLE) {
+            return Collections.emptyList();
+        }
+        Flight live = store.getFlight(handle);
+        return probe(new Flight(flightId, hypotheticalState, live.getIntent(), live.getPerformance(), live.getSectorId(),
+            live.getLastUpdateNanos()));
+    }
+
+    /**
+     * Probe a manoeuvre over the lookahead horizon, e.g. a resolution candidate: the
+     * hypothetical state is flown with its vertical rate for {@code levelOffSeconds},
+     * then level, against the live traffic dead-reckoned along its velocities. Unlike
+     * {@link #probe(Flight)}, separation already lost is not a failure in itself: the
+     * outcome is when separation from {@code partnerId} is regained for good, and how
+     * many other flights the manoeuvre loses separation with. Both are left in the
+     * scratch. With a zero horizon only current separation is tested, so a pair
+     * already within minima is never regained.
+     * {@link #prepareProbes()} must have been called since the flights last changed.
+     */
+    void probeManoeuvre(Flight hypothetical, double levelOffSeconds, String partnerId, ProbeScratch scratch) {
+        AircraftState state = hypothetical.getState();
+        int rule = separationRules.ruleOf(hypothetical.getSectorId(), hypothetical.getPerformance().getWakeCategory().ordinal());
+        int self = store.handleOf(hypothetical.getFlightId());
+        int partner = store.handleOf(partnerId);
+        double levelOff = Math.max(0.0, Math.min(lookaheadSeconds, levelOffSeconds));
+
+        int candidateCount = lookaheadSeconds == 0
+            ? gatherCandidates(scratch.workspace, -1, grid.cellOf(state.getPositionX()), grid.cellOf(state.getPositionY()))
+            : gatherSweptCandidates(scratch.workspace, sweptGrid, state.getPositionX(), state.getPositionY(),
+                state.getVelocityX(), state.getVelocityY(), lookaheadSeconds, sweptPadding(), -1);
+        scratch.losses = 0;
+        scratch.regainSeconds = 0.0; // a partner out of reach is never lost
+        for (int c = 0; c < candidateCount; c++) {
+            int other = scratch.workspace.candidates[c];
+            if (other == self) {
+                continue;
+            }
+            double regain = lookaheadSeconds == 0
+                ? (losesSeparationNow(state, rule, other) ? NOT_REGAINED : 0.0)
+                : regainSeparation(scratch.closestApproach, state, rule, other, levelOff);
+            if (other == partner) {
+                scratch.regainSeconds = regain;
+            } else if (regain != 0.0) {
+                scratch.losses++;
+            }
+        }
+    }
+
+    /**
+     * Pad each swept box by half the largest minima so any pair that can come within
+     * minima of each other has overlapping boxes.
+     */
+    private long sweptPadding() {
+        return sweptGrid.getCellSize() / 2 + 1;
+    }
+
+    /**
+     * Get the swept-volume index for the lookahead horizon, rebuilding it if flights
+     * or the horizon changed since it was built. Each flight's path over the horizon
+     * is swept into an axis-aligned box and inserted into every grid cell it touches.
+     */
+    private SpatialHashGrid sweptIndex() {
+        if (sweptGridEpoch == epoch && sweptGridHorizon == lookaheadSeconds) {
+            return sweptGrid;
+        }
+
+        int count = store.size();
+        long horizon = lookaheadSeconds;
+        long padding = sweptPadding();
+        sweptGrid.clear(count * 4);
+        for (int handle = 0; handle < count; handle++) {
+            long x0 = store.getPositionX(handle);
+            long y0 = store.getPositionY(handle);
+            long x1 = x0 + store.getVelocityX(handle) * horizon;
+            long y1 = y0 + store.getVelocityY(handle) * horizon;
+            int minCellX = sweptGrid.cellOf(Math.min(x0, x1) - padding);
+            int maxCellX = sweptGrid.cellOf(Math.max(x0, x1) + padding);
+            int minCellY = sweptGrid.cellOf(Math.min(y0, y1) - padding);
+            int maxCellY = sweptGrid.cellOf(Math.max(y0, y1) + padding);
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+                    sweptGrid.insertIntoCell(handle, cellX, cellY);
+                }
+            }
+        }
+        sweptGridEpoch = epoch;
+        sweptGridHorizon = lookaheadSeconds;
+        return sweptGrid;
+    }
+
+    /**
+     * Detect medium-term conflicts (MTCD) along each flight's intent, up to
+     * {@link #MTCD_HORIZON_SECONDS} ahead. Flights follow their remaining waypoints
+     * with climbs and descents at performance rates, as 4D segment trajectories;
+     * segment pairs are found through a spatial grid and solved for closest point of
+     * approach over the time both are flown. Each pair is reported once, in handle
+     * order, with the horizontal distance at closest approach and the time of the
+     * first predicted loss of separation. Every flight is predicted on one time base,
+     * the flight store's picture time, however long ago it was measured.
+     */
+    public List<Conflict> detectMediumTermConflicts() {
+        detectMediumTermConflicts(conflictBuffer);
+        return conflictBuffer.toConflicts();
+    }
+
+    /**
+     * Detect medium-term conflicts into a reusable buffer, replacing its contents.
+     * The buffer must have been created for this engine's store.
+     */
+    public void detectMediumTermConflicts(ConflictBuffer output) {
+        if (output.getStore() != store) {
+            throw new IllegalArgumentException("Conflict buffer belongs to a different flight store");
+        }
+        output.clear();
+        mediumTermDetector().detect(separationRules, handleRules, output);
+    }
+
+    /**
+     * Detect medium-term conflicts between one flight's intent and every other
+     * flight's, through the segment time index. Returns an empty list for an
+     * unknown flight.
+     */
+    public List<Conflict> detectMediumTermConflictsForFlight(String flightId) {
+        int handle = store.handleOf(flightId);
+        if (handle == FlightStore.MISSING_HANDLE) {
+            return Collections.emptyList();
+        }
+
+        conflictBuffer.clear();
+        mediumTermDetector().detectForFlight(handle, separationRules, handleRules, conflictBuffer);
+        return conflictBuffer.toConflicts();
+    }
+
+    /**
+     * Get the medium-term detector, re-predicting every trajectory if flights or
+     * the picture time changed since it was built.
+     */
+    private MediumTermConflictDetector mediumTermDetector() {
+        if (mediumTermEpoch != epoch || mediumTermPictureNanos != store.getPictureNanos()) {
+            mediumTermDetector.build(store, MTCD_HORIZON_SECONDS, grid.getCellSize());
+            mediumTermEpoch = epoch;
+            mediumTermPictureNanos = store.getPictureNanos();
+        }
+        return mediumTermDetector;
+    }
+
+    /**
+     * Collect the distinct handles greater than {@code minHandle} whose swept boxes
+     * overlap the box swept by a track over the horizon, in ascending order.
+     */
+    private int gatherSweptCandidates(Workspace workspace, SpatialHashGrid swept, long x0, long y0,
+                                      long velocityX, long velocityY, long horizon, long padding, int minHandle) {
+        long x1 = x0 + velocityX * horizon;
+        long y1 = y0 + velocityY * horizon;
+        int minCellX = swept.cellOf(Math.min(x0, x1) - padding);
+        int maxCellX = swept.cellOf(Math.max(x0, x1) + padding);
+        int minCellY = swept.cellOf(Math.min(y0, y1) - padding);
+        int maxCellY = swept.cellOf(Math.max(y0, y1) + padding);
+
+        int count = 0;
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+                for (int node = swept.firstNode(cellX, cellY); node != -1; node = swept.nextNode(node)) {
+                    int other = swept.entryOf(node);
+                    if (other > minHandle) {
+                        count = workspace.addCandidate(count, other);
+                    }
+                }
+            }
+        }
+
+        // Boxes overlap in several cells, so drop duplicate handles
+        sortHandles(workspace.candidates, count);
+        int unique = 0;
+        for (int c = 0; c < count; c++) {
+            if (unique == 0 || workspace.candidates[unique - 1] != workspace.candidates[c]) {
+                workspace.candidates[unique++] = workspace.candidates[c];
+            }
+        }
+        return unique;
+    }
+
+    /**
+     * Collect the handles greater than {@code handle} found in the 3x3 cell
+     * neighbourhood of a cell, in ascending order.
+     */
+    private int gatherCandidates(Workspace workspace, int handle, int cellX, int cellY) {
+        int count = 0;
+
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int node = grid.firstNode(cellX + dx, cellY + dy); node != -1; node = grid.nextNode(node)) {
+                    int other = grid.entryOf(node);
+                    if (other > handle) {
+                        count = workspace.addCandidate(count, other);
+                    }
+                }
+            }
+        }
+
+        sortHandles(workspace.candidates, count);
+        return count;
+    }
+
+    /**
+     * Sort the first {@code count} handles in place. Heapsort rather than
+     * {@link Arrays#sort(int[], int, int)}, which allocates merge buffers for the
+     * presorted runs that the per-cell lists produce.
+     */
+    static void sortHandles(int[] handles, int count) {
+        for (int i = count / 2 - 1; i >= 0; i--) {
+            siftDown(handles, i, count);
+        }
+        for (int end = count - 1; end > 0; end--) {
+            int top = handles[0];
+            handles[0] = handles[end];
+            handles[end] = top;
+            siftDown(handles, 0, end);
+        }
+    }
+
+    private static void siftDown(int[] handles, int root, int count) {
+        int value = handles[root];
+        int child;
+        while ((child = 2 * root + 1) < count) {
+            if (child + 1 < count && handles[child + 1] > handles[child]) {
+                child++;
+            }
+            if (handles[child] <= value) {
+                break;
+            }
+            handles[root] = handles[child];
+            root = child;
+        }
+        handles[root] = value;
+    }
+
+    /**
+     * Get the conflicts currently held in the live conflict set.
+     */
+    public List<Conflict> getActiveConflicts() {
+        return new ArrayList<>(activeConflicts.values());
+    }
+
+    /**
+     * Get the changes to the live conflict set since the previous call.
+     * A pair that appeared and cleared again between two polls is not reported.
+     */
+    public ConflictDelta pollConflictDelta() {
+        List<Conflict> newConflicts = new ArrayList<>();
+        List<Conflict> persistingConflicts = new ArrayList<>();
+        List<Conflict> resolvedConflicts = new ArrayList<>();
+
+        for (Map.Entry<ConflictPair, Conflict> entry : activeConflicts.entrySet()) {
+            if (reportedConflicts.containsKey(entry.getKey())) {
+                persistingConflicts.add(entry.getValue());
+            } else {
+                newConflicts.add(entry.getValue());
+            }
+        }
+        for (Map.Entry<ConflictPair, Conflict> entry : reportedConflicts.entrySet()) {
+            if (!activeConflicts.containsKey(entry.getKey())) {
+                resolvedConflicts.add(entry.getValue());
+            }
+        }
+
+        reportedConflicts.clear();
+        reportedConflicts.putAll(activeConflicts);
+        return new ConflictDelta(newConflicts, persistingConflicts, resolvedConflicts);
+    }
+
+    /**
+     * Get the alert tracker behind {@link #pollConflictAlerts(long)}.
+     */
+    public ConflictAlertTracker getAlertTracker() {
+        return alertTracker;
+    }
+
+    /**
+     * Replace the alert tracker, e.g. to change its thresholds. Open alerts are
+     * not carried over; pairs still in conflict are raised again on the next poll.
+     */
+    public void setAlertTracker(ConflictAlertTracker alertTracker) {
+        this.alertTracker = Objects.requireNonNull(alertTracker, "Alert tracker cannot be null");
+    }
+
+    /**
+     * Advance the conflict alerts to a detection cycle and return only their state
+     * transitions. The live conflict set drives ACTIVE alerts; with a lookahead
+     * horizon set, {@link #detectPredictedConflicts()} drives PREDICTED ones.
+     * Unlike {@link #pollConflictDelta()}, a pair flickering across the separation
+     * boundary keeps one alert open instead of appearing and resolving every cycle.
+     *
+     * @param timeNanos cycle time, e.g. cluster time, never earlier than the previous poll
+     */
+    public List<ConflictAlert> pollConflictAlerts(long timeNanos) {
+        List<Conflict> predicted = lookaheadSeconds == 0 ? Collections.emptyList() : detectPredictedConflicts();
+        return alertTracker.update(activeConflicts.values(), predicted, timeNanos);
+    }
+
+    /**
+     * Advance only the alerts of pairs with a flight in the given sectors, from the
+     * predictions {@link #detectPredictedConflictsInSectors} gave for those sectors,
+     * so each detection region drives its own alerts at its own cadence. Alerts of
+     * pairs outside the sectors are left as they are until their own region polls;
+     * a pair whose flight has been removed is observed clear by any region.
+     * With no sector IDs every pair is advanced, as {@link #pollConflictAlerts(long)}.
+     *
+     * @param timeNanos cycle time, e.g. cluster time, never earlier than the previous poll
+     */
+    public List<ConflictAlert> pollConflictAlerts(long timeNanos, int[] sectorIds, Collection<Conflict> predicted) {
+        if (sectorIds.length == 0) {
+            return alertTracker.update(activeConflicts.values(), predicted, timeNanos);
+        }
+
+        List<Conflict> active = new ArrayList<>();
+        for (Conflict conflict : activeConflicts.values()) {
+            if (observedBy(conflict.getFlightId1(), sectorIds) || observedBy(conflict.getFlightId2(), sectorIds)) {
+                active.add(conflict);
+            }
+        }
+        return alertTracker.update(active, predicted, timeNanos,
+            (flightId1, flightId2) -> observedBy(flightId1, sectorIds) || observedBy(flightId2, sectorIds));
+    }
+
+    /**
+     * Check if a flight's pairs are observed by a poll over the given sectors.
+     */
+    private boolean observedBy(String flightId, int[] sectorIds) {
+        int handle = store.handleOf(flightId);
+        return handle == FlightStore.MISSING_HANDLE || containsSector(sectorIds, store.getSectorId(handle));
+    }
+
+    /**
+     * Re-test one flight against its spatial neighbours and replace its conflicts.
+     */
+    private void refreshConflicts(int handle) {
+        dropConflicts(store.getFlightId(handle));
+        recordConflicts(handle, -1);
+    }
+
+    /**
+     * Add a flight's conflicts with its spatial neighbours to the live set. Within a
+     * batch, pairs with flights earlier in the batch were added when those were
+     * recorded, so they are skipped; {@code batchIndex} is -1 outside a batch.
+     */
+    private void recordConflicts(int handle, int batchIndex) {
+        String flightId = store.getFlightId(handle);
+        int candidateCount = gatherCandidates(workspace, -1, handleCellX[handle], handleCellY[handle]);
+        int matchCount = findConflicts(workspace, handle, workspace.candidates, 0, candidateCount);
+
+        for (int m = 0; m < matchCount; m++) {
+            int other = workspace.matches[m];
+            if (other == handle || (batchIndex >= 0 && isEarlierInBatch(other, batchIndex))) {
+                continue;
+            }
+
+            String otherId = store.getFlightId(other);
+            // Keep a canonical flight order so a pair reads the same whichever side moved
+            boolean first = flightId.compareTo(otherId) < 0;
+            Conflict conflict = first ? createConflict(handle, other) : createConflict(other, handle);
+            Conflict previous = activeConflicts.put(ConflictPair.of(flightId, otherId), conflict);
+            if (previous != null) {
+                tally.remove(previous);
+            }
+            tally.add(conflict);
+            conflictPartners.computeIfAbsent(flightId, id -> new HashSet<>()).add(otherId);
+            conflictPartners.computeIfAbsent(otherId, id -> new HashSet<>()).add(flightId);
+        }
+    }
+
+    /**
+     * Drop every live conflict involving a flight.
+     */
+    private void dropConflicts(String flightId) {
+        Set<String> partners = conflictPartners.remove(flightId);
+        if (partners == null) {
+            return;
+        }
+
+        for (String partner : partners) {
+            Conflict removed = activeConflicts.remove(ConflictPair.of(flightId, partner));
+            if (removed != null) {
+                tally.remove(removed);
+            }
+            Set<String> partnerSet = conflictPartners.get(partner);
+            if (partnerSet != null) {
+                partnerSet.remove(flightId);
+                if (partnerSet.isEmpty()) {
+                    conflictPartners.remove(partner);
+                }
+            }
+        }
+    }
+
+    /**
+     * Insert a flight into the grid, remembering its cell so it can be removed
+     * without re-reading its previous position.
+     */
+    private void indexFlight(int handle) {
+        ensureHandleCapacity(handle);
+        locateFlight(handle);
+        grid.insertIntoCell(handle, handleCellX[handle], handleCellY[handle]);
+    }
+
+    /**
+     * Resolve a flight's separation rule and grid cell from its stored record.
+     */
+    private void locateFlight(int handle) {
+        handleRules[handle] = separationRules.ruleOf(store.getSectorId(handle), store.getWakeCategory(handle));
+        handleCellX[handle] = grid.cellOf(store.getPositionX(handle));
+        handleCellY[handle] = grid.cellOf(store.getPositionY(handle));
+    }
+
+    /**
+     * Re-resolve an indexed flight after its record changed, moving it in the grid
+     * only if it changed cell.
+     */
+    private void relocateFlight(int handle) {
+        int cellX = handleCellX[handle];
+        int cellY = handleCellY[handle];
+        locateFlight(handle);
+        if (cellX != handleCellX[handle] || cellY != handleCellY[handle]) {
+            grid.removeFromCell(handle, cellX, cellY);
+            grid.insertIntoCell(handle, handleCellX[handle], handleCellY[handle]);
+        }
+    }
+
+    private void ensureHandleCapacity(int handle) {
+        if (handle >= handleCellX.length) {
+            int capacity = Math.max(handle + 1, handleCellX.length * 2);
+            handleCellX = Arrays.copyOf(handleCellX, capacity);
+            handleCellY = Arrays.copyOf(handleCellY, capacity);
+            handleRules = Arrays.copyOf(handleRules, capacity);
+            handleBatches = Arrays.copyOf(handleBatches, capacity);
+            handleBatchIndex = Arrays.copyOf(handleBatchIndex, capacity);
+        }
+    }
+
+    /**
+     * Check if a handle is in the running batch, before the given position.
+     */
+    private boolean isEarlierInBatch(int handle, int batchIndex) {
+        return handleBatches[handle] == batchId && handleBatchIndex[handle] < batchIndex;
+    }
+
+    /**
+     * Detect conflicts for a specific flight, against its broadphase neighbours.
      */
     public List<Conflict> detectConflictsForFlight(String flightId) {
-        Flight flight = flights.get(flightId);
-        if (flight == null) {
+        int handle = store.handleOf(flightId);
+        if (handle == FlightStore.MISSING_HANDLE) {
+            return Collections.emptyList();
+        }
+
+        List<Conflict> conflicts = new ArrayList<>();
+        int candidateCount = gatherCandidates(workspace, -1, handleCellX[handle], handleCellY[handle]);
+        int matchCount = findConflicts(workspace, handle, workspace.candidates, 0, candidateCount);
+        for (int m = 0; m < matchCount; m++) {
+            if (workspace.matches[m] != handle) {
+                conflicts.add(createConflict(handle, workspace.matches[m]));
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Find the {@code k} flights nearest to a flight in 3D, nearest first.
+     * Returns an empty list for an unknown flight. Distances are measured at the
+     * positions detection sees, extrapolated to the last {@link #extrapolateTo}
+     * time, and the flights are returned as copies at those positions.
+     */
+    public List<Flight> nearest(String flightId, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative");
+        }
+        int handle = store.handleOf(flightId);
+        if (handle == FlightStore.MISSING_HANDLE) {
             return Collections.emptyList();
         }
 
-        return flights.values().stream()
-                .filter(f -> !f.equals(flight))
-                .map(f -> detectConflict(flight, f))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        KdTree index = nearestIndex();
+        int count = index.nearest(store.getPositionX(handle), store.getPositionY(handle), store.getAltitude(handle), k, handle);
+        List<Flight> flights = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            flights.add(store.getExtrapolatedFlight(index.result(i)));
+        }
+        return flights;
+    }
+
+    /**
+     * Find the flights strictly within a 3D radius of a point, in handle order.
+     * Coordinates and radius are in centimeters, like AircraftState. As with
+     * {@link #nearest}, flights are matched and returned at their extrapolated positions.
+     */
+    public List<Flight> withinRadius(long x, long y, long altitude, long radius) {
+        if (radius < 0) {
+            throw new IllegalArgumentException("Radius cannot be negative");
+        }
+
+        KdTree index = nearestIndex();
+        int count = index.withinRadius(x, y, altitude, radius);
+        List<Flight> flights = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            flights.add(store.getExtrapolatedFlight(index.result(i)));
+        }
+        return flights;
+    }
+
+    /**
+     * Get the nearest-neighbour index, rebuilding it if flights changed since it was built.
+     */
+    private KdTree nearestIndex() {
+        if (nearestIndexEpoch != epoch) {
+            nearestIndex.build(store.positionXColumn(), store.positionYColumn(), store.altitudeColumn(), store.size());
+            nearestIndexEpoch = epoch;
+        }
+        return nearestIndex;
     }
 
     /**
      * Detect conflicts in a specific sector.
+     * Visits only the sector's flights, through the sector index, and tests each
+     * against its same-sector broadphase neighbours. Pairs are reported in handle
+     * order, as a pair scan over the sector's flights would produce.
      */
     public List<Conflict> detectConflictsInSector(int sectorId) {
-        List<Flight> sectorFlights = flights.values().stream()
-                .filter(f -> f.isInSector(sectorId))
-                .collect(Collectors.toList());
-
+        int sectorCount = sectorIndex.size(sectorId);
         List<Conflict> conflicts = new ArrayList<>();
-        for (int i = 0; i < sectorFlights.size(); i++) {
-            for (int j = i + 1; j < sectorFlights.size(); j++) {
-                Conflict conflict = detectConflict(sectorFlights.get(i), sectorFlights.get(j));
-                if (conflict != null) {
-                    conflicts.add(conflict);
-                }
+        if (sectorCount == 0) {
+            return conflicts;
+        }
+
+        workspace.members = sectorIndex.copyMembers(sectorId, workspace.members);
+        sortHandles(workspace.members, sectorCount);
+        for (int i = 0; i < sectorCount; i++) {
+            int handle = workspace.members[i];
+            int candidateCount = gatherSectorCandidates(workspace, handle, sectorId);
+            int matchCount = findConflicts(workspace, handle, workspace.candidates, 0, candidateCount);
+            for (int m = 0; m < matchCount; m++) {
+                conflicts.add(createConflict(handle, workspace.matches[m]));
             }
         }
 
@@ -105,103 +1384,266 @@ public class ConflictDetectionEngine {
     }
 
     /**
-     * Detect conflict between two specific flights.
+     * Collect the handles greater than {@code handle} in the same sector found in
+     * its 3x3 cell neighbourhood, in ascending order.
      */
-    private Conflict detectConflict(Flight flight1, Flight flight2) {
-        // Get appropriate separation minima considering wake turbulence
-        SeparationMinima minima = getSeparationMinima(flight1, flight2);
+    private int gatherSectorCandidates(Workspace workspace, int handle, int sectorId) {
+        int cellX = handleCellX[handle];
+        int cellY = handleCellY[handle];
+        int count = 0;
 
-        if (flight1.hasConflictWith(flight2, minima)) {
-            return new Conflict(
-                flight1.getFlightId(),
-                flight2.getFlightId(),
-                Conflict.Severity.HIGH,
-                calculateConflictDistance(flight1, flight2),
-                calculateTimeToConflict(flight1, flight2)
-            );
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int node = grid.firstNode(cellX + dx, cellY + dy); node != -1; node = grid.nextNode(node)) {
+                    int other = grid.entryOf(node);
+                    if (other > handle && store.getSectorId(other) == sectorId) {
+                        count = workspace.addCandidate(count, other);
+                    }
+                }
+            }
         }
 
-        return null;
+        sortHandles(workspace.candidates, count);
+        return count;
     }
 
     /**
-     * Get appropriate separation minima for two flights.
+     * Run the pair kernel for one flight against a block of candidate handles,
+     * leaving the conflicting handles at the front of the workspace matches.
      */
-    private SeparationMinima getSeparationMinima(Flight flight1, Flight flight2) {
-        // Consider wake turbulence - use the more restrictive separation
-        AircraftPerformance.WakeTurbulenceCategory category1 = flight1.getPerformance().getWakeCategory();
-        AircraftPerformance.WakeTurbulenceCategory category2 = flight2.getPerformance().getWakeCategory();
-        
-        // Use the higher wake category for separation
-        AircraftPerformance.WakeTurbulenceCategory higherCategory = 
-            getHigherWakeCategory(category1, category2);
-        
-        return SeparationMinima.createWithWakeTurbulence(higherCategory);
+    private int findConflicts(Workspace workspace, int handle, int[] block, int offset, int count) {
+        if (workspace.matches.length < count) {
+            workspace.matches = new int[Math.max(count, workspace.matches.length * 2)];
+        }
+        return kernel.findConflicts(store.positionXColumn(), store.positionYColumn(), store.altitudeColumn(),
+                handleRules, separationRules, handle, block, offset, count, workspace.matches);
     }
 
     /**
-     * Get the higher wake turbulence category.
+     * Build the conflict record for a pair the kernel reported.
      */
-    private AircraftPerformance.WakeTurbulenceCategory getHigherWakeCategory(
-            AircraftPerformance.WakeTurbulenceCategory cat1,
-            AircraftPerformance.WakeTurbulenceCategory cat2) {
-        
-        if (cat1 == AircraftPerformance.WakeTurbulenceCategory.SUPER || 
-            cat2 == AircraftPerformance.WakeTurbulenceCategory.SUPER) {
-            return AircraftPerformance.WakeTurbulenceCategory.SUPER;
-        }
-        if (cat1 == AircraftPerformance.WakeTurbulenceCategory.HEAVY || 
-            cat2 == AircraftPerformance.WakeTurbulenceCategory.HEAVY) {
-            return AircraftPerformance.WakeTurbulenceCategory.HEAVY;
+    private Conflict createConflict(int handle1, int handle2) {
+        double horizontalDistance = calculateHorizontalDistance(handle1, handle2);
+
+        return new Conflict(
+            store.getFlightId(handle1),
+            store.getFlightId(handle2),
+            Conflict.Severity.HIGH,
+            horizontalDistance,
+            calculateTimeToConflict(handle1, handle2, horizontalDistance)
+        );
+    }
+
+    /**
+     * Append a pair the kernel reported to a conflict buffer, without allocating.
+     */
+    private void appendConflict(ConflictBuffer output, int handle1, int handle2) {
+        double horizontalDistance = calculateHorizontalDistance(handle1, handle2);
+        output.add(handle1, handle2, Conflict.Severity.HIGH, horizontalDistance,
+            calculateTimeToConflict(handle1, handle2, horizontalDistance));
+    }
+
+    /**
+     * Current horizontal distance between two flights in meters.
+     */
+    private double calculateHorizontalDistance(int handle1, int handle2) {
+        return FixedPointGeometry.horizontalDistance(
+            store.getPositionX(handle1) - store.getPositionX(handle2),
+            store.getPositionY(handle1) - store.getPositionY(handle2)) / SCALE;
+    }
+
+    /**
+     * Solve a track against a live flight for a loss of separation within the horizon,
+     * leaving the closest approach in the given solver.
+     */
+    private boolean predictConflict(ClosestPointOfApproach closestApproach, long x, long y, long altitude,
+                                    long velocityX, long velocityY, long verticalRate, int rule, int handle2,
+                                    double horizon) {
+        int pair = separationRules.pairIndex(rule, handleRules[handle2]);
+
+        // Differences in integer centimeters first, so a pair exactly at minima stays exact
+        closestApproach.compute(
+            (store.getPositionX(handle2) - x) / SCALE,
+            (store.getPositionY(handle2) - y) / SCALE,
+            (store.getAltitude(handle2) - altitude) / SCALE,
+            (store.getVelocityX(handle2) - velocityX) / SCALE,
+            (store.getVelocityY(handle2) - velocityY) / SCALE,
+            (store.getVerticalRate(handle2) - verticalRate) / SCALE,
+            horizon, separationRules.getHorizontalMinima(pair) / SCALE, separationRules.getVerticalMinima(pair) / SCALE);
+
+        return closestApproach.losesSeparation();
+    }
+
+    /**
+     * Solve a manoeuvre against a live flight over the horizon, as two constant-velocity
+     * legs split at the level-off: 0 if separation is never lost, the time it is
+     * regained if it is lost from the start and regained within the horizon, or
+     * {@link #NOT_REGAINED} if it is lost later or never regained.
+     */
+    private double regainSeparation(ClosestPointOfApproach closestApproach, AircraftState state, int rule,
+                                    int handle2, double levelOff) {
+        int pair = separationRules.pairIndex(rule, handleRules[handle2]);
+        double horizontalMinima = separationRules.getHorizontalMinima(pair) / SCALE;
+        double verticalMinima = separationRules.getVerticalMinima(pair) / SCALE;
+        double horizon = lookaheadSeconds;
+
+        double dx = (store.getPositionX(handle2) - state.getPositionX()) / SCALE;
+        double dy = (store.getPositionY(handle2) - state.getPositionY()) / SCALE;
+        double dz = (store.getAltitude(handle2) - state.getAltitude()) / SCALE;
+        double dvx = (store.getVelocityX(handle2) - state.getVelocityX()) / SCALE;
+        double dvy = (store.getVelocityY(handle2) - state.getVelocityY()) / SCALE;
+        double dvz = (store.getVerticalRate(handle2) - state.getVerticalRate()) / SCALE;
+
+        double regain = 0.0;
+        if (levelOff > 0.0) {
+            closestApproach.compute(dx, dy, dz, dvx, dvy, dvz, levelOff, horizontalMinima, verticalMinima);
+            if (closestApproach.losesSeparation()) {
+                if (closestApproach.getLossOfSeparationTime() > 0.0) {
+                    return NOT_REGAINED;
+                }
+                regain = closestApproach.getRegainOfSeparationTime();
+            }
         }
-        if (cat1 == AircraftPerformance.WakeTurbulenceCategory.MEDIUM || 
-            cat2 == AircraftPerformance.WakeTurbulenceCategory.MEDIUM) {
-            return AircraftPerformance.WakeTurbulenceCategory.MEDIUM;
+        if (levelOff < horizon) {
+            // The level-off altitude in whole centimeters, so a level exactly at minima stays exact
+            long levelAltitude = state.getAltitude() + Math.round(state.getVerticalRate() * levelOff);
+            double levelDz = (store.getAltitude(handle2) - levelAltitude) / SCALE
+                + store.getVerticalRate(handle2) / SCALE * levelOff;
+            closestApproach.compute(dx + dvx * levelOff, dy + dvy * levelOff, levelDz,
+                dvx, dvy, store.getVerticalRate(handle2) / SCALE, horizon - levelOff, horizontalMinima, verticalMinima);
+            if (closestApproach.losesSeparation()) {
+                // Only a loss carried on unbroken from the start can still be regained
+                if (closestApproach.getLossOfSeparationTime() > 0.0 || regain != levelOff) {
+                    return NOT_REGAINED;
+                }
+                regain = levelOff + closestApproach.getRegainOfSeparationTime();
+            }
         }
-        return AircraftPerformance.WakeTurbulenceCategory.LIGHT;
+        return regain < horizon ? regain : NOT_REGAINED;
     }
 
     /**
-     * Calculate the current distance between two flights.
+     * Test a state against a live flight for a current loss of separation, in exact
+     * integer centimeters like the pair kernels.
      */
-    private double calculateConflictDistance(Flight flight1, Flight flight2) {
-        double deltaX = flight1.getState().getPositionXInMeters() - flight2.getState().getPositionXInMeters();
-        double deltaY = flight1.getState().getPositionYInMeters() - flight2.getState().getPositionYInMeters();
-        return Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+    private boolean losesSeparationNow(AircraftState state, int rule, int handle2) {
+        int pair = separationRules.pairIndex(rule, handleRules[handle2]);
+        return FixedPointGeometry.isWithin(
+            state.getPositionX() - store.getPositionX(handle2),
+            state.getPositionY() - store.getPositionY(handle2),
+            state.getAltitude() - store.getAltitude(handle2),
+            separationRules.getHorizontalMinimaSquared(pair), separationRules.getVerticalMinima(pair));
     }
 
     /**
      * Calculate estimated time to conflict (simplified calculation).
      */
-    private double calculateTimeToConflict(Flight flight1, Flight flight2) {
+    private double calculateTimeToConflict(int handle1, int handle2, double distance) {
         // Simple calculation based on relative velocity
         // In a real system, this would be more sophisticated
         double relativeVelocity = Math.abs(
-            flight1.getState().getVelocityXInMetersPerSecond() - 
-            flight2.getState().getVelocityXInMetersPerSecond()
+            store.getVelocityX(handle1) / SCALE - store.getVelocityX(handle2) / SCALE
         );
-        
+
         if (relativeVelocity < 0.1) return Double.MAX_VALUE; // No relative movement
-        
-        double distance = calculateConflictDistance(flight1, flight2);
+
         return distance / relativeVelocity; // seconds
     }
 
     /**
-     * Get system statistics.
+     * Get system statistics for the live conflict set.
+     * Aggregates are maintained as conflicts enter and leave the set, so this
+     * never re-runs detection; a snapshot, with an immutable copy of the epoch's
+     * conflicts, is built at most once per epoch and repeated reads within an
+     * epoch return the same instance.
      */
     public ConflictDetectionStats getStats() {
-        int totalFlights = flights.size();
-        List<Conflict> allConflicts = detectAllConflicts();
-        int totalConflicts = allConflicts.size();
-        
-        return new ConflictDetectionStats(totalFlights, totalConflicts, allConflicts);
+        if (stats == null || stats.getEpoch() != epoch) {
+            stats = tally.snapshot(epoch, store.size(), List.copyOf(activeConflicts.values()));
+        }
+        return stats;
+    }
+
+    /**
+     * Get the detection epoch, advanced by every change to the flights or the live conflict set.
+     */
+    public long getEpoch() {
+        return epoch;
     }
 
     /**
      * Clear all flights from the system.
      */
     public void clear() {
-        flights.clear();
+        store.clear();
+        grid.clear(0);
+        activeConflicts.clear();
+        conflictPartners.clear();
+        sectorIndex.clear();
+        tally.clear();
+        epoch++;
+    }
+
+    /**
+     * Reusable scratch buffers for one detection thread.
+     */
+    private static final class Workspace {
+        int[] candidates = new int[64];
+        int[] members = new int[64];
+        int[] matches = new int[64];
+        long[] pairs = new long[64];
+        int pairCount;
+
+        int addCandidate(int count, int handle) {
+            if (count == candidates.length) {
+                candidates = Arrays.copyOf(candidates, count * 2);
+            }
+            candidates[count] = handle;
+            return count + 1;
+        }
+
+        void addPair(int handle1, int handle2) {
+            if (pairCount == pairs.length) {
+                pairs = Arrays.copyOf(pairs, pairCount * 2);
+            }
+            pairs[pairCount++] = ConflictBuffer.pairKey(handle1, handle2);
+        }
+    }
+
+    /**
+     * Scratch buffers for probes run off the engine's thread; one per thread.
+     */
+    static final class ProbeScratch {
+        private final Workspace workspace = new Workspace();
+        private final ClosestPointOfApproach closestApproach = new ClosestPointOfApproach();
+
+        // Outcome of the last manoeuvre probe
+        private int losses;
+        private double regainSeconds;
+
+        int getLosses() { return losses; }
+        double getRegainSeconds() { return regainSeconds; }
+    }
+
+    /**
+     * Detects the conflicts of one slice of the handle range into its own workspace.
+     * Only reads shared engine state, so chunks can run concurrently.
+     */
+    private final class DetectionChunk extends RecursiveAction {
+        private final Workspace workspace = new Workspace();
+        private int from;
+        private int to;
+
+        @Override
+        protected void compute() {
+            workspace.pairCount = 0;
+            for (int i = from; i < to; i++) {
+                int candidateCount = gatherCandidates(workspace, i, handleCellX[i], handleCellY[i]);
+                int matchCount = findConflicts(workspace, i, workspace.candidates, 0, candidateCount);
+                for (int m = 0; m < matchCount; m++) {
+                    workspace.addPair(i, workspace.matches[m]);
+                }
+            }
+        }
     }
 }
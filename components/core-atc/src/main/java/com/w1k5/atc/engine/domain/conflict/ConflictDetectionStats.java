@@ -6,21 +6,71 @@ import java.util.Objects;
 /**
  * Statistics about the conflict detection system.
  * Provides insights into system performance and conflict patterns.
+ * A snapshot is immutable and its aggregates are precomputed, so every read is
+ * O(1); the engine builds at most one snapshot per detection epoch.
  */
 public class ConflictDetectionStats {
+    private static final Conflict.Severity[] SEVERITIES = Conflict.Severity.values();
+    private static final Conflict.Urgency[] URGENCIES = Conflict.Urgency.values();
+
+    private final long epoch;
     private final int totalFlights;
     private final int totalConflicts;
     private final List<Conflict> conflicts;
+    private final int[] severityCounts;
+    private final int[] urgencyCounts;
+    private final double averageTimeToConflict; // seconds
+    private final double averageConflictDistance; // meters
 
+    /**
+     * Create statistics from a conflict list, aggregating it in a single pass.
+     */
     public ConflictDetectionStats(int totalFlights, int totalConflicts, List<Conflict> conflicts) {
+        this.conflicts = Objects.requireNonNull(conflicts, "Conflicts list cannot be null");
+        this.epoch = 0;
         this.totalFlights = totalFlights;
         this.totalConflicts = totalConflicts;
+        this.severityCounts = new int[SEVERITIES.length];
+        this.urgencyCounts = new int[URGENCIES.length];
+
+        double totalTime = 0.0;
+        double totalDistance = 0.0;
+        for (Conflict conflict : conflicts) {
+            severityCounts[conflict.getSeverity().ordinal()]++;
+            urgencyCounts[conflict.getUrgency().ordinal()]++;
+            totalTime += conflict.getTimeToConflict();
+            totalDistance += conflict.getDistance();
+        }
+        this.averageTimeToConflict = conflicts.isEmpty() ? 0.0 : totalTime / conflicts.size();
+        this.averageConflictDistance = conflicts.isEmpty() ? 0.0 : totalDistance / conflicts.size();
+    }
+
+    /**
+     * Create a snapshot from precomputed aggregates over an epoch's conflicts. The
+     * count arrays are indexed by severity and urgency ordinal and are copied; the
+     * conflict list is kept as given and must not change afterwards.
+     */
+    public ConflictDetectionStats(long epoch, int totalFlights, List<Conflict> conflicts,
+                                  int[] severityCounts, int[] urgencyCounts,
+                                  double averageTimeToConflict, double averageConflictDistance) {
+        if (severityCounts.length != SEVERITIES.length || urgencyCounts.length != URGENCIES.length) {
+            throw new IllegalArgumentException("Counts must cover every severity and urgency");
+        }
         this.conflicts = Objects.requireNonNull(conflicts, "Conflicts list cannot be null");
+        this.epoch = epoch;
+        this.totalFlights = totalFlights;
+        this.totalConflicts = conflicts.size();
+        this.severityCounts = severityCounts.clone();
+        this.urgencyCounts = urgencyCounts.clone();
+        this.averageTimeToConflict = averageTimeToConflict;
+        this.averageConflictDistance = averageConflictDistance;
     }
 
     // Getters
+    public long getEpoch() { return epoch; }
     public int getTotalFlights() { return totalFlights; }
     public int getTotalConflicts() { return totalConflicts; }
+
     public List<Conflict> getConflicts() { return conflicts; }
 
     /**
@@ -35,52 +85,35 @@ public class ConflictDetectionStats {
      * Get conflicts by severity.
      */
     public long getConflictsBySeverity(Conflict.Severity severity) {
-        return conflicts.stream()
-                .filter(c -> c.getSeverity() == severity)
-                .count();
+        return severityCounts[severity.ordinal()];
     }
 
     /**
      * Get conflicts by urgency.
      */
     public long getConflictsByUrgency(Conflict.Urgency urgency) {
-        return conflicts.stream()
-                .filter(c -> c.getUrgency() == urgency)
-                .count();
+        return urgencyCounts[urgency.ordinal()];
     }
 
     /**
      * Get the average time to conflict.
      */
     public double getAverageTimeToConflict() {
-        if (conflicts.isEmpty()) return 0.0;
-        
-        double totalTime = conflicts.stream()
-                .mapToDouble(Conflict::getTimeToConflict)
-                .sum();
-        
-        return totalTime / conflicts.size();
+        return averageTimeToConflict;
     }
 
     /**
      * Get the average conflict distance.
      */
     public double getAverageConflictDistance() {
-        if (conflicts.isEmpty()) return 0.0;
-        
-        double totalDistance = conflicts.stream()
-                .mapToDouble(Conflict::getDistance)
-                .sum();
-        
-        return totalDistance / conflicts.size();
+        return averageConflictDistance;
     }
 
     /**
      * Check if there are any immediate conflicts (less than 30 seconds).
      */
     public boolean hasImmediateConflicts() {
-        return conflicts.stream()
-                .anyMatch(c -> c.getUrgency() == Conflict.Urgency.IMMEDIATE);
+        return urgencyCounts[Conflict.Urgency.IMMEDIATE.ordinal()] > 0;
     }
 
     /**
@@ -93,7 +126,7 @@ public class ConflictDetectionStats {
 
     @Override
     public String toString() {
-        return String.format("ConflictDetectionStats{flights=%d, conflicts=%d, rate=%.2f}",
-                totalFlights, totalConflicts, getConflictRate());
+        return String.format("ConflictDetectionStats{epoch=%d, flights=%d, conflicts=%d, rate=%.2f}",
+                epoch, totalFlights, totalConflicts, getConflictRate());
     }
 }
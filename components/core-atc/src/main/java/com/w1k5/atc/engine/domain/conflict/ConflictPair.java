@@ -0,0 +1,36 @@
+package com.w1k5.atc.engine.domain.conflict;
+
+/**
+ * Order-independent key for a pair of flight IDs.
+ */
+final class ConflictPair {
+    private final String first;
+    private final String second;
+
+    private ConflictPair(String first, String second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    static ConflictPair of(String flightId1, String flightId2) {
+        return flightId1.compareTo(flightId2) < 0
+            ? new ConflictPair(flightId1, flightId2)
+            : new ConflictPair(flightId2, flightId1);
+    }
+
+    String getFirst() { return first; }
+    String getSecond() { return second; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ConflictPair that = (ConflictPair) o;
+        return first.equals(that.first) && second.equals(that.second);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * first.hashCode() + second.hashCode();
+    }
+}
@@ -0,0 +1,70 @@
+package com.w1k5.atc.engine.domain.conflict;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Running aggregates over the live conflict set, updated as conflicts are added
+ * and removed. Sums are kept in fixed point (centimeters, microseconds) so they
+ * never drift however many times a conflict enters and leaves the set. Conflicts
+ * with no closure ({@link Double#MAX_VALUE} time to conflict) are counted apart.
+ */
+final class ConflictTally {
+    private static final double MICROS_PER_SECOND = 1_000_000.0;
+    private static final double CENTIMETERS_PER_METER = 100.0;
+
+    private final int[] severityCounts = new int[Conflict.Severity.values().length];
+    private final int[] urgencyCounts = new int[Conflict.Urgency.values().length];
+    private int count;
+    private int nonClosingCount;
+    private long timeSumMicros;
+    private long distanceSumCentimeters;
+
+    int getCount() {
+        return count;
+    }
+
+    void add(Conflict conflict) {
+        apply(conflict, 1);
+    }
+
+    void remove(Conflict conflict) {
+        apply(conflict, -1);
+    }
+
+    void clear() {
+        Arrays.fill(severityCounts, 0);
+        Arrays.fill(urgencyCounts, 0);
+        count = 0;
+        nonClosingCount = 0;
+        timeSumMicros = 0;
+        distanceSumCentimeters = 0;
+    }
+
+    private void apply(Conflict conflict, int sign) {
+        count += sign;
+        severityCounts[conflict.getSeverity().ordinal()] += sign;
+        urgencyCounts[conflict.getUrgency().ordinal()] += sign;
+        distanceSumCentimeters += sign * Math.round(conflict.getDistance() * CENTIMETERS_PER_METER);
+        if (conflict.getTimeToConflict() == Double.MAX_VALUE) {
+            nonClosingCount += sign;
+        } else {
+            timeSumMicros += sign * Math.round(conflict.getTimeToConflict() * MICROS_PER_SECOND);
+        }
+    }
+
+    /**
+     * Build an immutable snapshot of the current aggregates, over an immutable copy
+     * of the conflicts they were tallied from.
+     */
+    ConflictDetectionStats snapshot(long epoch, int totalFlights, List<Conflict> conflicts) {
+        double averageTime = 0.0;
+        double averageDistance = 0.0;
+        if (count > 0) {
+            averageTime = (timeSumMicros / MICROS_PER_SECOND + nonClosingCount * Double.MAX_VALUE) / count;
+            averageDistance = distanceSumCentimeters / CENTIMETERS_PER_METER / count;
+        }
+        return new ConflictDetectionStats(epoch, totalFlights, conflicts, severityCounts, urgencyCounts,
+                averageTime, averageDistance);
+    }
+}
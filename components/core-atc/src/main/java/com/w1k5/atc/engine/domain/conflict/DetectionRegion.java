@@ -0,0 +1,108 @@
+package com.w1k5.atc.engine.domain.conflict;
+
+import java.util.Objects;
+
+/**
+ * A set of sectors detected at their own cadence, e.g. a TMA at 10 Hz and upper
+ * airspace at 1 Hz. A region with no sectors covers the whole traffic picture.
+ * Holds the region's schedule and its cycle-time metrics; both are updated by the
+ * {@link DetectionScheduler} that owns it.
+ */
+public class DetectionRegion {
+    static final long NOT_SCHEDULED = Long.MIN_VALUE;
+
+    private final String name;
+    private final long periodNanos;
+    private final int[] sectorIds;
+
+    // Schedule on cluster time
+    private long nextDueNanos = NOT_SCHEDULED;
+
+    // Cycle metrics
+    private long cycles;
+    private long skippedCycles;
+    private long lastCycleNanos;
+    private long maxCycleNanos;
+    private long totalCycleNanos;
+    private int lastConflictCount;
+
+    DetectionRegion(String name, long periodNanos, int[] sectorIds) {
+        this.name = Objects.requireNonNull(name, "Region name cannot be null");
+        if (periodNanos <= 0) {
+            throw new IllegalArgumentException("Region period must be positive");
+        }
+        this.periodNanos = periodNanos;
+        this.sectorIds = sectorIds.clone();
+    }
+
+    // Getters
+    public String getName() { return name; }
+    public long getPeriodNanos() { return periodNanos; }
+    public long getNextDueNanos() { return nextDueNanos; }
+    public long getCycles() { return cycles; }
+    public long getSkippedCycles() { return skippedCycles; }
+    public long getLastCycleNanos() { return lastCycleNanos; }
+    public long getMaxCycleNanos() { return maxCycleNanos; }
+    public int getLastConflictCount() { return lastConflictCount; }
+
+    /**
+     * Get the sectors this region covers; empty for the whole traffic picture.
+     */
+    public int[] getSectorIds() {
+        return sectorIds.clone();
+    }
+
+    /**
+     * Check if this region covers every sector.
+     */
+    public boolean coversAllSectors() {
+        return sectorIds.length == 0;
+    }
+
+    /**
+     * Get the sector IDs without copying, for the scheduler's detection cycle.
+     */
+    int[] sectorIdsView() {
+        return sectorIds;
+    }
+
+    /**
+     * Get the mean detection time per cycle in nanoseconds.
+     */
+    public double getMeanCycleNanos() {
+        return cycles == 0 ? 0.0 : (double) totalCycleNanos / cycles;
+    }
+
+    /**
+     * Check if the region is due at a cluster time. A new region is due at once.
+     */
+    boolean isDue(long timeNanos) {
+        return nextDueNanos == NOT_SCHEDULED || timeNanos >= nextDueNanos;
+    }
+
+    /**
+     * Record a cycle run at a cluster time and advance the schedule by whole periods,
+     * counting any periods that passed without a run.
+     */
+    void recordCycle(long timeNanos, long cycleNanos, int conflictCount) {
+        if (nextDueNanos == NOT_SCHEDULED) {
+            nextDueNanos = timeNanos + periodNanos;
+        } else {
+            long behind = (timeNanos - nextDueNanos) / periodNanos;
+            skippedCycles += behind;
+            nextDueNanos += (behind + 1) * periodNanos;
+        }
+        cycles++;
+        lastCycleNanos = cycleNanos;
+        maxCycleNanos = Math.max(maxCycleNanos, cycleNanos);
+        totalCycleNanos += cycleNanos;
+        lastConflictCount = conflictCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DetectionRegion{%s, period=%dms, cycles=%d, skipped=%d, last=%.3fms, mean=%.3fms, max=%.3fms, conflicts=%d}",
+                name, periodNanos / 1_000_000, cycles, skippedCycles, lastCycleNanos / 1e6,
+                getMeanCycleNanos() / 1e6, maxCycleNanos / 1e6, lastConflictCount);
+    }
+}
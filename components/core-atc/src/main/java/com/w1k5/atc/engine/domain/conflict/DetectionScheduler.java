@@ -0,0 +1,97 @@
+package com.w1k5.atc.engine.domain.conflict;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Runs predicted conflict detection and conflict alerting per {@link DetectionRegion},
+ * each at its own cadence on cluster time. Every tick runs only the regions that
+ * are due, in the order they were added, so replicas ticking at the same cluster
+ * times run the same regions. A due region detects the pairs with a flight in its
+ * sectors and advances only those pairs' alerts, so a slow region's alerts move at
+ * its own cadence and cost nothing on the ticks between.
+ * {@link #getNextDueNanos()} gives the earliest due time, so the caller can set its
+ * timer there instead of ticking at the fastest rate.
+ * Cycle times are measured on the local clock and only feed the region metrics.
+ */
+public class DetectionScheduler {
+    private final ConflictDetectionEngine engine;
+    private final List<DetectionRegion> regions;
+
+    /**
+     * Receives each region's conflicts and alert transitions when it has run.
+     */
+    @FunctionalInterface
+    public interface RegionHandler {
+        void onRegionDetected(DetectionRegion region, List<Conflict> conflicts, List<ConflictAlert> transitions);
+    }
+
+    public DetectionScheduler(ConflictDetectionEngine engine) {
+        this.engine = Objects.requireNonNull(engine, "Engine cannot be null");
+        this.regions = new ArrayList<>();
+    }
+
+    /**
+     * Add a region detected every {@code periodNanos}, due at the next tick.
+     * With no sector IDs the region covers the whole traffic picture; otherwise it
+     * covers every pair with a flight in one of its sectors, as
+     * {@link ConflictDetectionEngine#detectPredictedConflictsInSectors}. Pairs with
+     * no flight in any region's sectors are not alerted.
+     */
+    public DetectionRegion addRegion(String name, long periodNanos, int... sectorIds) {
+        for (DetectionRegion region : regions) {
+            if (region.getName().equals(name)) {
+                throw new IllegalArgumentException("Region already exists: " + name);
+            }
+        }
+        DetectionRegion region = new DetectionRegion(name, periodNanos, sectorIds);
+        regions.add(region);
+        return region;
+    }
+
+    /**
+     * Get the regions in the order they run.
+     */
+    public List<DetectionRegion> getRegions() {
+        return Collections.unmodifiableList(regions);
+    }
+
+    /**
+     * Run every region due at a cluster time.
+     *
+     * @return the number of regions run
+     */
+    public int tick(long timeNanos, RegionHandler handler) {
+        int run = 0;
+        for (DetectionRegion region : regions) {
+            if (!region.isDue(timeNanos)) {
+                continue;
+            }
+
+            long start = System.nanoTime();
+            int[] sectorIds = region.sectorIdsView();
+            List<Conflict> conflicts = engine.detectPredictedConflictsInSectors(sectorIds);
+            List<ConflictAlert> transitions = engine.pollConflictAlerts(timeNanos, sectorIds, conflicts);
+            long cycleNanos = System.nanoTime() - start;
+
+            region.recordCycle(timeNanos, cycleNanos, conflicts.size());
+            handler.onRegionDetected(region, conflicts, transitions);
+            run++;
+        }
+        return run;
+    }
+
+    /**
+     * Get the earliest cluster time at which any region is due, or
+     * {@link Long#MAX_VALUE} if there are no regions.
+     */
+    public long getNextDueNanos() {
+        long next = Long.MAX_VALUE;
+        for (DetectionRegion region : regions) {
+            next = Math.min(next, region.getNextDueNanos());
+        }
+        return next;
+    }
+}
@@ -0,0 +1,324 @@
+package com.w1k5.atc.engine.domain.conflict;
+
+import com.w1k5.atc.engine.domain.entities.FlightStore;
+import com.w1k5.atc.engine.domain.separation.SeparationRuleTable;
+import com.w1k5.atc.engine.domain.spatial.IntervalTree;
+import com.w1k5.atc.engine.domain.spatial.SpatialHashGrid;
+
+import java.util.Arrays;
+
+/**
+ * Medium-term conflict detection (MTCD) along flight intent.
+ * Every flight's intent is expanded into a 4D {@link Trajectory} and cut at every
+ * multiple of {@link #PIECE_SECONDS}, so each piece covers a small area and lies within
+ * one time slab. Pieces are indexed twice: in one spatial hash grid per slab, over their
+ * padded bounding boxes, for the all-pairs pass, so only pieces flown at the same time
+ * and place become candidates; and in an {@link IntervalTree} over their time spans, for
+ * probing a single flight. A candidate pair of pieces is solved for closest point of
+ * approach over the window both are flown in, and a flight pair's conflict is its
+ * earliest predicted loss of separation. Once the arrays have grown, a rebuild and a pass allocate nothing.
+ * All trajectories run on one time base, from the store's picture time: a flight
+ * measured earlier, e.g. a coasting track, is predicted from its measurement along
+ * its intent and shifted by its age, by at most
+ * {@link ConflictDetectionEngine#MAX_EXTRAPOLATION_NANOS} like dead reckoning, so
+ * flights measured at different times are compared where they are at the same time.
+ */
+final class MediumTermConflictDetector {
+    static final double PIECE_SECONDS = 60.0;
+    private static final double SCALE = 100.0; // centimeters per meter
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final double NO_LOSS = ClosestPointOfApproach.NO_LOSS_OF_SEPARATION;
+
+    private final Trajectory trajectory;
+    private final ClosestPointOfApproach closestApproach;
+    private final IntervalTree timeIndex;
+    private SpatialHashGrid[] slabGrids;
+
+    // Trajectory pieces, grouped by flight handle and then in time order; meters and seconds
+    private int[] owners;
+    private double[] startTimes;
+    private double[] endTimes;
+    private double[] startX;
+    private double[] startY;
+    private double[] startAltitudes;
+    private double[] velocityX;
+    private double[] velocityY;
+    private double[] verticalRates;
+    private int pieceCount;
+
+    // Pieces of handle h are [firstPieces[h], firstPieces[h + 1])
+    private int[] firstPieces;
+    private int flightCount;
+
+    // Scratch for one flight's scan: candidate pieces, and the earliest loss per partner
+    private int[] candidates;
+    private int[] partners;
+    private int partnerCount;
+    private double[] partnerTimes;
+    private double[] partnerDistances;
+
+    MediumTermConflictDetector() {
+        this.trajectory = new Trajectory();
+        this.closestApproach = new ClosestPointOfApproach();
+        this.timeIndex = new IntervalTree();
+        this.slabGrids = new SpatialHashGrid[0];
+        this.owners = new int[64];
+        this.startTimes = new double[64];
+        this.endTimes = new double[64];
+        this.startX = new double[64];
+        this.startY = new double[64];
+        this.startAltitudes = new double[64];
+        this.velocityX = new double[64];
+        this.velocityY = new double[64];
+        this.verticalRates = new double[64];
+        this.firstPieces = new int[64];
+        this.candidates = new int[64];
+        this.partners = new int[64];
+        this.partnerTimes = new double[64];
+        this.partnerDistances = new double[64];
+        Arrays.fill(partnerTimes, NO_LOSS);
+    }
+
+    /**
+     * Predict every flight in the store over {@code horizon} seconds from the store's
+     * picture time and rebuild both indexes. Grid cells must be as large as the
+     * largest horizontal minima.
+     */
+    void build(FlightStore store, double horizon, long cellSize) {
+        int slabCount = Math.max(1, (int) Math.ceil(horizon / PIECE_SECONDS));
+        if (slabGrids.length != slabCount || slabGrids[0].getCellSize() != cellSize) {
+            slabGrids = new SpatialHashGrid[slabCount];
+            for (int slab = 0; slab < slabCount; slab++) {
+                slabGrids[slab] = new SpatialHashGrid(cellSize);
+            }
+        }
+
+        flightCount = store.size();
+        if (firstPieces.length < flightCount + 1) {
+            firstPieces = new int[Math.max(flightCount + 1, firstPieces.length * 2)];
+            partners = new int[firstPieces.length];
+            partnerTimes = new double[firstPieces.length];
+            partnerDistances = new double[firstPieces.length];
+            Arrays.fill(partnerTimes, NO_LOSS);
+        }
+
+        pieceCount = 0;
+        long pictureNanos = store.getPictureNanos();
+        for (int handle = 0; handle < flightCount; handle++) {
+            firstPieces[handle] = pieceCount;
+            double age = Math.min(pictureNanos - store.getMeasuredNanos(handle),
+                ConflictDetectionEngine.MAX_EXTRAPOLATION_NANOS) / NANOS_PER_SECOND;
+            trajectory.build(store.getFlight(handle), horizon + age);
+            for (int s = 0; s < trajectory.getSegmentCount(); s++) {
+                addPieces(handle, s, age);
+            }
+        }
+        firstPieces[flightCount] = pieceCount;
+
+        for (SpatialHashGrid grid : slabGrids) {
+            grid.clear(pieceCount * 4 / slabCount);
+        }
+        for (int piece = 0; piece < pieceCount; piece++) {
+            SpatialHashGrid grid = slabGrids[slabOf(piece)];
+            for (int cellX = minCellX(piece); cellX <= maxCellX(piece); cellX++) {
+                for (int cellY = minCellY(piece); cellY <= maxCellY(piece); cellY++) {
+                    grid.insertIntoCell(piece, cellX, cellY);
+                }
+            }
+        }
+        timeIndex.build(startTimes, endTimes, pieceCount);
+    }
+
+    /**
+     * Shift a trajectory segment from the flight's measurement time to the picture
+     * time, {@code age} seconds later, drop what was flown before it, and cut the rest
+     * at every slab boundary it crosses.
+     */
+    private void addPieces(int handle, int segment, double age) {
+        double segmentStart = trajectory.getStartTime(segment) - age;
+        double end = trajectory.getEndTime(segment) - age;
+        double from = Math.max(0.0, segmentStart);
+        while (from < end) {
+            double to = Math.min(end, (Math.floor(from / PIECE_SECONDS) + 1) * PIECE_SECONDS);
+            double elapsed = from - segmentStart;
+            ensurePieceCapacity(pieceCount + 1);
+            owners[pieceCount] = handle;
+            startTimes[pieceCount] = from;
+            endTimes[pieceCount] = to;
+            startX[pieceCount] = trajectory.getStartX(segment) + trajectory.getVelocityX(segment) * elapsed;
+            startY[pieceCount] = trajectory.getStartY(segment) + trajectory.getVelocityY(segment) * elapsed;
+            startAltitudes[pieceCount] = trajectory.getStartAltitude(segment) + trajectory.getVerticalRate(segment) * elapsed;
+            velocityX[pieceCount] = trajectory.getVelocityX(segment);
+            velocityY[pieceCount] = trajectory.getVelocityY(segment);
+            verticalRates[pieceCount] = trajectory.getVerticalRate(segment);
+            pieceCount++;
+            from = to;
+        }
+    }
+
+    /**
+     * Detect conflicts between every pair of flights, in handle-pair order.
+     */
+    void detect(SeparationRuleTable rules, int[] handleRules, ConflictBuffer output) {
+        for (int handle = 0; handle < flightCount; handle++) {
+            for (int piece = firstPieces[handle]; piece < firstPieces[handle + 1]; piece++) {
+                int candidateCount = gatherCandidates(piece, handle);
+                for (int c = 0; c < candidateCount; c++) {
+                    solve(piece, candidates[c], rules, handleRules);
+                }
+            }
+            emitPartners(handle, output);
+        }
+    }
+
+    /**
+     * Detect conflicts between one flight and every other flight, in partner handle
+     * order. Candidates come from the time index and are filtered by bounding box.
+     */
+    void detectForFlight(int handle, SeparationRuleTable rules, int[] handleRules, ConflictBuffer output) {
+        double reach = slabGrids[0].getCellSize() / SCALE;
+        for (int piece = firstPieces[handle]; piece < firstPieces[handle + 1]; piece++) {
+            int overlapCount = timeIndex.overlapping(startTimes[piece], endTimes[piece]);
+            for (int r = 0; r < overlapCount; r++) {
+                int other = timeIndex.result(r);
+                if (owners[other] != handle && boxesWithin(piece, other, reach)) {
+                    solve(piece, other, rules, handleRules);
+                }
+            }
+        }
+        emitPartners(handle, output);
+    }
+
+    /**
+     * Collect the distinct pieces owned by flights after {@code handle} that share
+     * a cell of the piece's slab grid with it, in ascending order.
+     */
+    private int gatherCandidates(int piece, int handle) {
+        SpatialHashGrid grid = slabGrids[slabOf(piece)];
+        int count = 0;
+        for (int cellX = minCellX(piece); cellX <= maxCellX(piece); cellX++) {
+            for (int cellY = minCellY(piece); cellY <= maxCellY(piece); cellY++) {
+                for (int node = grid.firstNode(cellX, cellY); node != -1; node = grid.nextNode(node)) {
+                    int other = grid.entryOf(node);
+                    if (owners[other] > handle) {
+                        if (count == candidates.length) {
+                            candidates = Arrays.copyOf(candidates, count * 2);
+                        }
+                        candidates[count++] = other;
+                    }
+                }
+            }
+        }
+
+        // Boxes overlap in several cells, so drop duplicate pieces
+        ConflictDetectionEngine.sortHandles(candidates, count);
+        int unique = 0;
+        for (int c = 0; c < count; c++) {
+            if (unique == 0 || candidates[unique - 1] != candidates[c]) {
+                candidates[unique++] = candidates[c];
+            }
+        }
+        return unique;
+    }
+
+    /**
+     * Solve two pieces over their common time window and keep the earliest loss
+     * of separation found for the other piece's flight.
+     */
+    private void solve(int piece, int other, SeparationRuleTable rules, int[] handleRules) {
+        double from = Math.max(startTimes[piece], startTimes[other]);
+        double to = Math.min(endTimes[piece], endTimes[other]);
+        if (from > to) {
+            return;
+        }
+
+        int partner = owners[other];
+        int pair = rules.pairIndex(handleRules[owners[piece]], handleRules[partner]);
+        double elapsed = from - startTimes[piece];
+        double otherElapsed = from - startTimes[other];
+        closestApproach.compute(
+            startX[other] + velocityX[other] * otherElapsed - (startX[piece] + velocityX[piece] * elapsed),
+            startY[other] + velocityY[other] * otherElapsed - (startY[piece] + velocityY[piece] * elapsed),
+            startAltitudes[other] + verticalRates[other] * otherElapsed - (startAltitudes[piece] + verticalRates[piece] * elapsed),
+            velocityX[other] - velocityX[piece],
+            velocityY[other] - velocityY[piece],
+            verticalRates[other] - verticalRates[piece],
+            to - from, rules.getHorizontalMinima(pair) / SCALE, rules.getVerticalMinima(pair) / SCALE);
+
+        if (!closestApproach.losesSeparation()) {
+            return;
+        }
+        double time = from + closestApproach.getLossOfSeparationTime();
+        if (partnerTimes[partner] == NO_LOSS) {
+            partners[partnerCount++] = partner;
+        } else if (partnerTimes[partner] <= time) {
+            return;
+        }
+        partnerTimes[partner] = time;
+        partnerDistances[partner] = closestApproach.getHorizontalDistance();
+    }
+
+    private void emitPartners(int handle, ConflictBuffer output) {
+        ConflictDetectionEngine.sortHandles(partners, partnerCount);
+        for (int p = 0; p < partnerCount; p++) {
+            int partner = partners[p];
+            output.add(handle, partner, Conflict.Severity.HIGH, partnerDistances[partner], partnerTimes[partner]);
+            partnerTimes[partner] = NO_LOSS;
+        }
+        partnerCount = 0;
+    }
+
+    private boolean boxesWithin(int piece, int other, double reach) {
+        return minX(other) - maxX(piece) < reach && minX(piece) - maxX(other) < reach
+            && minY(other) - maxY(piece) < reach && minY(piece) - maxY(other) < reach;
+    }
+
+    // Bounding boxes in meters, and their grid cells padded by half the largest minima
+    // so any two pieces that can come within minima share a cell
+
+    private double minX(int piece) { return Math.min(startX[piece], endX(piece)); }
+    private double maxX(int piece) { return Math.max(startX[piece], endX(piece)); }
+    private double minY(int piece) { return Math.min(startY[piece], endY(piece)); }
+    private double maxY(int piece) { return Math.max(startY[piece], endY(piece)); }
+
+    private double endX(int piece) {
+        return startX[piece] + velocityX[piece] * (endTimes[piece] - startTimes[piece]);
+    }
+
+    private double endY(int piece) {
+        return startY[piece] + velocityY[piece] * (endTimes[piece] - startTimes[piece]);
+    }
+
+    private int minCellX(int piece) { return cellOf(Math.floor(minX(piece) * SCALE) - padding()); }
+    private int maxCellX(int piece) { return cellOf(Math.ceil(maxX(piece) * SCALE) + padding()); }
+    private int minCellY(int piece) { return cellOf(Math.floor(minY(piece) * SCALE) - padding()); }
+    private int maxCellY(int piece) { return cellOf(Math.ceil(maxY(piece) * SCALE) + padding()); }
+
+    private int cellOf(double centimeters) {
+        return slabGrids[0].cellOf((long) centimeters); // Every slab grid has the same cells
+    }
+
+    private long padding() {
+        return slabGrids[0].getCellSize() / 2 + 1;
+    }
+
+    private int slabOf(int piece) {
+        return Math.min(slabGrids.length - 1, (int) (startTimes[piece] / PIECE_SECONDS));
+    }
+
+    private void ensurePieceCapacity(int required) {
+        if (required <= owners.length) {
+            return;
+        }
+        int capacity = Math.max(required, owners.length * 2);
+        owners = Arrays.copyOf(owners, capacity);
+        startTimes = Arrays.copyOf(startTimes, capacity);
+        endTimes = Arrays.copyOf(endTimes, capacity);
+        startX = Arrays.copyOf(startX, capacity);
+        startY = Arrays.copyOf(startY, capacity);
+        startAltitudes = Arrays.copyOf(startAltitudes, capacity);
+        velocityX = Arrays.copyOf(velocityX, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        verticalRates = Arrays.copyOf(verticalRates, capacity);
+    }
+}
@@ -0,0 +1,392 @@
+package com.w1k5.atc.engine.domain.conflict;
+
+import com.w1k5.atc.engine.domain.constraints.AircraftPerformance;
+import com.w1k5.atc.engine.domain.constraints.AltitudeConstraints;
+import com.w1k5.atc.engine.domain.constraints.SpeedConstraints;
+import com.w1k5.atc.engine.domain.entities.AircraftState;
+import com.w1k5.atc.engine.domain.entities.Flight;
+import com.w1k5.atc.engine.domain.entities.FlightStore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Proposes a resolution advisory for each conflict. For both flights of the pair,
+ * candidate turns, speed changes and level changes are generated in steps of
+ * increasing deviation, within the flight's {@link AircraftPerformance} and its
+ * intent's {@link SpeedConstraints} and {@link AltitudeConstraints}, and each is
+ * probed against the live traffic over the engine's lookahead horizon. Each
+ * manoeuvre starts where detection sees the flight, at its position extrapolated
+ * to the engine's last {@link ConflictDetectionEngine#extrapolateTo} time. A level
+ * change is flown at the performance climb or descent rate and levels off at the
+ * target, so only level changes completed within the horizon are generated.
+ * A candidate clears the pair if the pair never loses separation over the horizon
+ * or, for a pair already within minima, regains it for good. The advisory for a
+ * conflict is the candidate that clears the pair with the fewest other flights
+ * losing separation, then the soonest regained separation, then the smallest
+ * deviation; once a candidate keeps a flight clear of all traffic throughout,
+ * larger deviations for that conflict are not probed.
+ * The search runs within a time budget per call: candidates not started by the
+ * deadline are dropped and the best advisory found so far is returned, so a dense
+ * traffic picture cannot stall the detection timer. A probe already running
+ * finishes, so the overrun is at most one probe per thread. Which candidates fit
+ * in the budget depends on the local clock, so advisories are an output for the
+ * controller, not state to replicate.
+ * The flights must not change while {@link #resolve} runs.
+ */
+public class ResolutionAdvisor implements AutoCloseable {
+    public static final long DEFAULT_BUDGET_NANOS = 20_000_000L; // 20 ms
+    public static final double HEADING_STEP_DEGREES = 10.0;
+    public static final double SPEED_STEP_KNOTS = 10.0;
+    public static final double ALTITUDE_STEP_FEET = 1000.0;
+    public static final int MAX_STEPS = 6; // up to 60 degrees, 60 knots or 6000 feet
+
+    private static final double SCALE = 100.0; // centimeters per meter
+    private static final double METERS_PER_FOOT = 0.3048;
+    private static final double METERS_PER_SECOND_PER_KNOT = 1852.0 / 3600.0;
+    private static final double SPEED_OF_SOUND = 295.07; // meters per second at and above the tropopause
+    private static final double MIN_GROUND_SPEED = 1.0;  // meters per second; slower tracks are not turned or slowed
+
+    private final ConflictDetectionEngine engine;
+    private final ConflictDetectionEngine.ProbeScratch scratch;
+    private final List<Candidate> candidates;
+    private long budgetNanos;
+
+    // Parallel evaluation
+    private ForkJoinPool pool;
+    private EvaluationChunk[] chunks;
+    private RecursiveAction root;
+
+    // State of the running call, read by the evaluation threads
+    private long deadline;
+    private AtomicIntegerArray firstClear; // per conflict, the earliest candidate never losing separation
+
+    // Metrics of the last call
+    private int lastCandidateCount;
+    private int lastEvaluatedCount;
+    private long lastElapsedNanos;
+
+    public ResolutionAdvisor(ConflictDetectionEngine engine) {
+        this(engine, DEFAULT_BUDGET_NANOS);
+    }
+
+    public ResolutionAdvisor(ConflictDetectionEngine engine, long budgetNanos) {
+        this.engine = Objects.requireNonNull(engine, "Engine cannot be null");
+        this.scratch = new ConflictDetectionEngine.ProbeScratch();
+        this.candidates = new ArrayList<>();
+        setBudgetNanos(budgetNanos);
+    }
+
+    // Getters
+    public long getBudgetNanos() { return budgetNanos; }
+    public int getLastCandidateCount() { return lastCandidateCount; }
+    public int getLastEvaluatedCount() { return lastEvaluatedCount; }
+    public long getLastElapsedNanos() { return lastElapsedNanos; }
+
+    /**
+     * Set the time budget for each {@link #resolve} call.
+     */
+    public void setBudgetNanos(long budgetNanos) {
+        if (budgetNanos <= 0) {
+            throw new IllegalArgumentException("Budget must be positive");
+        }
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Get the number of threads probing candidates; 1 means serial.
+     */
+    public int getParallelism() {
+        return pool == null ? 1 : pool.getParallelism();
+    }
+
+    /**
+     * Set the number of threads probing candidates.
+     * Above one, a dedicated fork/join pool is created; given the time, the
+     * advisories are identical to the serial search whatever the parallelism.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        if (parallelism == getParallelism()) {
+            return;
+        }
+
+        close();
+        if (parallelism > 1) {
+            pool = new ForkJoinPool(parallelism);
+            chunks = new EvaluationChunk[parallelism];
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = new EvaluationChunk(i, parallelism);
+            }
+            root = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(chunks);
+                }
+            };
+        }
+    }
+
+    /**
+     * Shut down the parallel evaluation pool, if any.
+     */
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+            chunks = null;
+            root = null;
+        }
+    }
+
+    /**
+     * Find the best advisory for each conflict within the time budget.
+     * Conflicts with no candidate that clears the pair in time get no advisory.
+     *
+     * @return the advisories, in the order of the conflicts
+     */
+    public List<Advisory> resolve(Collection<Conflict> conflicts) {
+        long start = System.nanoTime();
+        deadline = start + budgetNanos;
+
+        candidates.clear();
+        int conflictCount = 0;
+        for (Conflict conflict : conflicts) {
+            generateCandidates(conflictCount++, conflict);
+        }
+        firstClear = new AtomicIntegerArray(conflictCount);
+        for (int i = 0; i < conflictCount; i++) {
+            firstClear.set(i, Integer.MAX_VALUE);
+        }
+
+        engine.prepareProbes();
+        if (pool == null || candidates.size() < 2) {
+            evaluate(scratch, 0, 1);
+        } else {
+            for (EvaluationChunk chunk : chunks) {
+                chunk.reinitialize();
+            }
+            root.reinitialize();
+            pool.invoke(root);
+        }
+
+        // Candidates are in order of deviation, so the first of the best scores wins
+        Candidate[] best = new Candidate[conflictCount];
+        int evaluated = 0;
+        for (Candidate candidate : candidates) {
+            if (!candidate.evaluated) {
+                continue;
+            }
+            evaluated++;
+            Candidate current = best[candidate.conflictIndex];
+            if (candidate.clearsPair && (current == null || candidate.isBetterThan(current))) {
+                best[candidate.conflictIndex] = candidate;
+            }
+        }
+
+        List<Advisory> advisories = new ArrayList<>();
+        for (Candidate candidate : best) {
+            if (candidate != null) {
+                advisories.add(new Advisory(candidate.flight.getFlightId(), candidate.conflictingFlightId,
+                    candidate.type, candidate.targetValue, candidate.change, candidate.remainingConflicts,
+                    candidate.flight.getState()));
+            }
+        }
+
+        lastCandidateCount = candidates.size();
+        lastEvaluatedCount = evaluated;
+        lastElapsedNanos = System.nanoTime() - start;
+        candidates.clear();
+        return advisories;
+    }
+
+    /**
+     * Probe every {@code stride}-th candidate from {@code from} until the deadline.
+     * Interleaving keeps each thread working from the smallest deviations up.
+     */
+    private void evaluate(ConflictDetectionEngine.ProbeScratch scratch, int from, int stride) {
+        for (int i = from; i < candidates.size(); i += stride) {
+            if (System.nanoTime() - deadline >= 0) {
+                return;
+            }
+            Candidate candidate = candidates.get(i);
+            if (firstClear.get(candidate.conflictIndex) < i) {
+                continue; // A smaller deviation already clears all traffic
+            }
+
+            engine.probeManoeuvre(candidate.flight, candidate.levelOffSeconds, candidate.conflictingFlightId, scratch);
+            candidate.remainingConflicts = scratch.getLosses();
+            candidate.regainSeconds = scratch.getRegainSeconds();
+            candidate.clearsPair = candidate.regainSeconds != ConflictDetectionEngine.NOT_REGAINED;
+            candidate.evaluated = true;
+            if (candidate.remainingConflicts == 0 && candidate.regainSeconds == 0.0) {
+                // No larger deviation can score better
+                firstClear.accumulateAndGet(candidate.conflictIndex, i, Math::min);
+            }
+        }
+    }
+
+    /**
+     * Generate the candidates for both flights of a conflict, step by step so that
+     * smaller deviations of either flight come first.
+     */
+    private void generateCandidates(int conflictIndex, Conflict conflict) {
+        Flight first = liveFlight(conflict.getFlightId1());
+        Flight second = liveFlight(conflict.getFlightId2());
+        for (int step = 1; step <= MAX_STEPS; step++) {
+            if (first != null) {
+                generateCandidates(conflictIndex, first, conflict.getFlightId2(), step);
+            }
+            if (second != null) {
+                generateCandidates(conflictIndex, second, conflict.getFlightId1(), step);
+            }
+        }
+    }
+
+    private void generateCandidates(int conflictIndex, Flight flight, String conflictingFlightId, int step) {
+        AircraftState state = flight.getState();
+        AircraftPerformance performance = flight.getPerformance();
+        double velocityX = state.getVelocityXInMetersPerSecond();
+        double velocityY = state.getVelocityYInMetersPerSecond();
+        double speed = Math.hypot(velocityX, velocityY);
+
+        if (speed >= MIN_GROUND_SPEED) {
+            // Turns either way; any track is within the envelope
+            double track = Math.toDegrees(Math.atan2(velocityX, velocityY));
+            for (int sign = 1; sign >= -1; sign -= 2) {
+                double change = sign * step * HEADING_STEP_DEGREES;
+                double radians = Math.toRadians(track + change);
+                addCandidate(conflictIndex, flight, conflictingFlightId, Advisory.Type.HEADING,
+                    Math.floorMod(Math.round(track + change), 360), change,
+                    speed * Math.sin(radians), speed * Math.cos(radians), state.getVerticalRate(), 0.0);
+            }
+
+            // Slower then faster, within both the performance and the intent's speeds
+            SpeedConstraints speedConstraints = flight.getIntent().getSpeedConstraints();
+            double knots = speed / METERS_PER_SECOND_PER_KNOT;
+            double minKnots = Math.max(performance.getMinSpeed(), toKnots(speedConstraints.getMinSpeed(), speedConstraints));
+            double maxKnots = Math.min(performance.getMaxSpeed(), toKnots(speedConstraints.getMaxSpeed(), speedConstraints));
+            for (int sign = -1; sign <= 1; sign += 2) {
+                double target = knots + sign * step * SPEED_STEP_KNOTS;
+                if (target >= minKnots && target <= maxKnots) {
+                    double ratio = target / knots;
+                    addCandidate(conflictIndex, flight, conflictingFlightId, Advisory.Type.SPEED,
+                        target, target - knots, velocityX * ratio, velocityY * ratio, state.getVerticalRate(), 0.0);
+                }
+            }
+        }
+
+        // Whole levels above then below, within the intent's band and the ceiling, flown
+        // at the performance rate from the current altitude and levelling off at the target
+        AltitudeConstraints altitudeConstraints = flight.getIntent().getAltitudeConstraints();
+        double feet = state.getAltitudeInMeters() / METERS_PER_FOOT;
+        double level = Math.rint(feet / ALTITUDE_STEP_FEET) * ALTITUDE_STEP_FEET;
+        double floor = altitudeConstraints.getMinAltitudeInFeet();
+        double ceiling = Math.min(altitudeConstraints.getMaxAltitudeInFeet(), performance.getMaxAltitude());
+        for (int sign = 1; sign >= -1; sign -= 2) {
+            double feetPerMinute = sign > 0 ? performance.getMaxClimbRate() : performance.getMaxDescentRate();
+            long verticalRate = sign * Math.round(feetPerMinute * METERS_PER_FOOT / 60.0 * SCALE);
+            double target = level + sign * step * ALTITUDE_STEP_FEET;
+            if (verticalRate == 0L || target < floor || target > ceiling) {
+                continue;
+            }
+            double levelOffSeconds = (Math.round(target * METERS_PER_FOOT * SCALE) - state.getAltitude())
+                / (double) verticalRate;
+            if (levelOffSeconds > 0.0 && levelOffSeconds <= engine.getLookaheadSeconds()) {
+                addCandidate(conflictIndex, flight, conflictingFlightId, Advisory.Type.ALTITUDE,
+                    target, target - feet, velocityX, velocityY, verticalRate, levelOffSeconds);
+            }
+        }
+    }
+
+    private void addCandidate(int conflictIndex, Flight flight, String conflictingFlightId, Advisory.Type type,
+                              double targetValue, double change, double velocityX, double velocityY,
+                              long verticalRate, double levelOffSeconds) {
+        AircraftState live = flight.getState();
+        AircraftState state = new AircraftState(live.getPositionX(), live.getPositionY(),
+            Math.round(velocityX * SCALE), Math.round(velocityY * SCALE), live.getAltitude(), verticalRate,
+            live.getSectorId());
+        Flight hypothetical = new Flight(flight.getFlightId(), state, flight.getIntent(),
+            flight.getPerformance(), flight.getSectorId(), flight.getLastUpdateNanos());
+        candidates.add(new Candidate(conflictIndex, hypothetical, conflictingFlightId, type, targetValue, change,
+            levelOffSeconds));
+    }
+
+    private Flight liveFlight(String flightId) {
+        FlightStore store = engine.getFlightStore();
+        int handle = store.handleOf(flightId);
+        return handle == FlightStore.MISSING_HANDLE ? null : store.getExtrapolatedFlight(handle);
+    }
+
+    private static double toKnots(double speed, SpeedConstraints constraints) {
+        return switch (constraints.getUnit()) {
+            case KNOTS -> speed;
+            case KPH -> speed / 3.6 / METERS_PER_SECOND_PER_KNOT;
+            case MACH -> speed * SPEED_OF_SOUND / METERS_PER_SECOND_PER_KNOT;
+        };
+    }
+
+    /**
+     * One candidate manoeuvre and, once probed, its outcome.
+     */
+    private static final class Candidate {
+        final int conflictIndex;
+        final Flight flight; // state at the start of the manoeuvre
+        final String conflictingFlightId;
+        final Advisory.Type type;
+        final double targetValue;
+        final double change;
+        final double levelOffSeconds; // 0 unless the manoeuvre is a level change
+
+        boolean evaluated;
+        boolean clearsPair;
+        int remainingConflicts;
+        double regainSeconds; // 0 if the pair never loses separation
+
+        Candidate(int conflictIndex, Flight flight, String conflictingFlightId, Advisory.Type type,
+                  double targetValue, double change, double levelOffSeconds) {
+            this.conflictIndex = conflictIndex;
+            this.flight = flight;
+            this.conflictingFlightId = conflictingFlightId;
+            this.type = type;
+            this.targetValue = targetValue;
+            this.change = change;
+            this.levelOffSeconds = levelOffSeconds;
+        }
+
+        boolean isBetterThan(Candidate other) {
+            if (remainingConflicts != other.remainingConflicts) {
+                return remainingConflicts < other.remainingConflicts;
+            }
+            return regainSeconds < other.regainSeconds;
+        }
+    }
+
+    /**
+     * Probes an interleaved slice of the candidates with its own scratch buffers.
+     * Only reads engine state, so chunks can run concurrently.
+     */
+    private final class EvaluationChunk extends RecursiveAction {
+        private final ConflictDetectionEngine.ProbeScratch scratch = new ConflictDetectionEngine.ProbeScratch();
+        private final int from;
+        private final int stride;
+
+        EvaluationChunk(int from, int stride) {
+            this.from = from;
+            this.stride = stride;
+        }
+
+        @Override
+        protected void compute() {
+            evaluate(scratch, from, stride);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.w1k5.atc.engine.domain.conflict;
+
+import com.w1k5.atc.engine.domain.separation.SeparationRuleTable;
+import com.w1k5.atc.engine.domain.spatial.FixedPointGeometry;
+
+/**
+ * Portable one-pair-at-a-time separation kernel.
+ * Each pair looks up its minima by rule and does two integer compares.
+ */
+final class ScalarSeparationKernel implements SeparationKernel {
+
+    @Override
+    public Type getType() {
+        return Type.SCALAR;
+    }
+
+    @Override
+    public int findConflicts(long[] positionX, long[] positionY, long[] altitude,
+                             int[] handleRules, SeparationRuleTable rules,
+                             int reference, int[] candidates, int offset, int count, int[] matches) {
+        return findConflicts(positionX, positionY, altitude, handleRules, rules,
+                reference, candidates, offset, count, matches, 0);
+    }
+
+    /**
+     * Same as the interface method, writing matches from {@code matchOffset} onwards.
+     */
+    int findConflicts(long[] positionX, long[] positionY, long[] altitude,
+                      int[] handleRules, SeparationRuleTable rules,
+                      int reference, int[] candidates, int offset, int count, int[] matches, int matchOffset) {
+        long[] horizontalMinimaSquared = rules.horizontalMinimaSquaredTable();
+        long[] verticalMinima = rules.verticalMinimaTable();
+        long referenceX = positionX[reference];
+        long referenceY = positionY[reference];
+        long referenceAltitude = altitude[reference];
+        int row = rules.pairIndex(handleRules[reference], 0);
+
+        int matchCount = matchOffset;
+        for (int c = offset, end = offset + count; c < end; c++) {
+            int other = candidates[c];
+            int pair = row + handleRules[other];
+            long deltaX = referenceX - positionX[other];
+            long deltaY = referenceY - positionY[other];
+            long deltaAltitude = referenceAltitude - altitude[other];
+
+            if (FixedPointGeometry.isWithin(deltaX, deltaY, deltaAltitude,
+                    horizontalMinimaSquared[pair], verticalMinima[pair])) {
+                matches[matchCount++] = other;
+            }
+        }
+        return matchCount - matchOffset;
+    }
+}
@@ -0,0 +1,67 @@
+package com.w1k5.atc.engine.domain.conflict;
+
+import com.w1k5.atc.engine.domain.separation.SeparationRuleTable;
+
+/**
+ * Pairwise separation test run by the detection engine for every broadphase candidate.
+ * A kernel tests one reference flight against a block of candidate handles using
+ * exact integer arithmetic: squared horizontal distance in square centimeters and
+ * vertical distance in centimeters, compared against a compiled
+ * {@link SeparationRuleTable}, so no square root or conversion is needed per pair.
+ * Every implementation must report exactly the same matches in the same order as
+ * {@link ScalarSeparationKernel}.
+ */
+public interface SeparationKernel {
+
+    enum Type {
+        SCALAR, VECTOR
+    }
+
+    /**
+     * Create a kernel of the requested type. The vector kernel needs the
+     * {@code jdk.incubator.vector} module; when it is not resolved at runtime
+     * the scalar kernel is returned instead.
+     */
+    static SeparationKernel create(Type type) {
+        if (type == Type.VECTOR && isVectorApiAvailable()) {
+            try {
+                // Loaded reflectively so the scalar path never links against the incubator module
+                return (SeparationKernel) Class.forName("com.w1k5.atc.engine.domain.conflict.VectorSeparationKernel")
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return new ScalarSeparationKernel();
+            }
+        }
+        return new ScalarSeparationKernel();
+    }
+
+    /**
+     * Check if the Vector API module is resolved in the boot layer.
+     */
+    static boolean isVectorApiAvailable() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    /**
+     * Get the kernel type actually in use.
+     */
+    Type getType();
+
+    /**
+     * Test a reference flight against {@code candidates[offset, offset + count)}.
+     * Candidates that lose both horizontal and vertical separation are written to
+     * {@code matches} in their original order.
+     *
+     * @param positionX per-handle X position in centimeters
+     * @param positionY per-handle Y position in centimeters
+     * @param altitude per-handle altitude in centimeters
+     * @param handleRules per-handle rule from {@link SeparationRuleTable#ruleOf}
+     * @param rules compiled minima for each pair of rules
+     * @param matches output, with room for at least {@code count} handles
+     * @return the number of matches written
+     */
+    int findConflicts(long[] positionX, long[] positionY, long[] altitude,
+                      int[] handleRules, SeparationRuleTable rules,
+                      int reference, int[] candidates, int offset, int count, int[] matches);
+}
@@ -0,0 +1,207 @@
+package com.w1k5.atc.engine.domain.conflict;
+
+import com.w1k5.atc.engine.domain.constraints.AircraftPerformance;
+import com.w1k5.atc.engine.domain.constraints.AltitudeConstraints;
+import com.w1k5.atc.engine.domain.constraints.SpeedConstraints;
+import com.w1k5.atc.engine.domain.entities.AircraftState;
+import com.w1k5.atc.engine.domain.entities.Flight;
+import com.w1k5.atc.engine.domain.entities.Waypoint;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Predicted 4D trajectory of one flight along its intent, as constant-velocity segments.
+ * The flight flies from its current position through the remaining waypoints at its
+ * current ground speed (or the intent's target speed when it has none), climbing or
+ * descending towards each waypoint's altitude at the performance climb or descent rate,
+ * clamped to the intent's altitude band. Past the last waypoint it holds its final
+ * track towards the last altitude. Times are seconds from the state's time; positions are meters.
+ * Instances are reusable: each {@link #build} overwrites the previous trajectory.
+ */
+public class Trajectory {
+    private static final double METERS_PER_FOOT = 0.3048;
+    private static final double METERS_PER_SECOND_PER_KNOT = 1852.0 / 3600.0;
+    private static final double SPEED_OF_SOUND = 295.07; // meters per second at and above the tropopause
+    private static final double MIN_GROUND_SPEED = 1.0;  // meters per second; slower tracks fly the intent's speed
+
+    private double[] startTimes;
+    private double[] endTimes;
+    private double[] startX;
+    private double[] startY;
+    private double[] startAltitudes;
+    private double[] velocityX;
+    private double[] velocityY;
+    private double[] verticalRates;
+    private int segmentCount;
+
+    // Cursor while building
+    private double time;
+    private double x;
+    private double y;
+    private double altitude;
+
+    public Trajectory() {
+        this.startTimes = new double[16];
+        this.endTimes = new double[16];
+        this.startX = new double[16];
+        this.startY = new double[16];
+        this.startAltitudes = new double[16];
+        this.velocityX = new double[16];
+        this.velocityY = new double[16];
+        this.verticalRates = new double[16];
+    }
+
+    /**
+     * Predict a flight's trajectory from its current state over {@code horizon} seconds.
+     */
+    public void build(Flight flight, double horizon) {
+        AircraftState state = flight.getState();
+        AircraftPerformance performance = flight.getPerformance();
+        AltitudeConstraints altitudeConstraints = flight.getIntent().getAltitudeConstraints();
+        List<Waypoint> waypoints = flight.getIntent().getWaypoints();
+
+        segmentCount = 0;
+        time = 0.0;
+        x = state.getPositionXInMeters();
+        y = state.getPositionYInMeters();
+        altitude = state.getAltitudeInMeters();
+
+        double trackX = state.getVelocityXInMetersPerSecond();
+        double trackY = state.getVelocityYInMetersPerSecond();
+        double speed = Math.hypot(trackX, trackY);
+        if (speed >= MIN_GROUND_SPEED) {
+            trackX /= speed;
+            trackY /= speed;
+        } else {
+            speed = toMetersPerSecond(flight.getIntent().getSpeedConstraints());
+            trackX = 0.0;
+            trackY = 0.0;
+        }
+
+        double climbRate = performance.getMaxClimbRate() * METERS_PER_FOOT / 60.0;
+        double descentRate = performance.getMaxDescentRate() * METERS_PER_FOOT / 60.0;
+        double floor = altitudeConstraints.getMinAltitudeInFeet() * METERS_PER_FOOT;
+        double ceiling = Math.min(altitudeConstraints.getMaxAltitudeInFeet(), performance.getMaxAltitude()) * METERS_PER_FOOT;
+
+        double targetAltitude = altitude;
+        for (int i = nextWaypoint(waypoints, x, y); i < waypoints.size() && time < horizon; i++) {
+            Waypoint waypoint = waypoints.get(i);
+            double deltaX = waypoint.getX() - x;
+            double deltaY = waypoint.getY() - y;
+            double distance = Math.hypot(deltaX, deltaY);
+            if (distance < MIN_GROUND_SPEED) {
+                continue; // Already over the waypoint
+            }
+            trackX = deltaX / distance;
+            trackY = deltaY / distance;
+            targetAltitude = Math.max(floor, Math.min(ceiling, waypoint.getAltitude()));
+            fly(distance / speed, trackX * speed, trackY * speed, targetAltitude, climbRate, descentRate, horizon);
+        }
+
+        if (time < horizon) {
+            fly(horizon - time, trackX * speed, trackY * speed, targetAltitude, climbRate, descentRate, horizon);
+        }
+    }
+
+    /**
+     * Find the first waypoint still ahead: the end of the route leg nearest the
+     * position, or the first waypoint when the position is nearest the route's start.
+     */
+    private static int nextWaypoint(List<Waypoint> waypoints, double x, double y) {
+        if (waypoints.isEmpty()) {
+            return 0;
+        }
+        Waypoint first = waypoints.get(0);
+        double bestDistance = Math.hypot(first.getX() - x, first.getY() - y);
+        int next = 0;
+        for (int i = 1; i < waypoints.size(); i++) {
+            Waypoint from = waypoints.get(i - 1);
+            Waypoint to = waypoints.get(i);
+            double legX = to.getX() - from.getX();
+            double legY = to.getY() - from.getY();
+            double lengthSquared = legX * legX + legY * legY;
+            double along = lengthSquared > 0.0
+                ? ((x - from.getX()) * legX + (y - from.getY()) * legY) / lengthSquared
+                : 1.0;
+            along = Math.max(0.0, Math.min(1.0, along));
+            double distance = Math.hypot(from.getX() + legX * along - x, from.getY() + legY * along - y);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                next = along >= 1.0 ? i + 1 : i;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Fly a leg for {@code duration} seconds, first changing altitude towards the
+     * target at the performance rate and then level once it is reached.
+     */
+    private void fly(double duration, double legVelocityX, double legVelocityY, double targetAltitude,
+                     double climbRate, double descentRate, double horizon) {
+        double end = Math.min(time + duration, horizon);
+        double deltaAltitude = targetAltitude - altitude;
+        double rate = deltaAltitude > 0.0 ? climbRate : -descentRate;
+        if (deltaAltitude != 0.0 && rate != 0.0) {
+            double levelOff = time + deltaAltitude / rate;
+            append(Math.min(end, levelOff), legVelocityX, legVelocityY, rate);
+            if (levelOff <= end) {
+                altitude = targetAltitude; // Snap, so rounding never leaves a sliver of climb
+            }
+        }
+        append(end, legVelocityX, legVelocityY, 0.0);
+    }
+
+    private void append(double end, double segmentVelocityX, double segmentVelocityY, double verticalRate) {
+        if (end <= time) {
+            return;
+        }
+        if (segmentCount == startTimes.length) {
+            int capacity = segmentCount * 2;
+            startTimes = Arrays.copyOf(startTimes, capacity);
+            endTimes = Arrays.copyOf(endTimes, capacity);
+            startX = Arrays.copyOf(startX, capacity);
+            startY = Arrays.copyOf(startY, capacity);
+            startAltitudes = Arrays.copyOf(startAltitudes, capacity);
+            velocityX = Arrays.copyOf(velocityX, capacity);
+            velocityY = Arrays.copyOf(velocityY, capacity);
+            verticalRates = Arrays.copyOf(verticalRates, capacity);
+        }
+        startTimes[segmentCount] = time;
+        endTimes[segmentCount] = end;
+        startX[segmentCount] = x;
+        startY[segmentCount] = y;
+        startAltitudes[segmentCount] = altitude;
+        velocityX[segmentCount] = segmentVelocityX;
+        velocityY[segmentCount] = segmentVelocityY;
+        verticalRates[segmentCount] = verticalRate;
+        segmentCount++;
+
+        double duration = end - time;
+        x += segmentVelocityX * duration;
+        y += segmentVelocityY * duration;
+        altitude += verticalRate * duration;
+        time = end;
+    }
+
+    private static double toMetersPerSecond(SpeedConstraints constraints) {
+        double speed = constraints.getTargetSpeed();
+        return switch (constraints.getUnit()) {
+            case KNOTS -> speed * METERS_PER_SECOND_PER_KNOT;
+            case KPH -> speed / 3.6;
+            case MACH -> speed * SPEED_OF_SOUND;
+        };
+    }
+
+    // Segment accessors: times in seconds, positions in meters, rates in meters per second
+    public int getSegmentCount() { return segmentCount; }
+    public double getStartTime(int segment) { return startTimes[segment]; }
+    public double getEndTime(int segment) { return endTimes[segment]; }
+    public double getStartX(int segment) { return startX[segment]; }
+    public double getStartY(int segment) { return startY[segment]; }
+    public double getStartAltitude(int segment) { return startAltitudes[segment]; }
+    public double getVelocityX(int segment) { return velocityX[segment]; }
+    public double getVelocityY(int segment) { return velocityY[segment]; }
+    public double getVerticalRate(int segment) { return verticalRates[segment]; }
+}
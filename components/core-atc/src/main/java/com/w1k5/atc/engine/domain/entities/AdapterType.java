@@ -1,4 +1,4 @@
-package com.w1k5.atc.engine.application;
+package com.w1k5.atc.engine.domain.entities;
 
 public enum AdapterType {
     WEATHER("weather"),
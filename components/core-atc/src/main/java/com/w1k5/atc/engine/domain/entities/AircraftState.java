@@ -1,22 +1,33 @@
 package com.w1k5.atc.engine.domain.entities;
 
+import com.w1k5.atc.engine.domain.spatial.FixedPointGeometry;
+
 public class AircraftState {
     private long positionX; // Position in centimeters (scaled by 100)
     private long positionY; // Position in centimeters (scaled by 100)
     private long velocityX; // Velocity in centimeters per second (scaled by 100)
     private long velocityY; // Velocity in centimeters per second (scaled by 100)
     private long altitude;  // Altitude in centimeters (scaled by 100)
+    private long verticalRate; // Climb (positive) or descent rate in centimeters per second, 0 if unknown
     private int sectorId;
 
     private static final int SCALE = 100; // Scale factor (100 for centimeters)
 
     // Constructor
     public AircraftState(long positionX, long positionY, long velocityX, long velocityY, long altitude, int sectorId) {
+        this(positionX, positionY, velocityX, velocityY, altitude, 0, sectorId);
+    }
+
+    // Constructor with a measured vertical rate
+    public AircraftState(long positionX, long positionY, long velocityX, long velocityY, long altitude,
+                         long verticalRate, int sectorId) {
         this.positionX = positionX;
         this.positionY = positionY;
         this.velocityX = velocityX;
         this.velocityY = velocityY;
         this.altitude = altitude;
+        this.verticalRate = verticalRate;
+        this.sectorId = sectorId;
     }
 
     // Getters and Setters
@@ -40,6 +51,22 @@ public class AircraftState {
         return altitude;
     }
 
+    public long getVerticalRate() {
+        return verticalRate;
+    }
+
+    /**
+     * Overwrite the kinematics in place, for the {@link FlightStore} record this state belongs to.
+     */
+    void set(long positionX, long positionY, long velocityX, long velocityY, long altitude, long verticalRate) {
+        this.positionX = positionX;
+        this.positionY = positionY;
+        this.velocityX = velocityX;
+        this.velocityY = velocityY;
+        this.altitude = altitude;
+        this.verticalRate = verticalRate;
+    }
+
     // Method to convert to real-world value (meters)
     public double getPositionXInMeters() {
         return (double) positionX / SCALE;
@@ -67,11 +94,16 @@ public class AircraftState {
         positionY += velocityY * deltaTimeInSeconds;
     }
 
-    // Method to calculate distance between this aircraft and another (Euclidean distance)
+    // 3D Euclidean distance to another aircraft in centimeters, overflow-safe at any range
     public long getDistanceToOtherAircraft(AircraftState otherAircraft) {
-        long deltaX = this.positionX - otherAircraft.positionX;
-        long deltaY = this.positionY - otherAircraft.positionY;
-        return (long) Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+        return (long) FixedPointGeometry.distance(this.positionX - otherAircraft.positionX,
+                this.positionY - otherAircraft.positionY, this.altitude - otherAircraft.altitude);
+    }
+
+    // Squared 3D distance in square centimeters, for comparing against squared minima
+    public long getDistanceSquaredToOtherAircraft(AircraftState otherAircraft) {
+        return FixedPointGeometry.distanceSquared(this.positionX - otherAircraft.positionX,
+                this.positionY - otherAircraft.positionY, this.altitude - otherAircraft.altitude);
     }
 
     @Override
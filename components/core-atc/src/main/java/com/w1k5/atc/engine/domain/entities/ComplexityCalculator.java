@@ -2,6 +2,7 @@ package com.w1k5.atc.engine.domain.entities;
 
 import com.w1k5.atc.engine.domain.constraints.AircraftPerformance;
 import com.w1k5.atc.engine.domain.sector.Sector;
+import com.w1k5.atc.engine.domain.spatial.FixedPointGeometry;
 
 /**
  * Calculates the complexity contribution of aircraft to sector workload.
@@ -46,10 +47,8 @@ public class ComplexityCalculator {
      * Calculate speed-based complexity.
      */
     private static double calculateSpeedComplexity(AircraftState state, AircraftPerformance performance) {
-        double currentSpeed = Math.sqrt(
-            state.getVelocityXInMetersPerSecond() * state.getVelocityXInMetersPerSecond() +
-            state.getVelocityYInMetersPerSecond() * state.getVelocityYInMetersPerSecond()
-        );
+        double currentSpeed = FixedPointGeometry.horizontalDistance(state.getVelocityX(), state.getVelocityY())
+            / FixedPointGeometry.CENTIMETERS_PER_METER;
         
         double maxSpeed = performance.getMaxSpeed() * 0.514444; // Convert knots to m/s
         
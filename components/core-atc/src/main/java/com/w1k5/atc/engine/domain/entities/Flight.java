@@ -2,30 +2,78 @@ package com.w1k5.atc.engine.domain.entities;
 
 import com.w1k5.atc.engine.domain.constraints.AircraftPerformance;
 import com.w1k5.atc.engine.domain.separation.SeparationMinima;
+import com.w1k5.atc.engine.domain.separation.SeparationRuleTable;
+import com.w1k5.atc.engine.domain.spatial.FixedPointGeometry;
+import com.w1k5.atc.engine.domain.time.DomainClock;
 
-import java.time.Instant;
 import java.util.Objects;
 
 /**
  * Represents a flight with its current state, intent, and performance characteristics.
  * This is the central entity for ATC decision making.
+ * Flights read back from a {@link FlightStore} are views of the store's record and
+ * change in place as the track is updated; copy what must be kept across updates.
  */
 public class Flight {
     private final String flightId;
     private final AircraftState state;
-    private final FlightIntent intent;
-    private final AircraftPerformance performance;
-    private final Instant lastUpdate;
-    private final int sectorId;
+    private FlightIntent intent;
+    private AircraftPerformance performance;
+    private long lastUpdateNanos;
+    private int sectorId;
 
+    /**
+     * Create a flight without an update time. Flights never read a clock themselves:
+     * the engine stamps the record it keeps with the time the update is applied at,
+     * from its {@link DomainClock} or as given by the caller.
+     */
     public Flight(String flightId, AircraftState state, FlightIntent intent, 
                   AircraftPerformance performance, int sectorId) {
+        this(flightId, state, intent, performance, sectorId, 0L);
+    }
+
+    public Flight(String flightId, AircraftState state, FlightIntent intent,
+                  AircraftPerformance performance, int sectorId, long lastUpdateNanos) {
         this.flightId = Objects.requireNonNull(flightId, "Flight ID cannot be null");
         this.state = Objects.requireNonNull(state, "Aircraft state cannot be null");
         this.intent = Objects.requireNonNull(intent, "Flight intent cannot be null");
         this.performance = Objects.requireNonNull(performance, "Aircraft performance cannot be null");
         this.sectorId = sectorId;
-        this.lastUpdate = Instant.now();
+        this.lastUpdateNanos = lastUpdateNanos;
+    }
+
+    /**
+     * Copy a flight into a record owned by a {@link FlightStore}, stamped with the
+     * time it was recorded at, so later in-place updates never reach the caller's object.
+     */
+    static Flight copyOf(Flight flight, long timeNanos) {
+        AircraftState state = flight.state;
+        return new Flight(flight.flightId,
+                new AircraftState(state.getPositionX(), state.getPositionY(), state.getVelocityX(),
+                        state.getVelocityY(), state.getAltitude(), state.getVerticalRate(), flight.sectorId),
+                flight.intent, flight.performance, flight.sectorId, timeNanos);
+    }
+
+    /**
+     * Overwrite this record with another flight's, recorded at a time, keeping its identity.
+     */
+    void assign(Flight flight, long timeNanos) {
+        AircraftState source = flight.state;
+        state.set(source.getPositionX(), source.getPositionY(), source.getVelocityX(),
+                source.getVelocityY(), source.getAltitude(), source.getVerticalRate());
+        intent = flight.intent;
+        performance = flight.performance;
+        sectorId = flight.sectorId;
+        lastUpdateNanos = timeNanos;
+    }
+
+    /**
+     * Apply a track update to this record in place.
+     */
+    void moveTo(long positionX, long positionY, long altitude, long velocityX, long velocityY,
+                long verticalRate, long timeNanos) {
+        state.set(positionX, positionY, velocityX, velocityY, altitude, verticalRate);
+        lastUpdateNanos = timeNanos;
     }
 
     // Getters
@@ -33,34 +81,43 @@ public class Flight {
     public AircraftState getState() { return state; }
     public FlightIntent getIntent() { return intent; }
     public AircraftPerformance getPerformance() { return performance; }
-    public Instant getLastUpdate() { return lastUpdate; }
+    public long getLastUpdateNanos() { return lastUpdateNanos; }
     public int getSectorId() { return sectorId; }
 
     /**
-     * Check if this flight conflicts with another flight based on separation minima.
+     * Check if this flight conflicts with another flight based on separation minima,
+     * in exact integer centimeters like the compiled rule path.
      */
     public boolean hasConflictWith(Flight other, SeparationMinima minima) {
         if (this.equals(other)) return false;
         
-        double horizontalDistance = calculateHorizontalDistance(other);
-        double verticalDistance = Math.abs(this.state.getAltitudeInMeters() - other.state.getAltitudeInMeters());
-        
-        // Convert separation minima from nautical miles to meters (1 NM = 1852 meters)
-        double horizontalMinimaMeters = minima.getHorizontalMinima() * 1852.0;
-        // Convert vertical minima from feet to meters (1 foot = 0.3048 meters)
-        double verticalMinimaMeters = minima.getVerticalMinima() * 0.3048;
-        
-        return horizontalDistance < horizontalMinimaMeters && 
-               verticalDistance < verticalMinimaMeters;
+        long horizontalMinima = FixedPointGeometry.nauticalMilesToCentimeters(minima.getHorizontalMinima());
+        return isWithin(other, horizontalMinima * horizontalMinima,
+                FixedPointGeometry.feetToCentimeters(minima.getVerticalMinima()));
+    }
+
+    /**
+     * Check if this flight conflicts with another flight under compiled separation rules,
+     * using each flight's sector and wake category. Exact integer arithmetic in centimeters.
+     */
+    public boolean hasConflictWith(Flight other, SeparationRuleTable rules) {
+        if (this.equals(other)) return false;
+
+        int pair = rules.pairIndex(
+            rules.ruleOf(sectorId, performance.getWakeCategory().ordinal()),
+            rules.ruleOf(other.sectorId, other.performance.getWakeCategory().ordinal()));
+        return isWithin(other, rules.getHorizontalMinimaSquared(pair), rules.getVerticalMinima(pair));
     }
 
     /**
-     * Calculate horizontal distance to another flight in meters.
+     * Test another flight against minima in exact integer centimeters.
      */
-    private double calculateHorizontalDistance(Flight other) {
-        double deltaX = this.state.getPositionXInMeters() - other.state.getPositionXInMeters();
-        double deltaY = this.state.getPositionYInMeters() - other.state.getPositionYInMeters();
-        return Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+    private boolean isWithin(Flight other, long horizontalMinimaSquared, long verticalMinima) {
+        return FixedPointGeometry.isWithin(
+                this.state.getPositionX() - other.state.getPositionX(),
+                this.state.getPositionY() - other.state.getPositionY(),
+                this.state.getAltitude() - other.state.getAltitude(),
+                horizontalMinimaSquared, verticalMinima);
     }
 
     /**
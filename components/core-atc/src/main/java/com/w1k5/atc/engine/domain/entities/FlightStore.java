@@ -0,0 +1,320 @@
+package com.w1k5.atc.engine.domain.entities;
+
+import org.agrona.collections.Object2IntHashMap;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Structure-of-arrays store for the live traffic picture.
+ * Each flight is addressed by a dense int handle; kinematics live in parallel
+ * primitive arrays so detection kernels scan them linearly without touching
+ * the {@link Flight} object graph. Removal swaps the last flight into the freed
+ * slot, so handles stay dense in [0, size).
+ * The store owns one {@link Flight} record per handle, copied on insert. Later
+ * updates rewrite the record and the columns in place, so steady-state updates
+ * allocate nothing; the records handed out are live, read-only views.
+ * Raw measurements are kept apart from the position columns detection reads:
+ * {@link #extrapolate} dead-reckons every flight from its last measurement to a
+ * given time, while the {@link Flight} records keep what was measured.
+ */
+public class FlightStore {
+    public static final int MISSING_HANDLE = -1;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final Object2IntHashMap<String> handles;
+
+    private String[] flightIds;
+    private Flight[] flights;
+    private long[] positionX;   // centimeters, extrapolated
+    private long[] positionY;   // centimeters, extrapolated
+    private long[] altitude;    // centimeters, extrapolated
+    private long[] velocityX;   // centimeters per second
+    private long[] velocityY;   // centimeters per second
+    private long[] verticalRate; // centimeters per second
+    private long[] measuredX;   // centimeters, as last measured
+    private long[] measuredY;   // centimeters, as last measured
+    private long[] measuredAltitude; // centimeters, as last measured
+    private long[] measuredNanos; // time of the last measurement
+    private byte[] wakeCategory; // AircraftPerformance.WakeTurbulenceCategory ordinal
+    private int[] sectorId;
+    private int size;
+    private long pictureNanos = Long.MIN_VALUE; // latest measurement or extrapolation time
+
+    public FlightStore() {
+        this(64);
+    }
+
+    public FlightStore(int initialCapacity) {
+        int capacity = Math.max(8, initialCapacity);
+        this.handles = new Object2IntHashMap<>(capacity * 2, 0.65f, MISSING_HANDLE);
+        this.flightIds = new String[capacity];
+        this.flights = new Flight[capacity];
+        this.positionX = new long[capacity];
+        this.positionY = new long[capacity];
+        this.altitude = new long[capacity];
+        this.velocityX = new long[capacity];
+        this.velocityY = new long[capacity];
+        this.verticalRate = new long[capacity];
+        this.measuredX = new long[capacity];
+        this.measuredY = new long[capacity];
+        this.measuredAltitude = new long[capacity];
+        this.measuredNanos = new long[capacity];
+        this.wakeCategory = new byte[capacity];
+        this.sectorId = new int[capacity];
+    }
+
+    /**
+     * Get the number of flights in the store; valid handles are [0, size).
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the handle for a flight ID, or {@link #MISSING_HANDLE}.
+     */
+    public int handleOf(String flightId) {
+        return handles.getValue(flightId);
+    }
+
+    /**
+     * Insert a flight or overwrite the existing record with the same ID, measured
+     * at the flight's own update time. Returns the flight's handle.
+     */
+    public int put(Flight flight) {
+        return put(flight, flight.getLastUpdateNanos());
+    }
+
+    /**
+     * Insert a flight or overwrite the existing record with the same ID, measured
+     * at a given time, e.g. the cluster time it was applied at; the stored record
+     * is stamped with that time. Returns the flight's handle.
+     */
+    public int put(Flight flight, long timeNanos) {
+        String flightId = flight.getFlightId();
+        int handle = handles.getValue(flightId);
+        if (handle == MISSING_HANDLE) {
+            ensureCapacity(size + 1);
+            handle = size++;
+            handles.put(flightId, handle);
+            flightIds[handle] = flightId;
+            flights[handle] = Flight.copyOf(flight, timeNanos);
+        } else {
+            flights[handle].assign(flight, timeNanos);
+        }
+        write(handle, flight, timeNanos);
+        return handle;
+    }
+
+    /**
+     * Apply a track update to an existing record in place, by handle. The flight
+     * keeps its intent, performance and sector.
+     *
+     * @throws IndexOutOfBoundsException if the handle is not in [0, size)
+     */
+    public void update(int handle, long positionX, long positionY, long altitude,
+                       long velocityX, long velocityY, long verticalRate, long timeNanos) {
+        if (handle < 0 || handle >= size) {
+            throw new IndexOutOfBoundsException(handle);
+        }
+        flights[handle].moveTo(positionX, positionY, altitude, velocityX, velocityY, verticalRate, timeNanos);
+        measure(handle, positionX, positionY, altitude, velocityX, velocityY, verticalRate, timeNanos);
+    }
+
+    /**
+     * Dead-reckon every flight from its last measurement to a time, at nanosecond
+     * resolution, in one pass over the columns. Flights measured at or after the
+     * time stay at their measured position; none is extrapolated further than
+     * {@code maxAheadNanos}. Measurements and {@link Flight} records are unchanged.
+     *
+     * @return the number of flights whose position changed
+     */
+    public int extrapolate(long timeNanos, long maxAheadNanos) {
+        return extrapolate(timeNanos, maxAheadNanos, null);
+    }
+
+    /**
+     * Dead-reckon every flight to a time, writing the handles of the flights whose
+     * position changed, in ascending order, to the front of {@code movedHandles}.
+     *
+     * @param movedHandles at least {@link #size()} long, or null
+     * @return the number of flights whose position changed
+     */
+    public int extrapolate(long timeNanos, long maxAheadNanos, int[] movedHandles) {
+        pictureNanos = Math.max(pictureNanos, timeNanos);
+        int moved = 0;
+        for (int handle = 0; handle < size; handle++) {
+            long elapsed = Math.min(Math.max(timeNanos - measuredNanos[handle], 0L), maxAheadNanos);
+            long x = measuredX[handle] + velocityX[handle] * elapsed / NANOS_PER_SECOND;
+            long y = measuredY[handle] + velocityY[handle] * elapsed / NANOS_PER_SECOND;
+            long z = measuredAltitude[handle] + verticalRate[handle] * elapsed / NANOS_PER_SECOND;
+            if (x != positionX[handle] || y != positionY[handle] || z != altitude[handle]) {
+                positionX[handle] = x;
+                positionY[handle] = y;
+                altitude[handle] = z;
+                if (movedHandles != null) {
+                    movedHandles[moved] = handle;
+                }
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Remove a flight by swapping the last record into its slot.
+     * Returns the handle that was removed, or {@link #MISSING_HANDLE} if unknown.
+     * After the call, the record previously at handle {@code size()} (if any)
+     * lives at the returned handle.
+     */
+    public int remove(String flightId) {
+        int handle = handles.removeKey(flightId);
+        if (handle == MISSING_HANDLE) {
+            return MISSING_HANDLE;
+        }
+
+        int last = --size;
+        if (handle != last) {
+            flightIds[handle] = flightIds[last];
+            flights[handle] = flights[last];
+            positionX[handle] = positionX[last];
+            positionY[handle] = positionY[last];
+            altitude[handle] = altitude[last];
+            velocityX[handle] = velocityX[last];
+            velocityY[handle] = velocityY[last];
+            verticalRate[handle] = verticalRate[last];
+            measuredX[handle] = measuredX[last];
+            measuredY[handle] = measuredY[last];
+            measuredAltitude[handle] = measuredAltitude[last];
+            measuredNanos[handle] = measuredNanos[last];
+            wakeCategory[handle] = wakeCategory[last];
+            sectorId[handle] = sectorId[last];
+            handles.put(flightIds[handle], handle);
+        }
+        flightIds[last] = null;
+        flights[last] = null;
+        return handle;
+    }
+
+    /**
+     * Remove every flight.
+     */
+    public void clear() {
+        handles.clear();
+        Arrays.fill(flightIds, 0, size, null);
+        Arrays.fill(flights, 0, size, null);
+        size = 0;
+        pictureNanos = Long.MIN_VALUE;
+    }
+
+    /**
+     * Get the time of the traffic picture: the latest time a flight was measured at
+     * or the store was extrapolated to, or {@link Long#MIN_VALUE} before either.
+     */
+    public long getPictureNanos() {
+        return pictureNanos;
+    }
+
+    // Per-handle accessors
+    public String getFlightId(int handle) { return flightIds[handle]; }
+    public Flight getFlight(int handle) { return flights[handle]; }
+    public long getPositionX(int handle) { return positionX[handle]; }
+    public long getPositionY(int handle) { return positionY[handle]; }
+    public long getAltitude(int handle) { return altitude[handle]; }
+    public long getVelocityX(int handle) { return velocityX[handle]; }
+    public long getVelocityY(int handle) { return velocityY[handle]; }
+    public long getVerticalRate(int handle) { return verticalRate[handle]; }
+    public long getMeasuredX(int handle) { return measuredX[handle]; }
+    public long getMeasuredY(int handle) { return measuredY[handle]; }
+    public long getMeasuredAltitude(int handle) { return measuredAltitude[handle]; }
+    public long getMeasuredNanos(int handle) { return measuredNanos[handle]; }
+    public int getWakeCategory(int handle) { return wakeCategory[handle]; }
+    public int getSectorId(int handle) { return sectorId[handle]; }
+
+    /**
+     * Backing columns for detection kernels, holding extrapolated positions. Entries
+     * are valid for handles in [0, size) and the arrays may be replaced by the next {@link #put}.
+     */
+    public long[] positionXColumn() { return positionX; }
+    public long[] positionYColumn() { return positionY; }
+    public long[] altitudeColumn() { return altitude; }
+
+    /**
+     * Build a copy of a stored flight at its extrapolated position and altitude,
+     * where detection sees it. Velocity, vertical rate, intent and the update time
+     * are those of the last measurement; the store's record is not touched.
+     */
+    public Flight getExtrapolatedFlight(int handle) {
+        Flight flight = flights[handle];
+        AircraftState state = new AircraftState(positionX[handle], positionY[handle], velocityX[handle],
+                velocityY[handle], altitude[handle], verticalRate[handle], sectorId[handle]);
+        return new Flight(flightIds[handle], state, flight.getIntent(), flight.getPerformance(),
+                sectorId[handle], measuredNanos[handle]);
+    }
+
+    /**
+     * Read-only list view of the stored flights in handle order.
+     */
+    public List<Flight> flights() {
+        return new AbstractList<>() {
+            @Override
+            public Flight get(int index) {
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException(index);
+                }
+                return flights[index];
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private void write(int handle, Flight flight, long timeNanos) {
+        AircraftState state = flight.getState();
+        measure(handle, state.getPositionX(), state.getPositionY(), state.getAltitude(),
+                state.getVelocityX(), state.getVelocityY(), state.getVerticalRate(), timeNanos);
+        wakeCategory[handle] = (byte) flight.getPerformance().getWakeCategory().ordinal();
+        sectorId[handle] = flight.getSectorId();
+    }
+
+    /**
+     * Record a measurement; the flight sits at its measured position until the next extrapolation.
+     */
+    private void measure(int handle, long x, long y, long z, long vx, long vy, long vz, long timeNanos) {
+        positionX[handle] = measuredX[handle] = x;
+        positionY[handle] = measuredY[handle] = y;
+        altitude[handle] = measuredAltitude[handle] = z;
+        velocityX[handle] = vx;
+        velocityY[handle] = vy;
+        verticalRate[handle] = vz;
+        measuredNanos[handle] = timeNanos;
+        pictureNanos = Math.max(pictureNanos, timeNanos);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= flightIds.length) {
+            return;
+        }
+        int capacity = Math.max(required, flightIds.length * 2);
+        flightIds = Arrays.copyOf(flightIds, capacity);
+        flights = Arrays.copyOf(flights, capacity);
+        positionX = Arrays.copyOf(positionX, capacity);
+        positionY = Arrays.copyOf(positionY, capacity);
+        altitude = Arrays.copyOf(altitude, capacity);
+        velocityX = Arrays.copyOf(velocityX, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        verticalRate = Arrays.copyOf(verticalRate, capacity);
+        measuredX = Arrays.copyOf(measuredX, capacity);
+        measuredY = Arrays.copyOf(measuredY, capacity);
+        measuredAltitude = Arrays.copyOf(measuredAltitude, capacity);
+        measuredNanos = Arrays.copyOf(measuredNanos, capacity);
+        wakeCategory = Arrays.copyOf(wakeCategory, capacity);
+        sectorId = Arrays.copyOf(sectorId, capacity);
+    }
+}
@@ -0,0 +1,384 @@
+package com.w1k5.atc.engine.domain.fusion;
+
+import com.w1k5.atc.engine.domain.entities.AdapterType;
+import com.w1k5.atc.engine.domain.entities.AircraftState;
+import com.w1k5.atc.engine.domain.entities.Flight;
+import com.w1k5.atc.engine.domain.entities.FlightStore;
+import com.w1k5.atc.engine.domain.spatial.FixedPointGeometry;
+import com.w1k5.atc.engine.domain.spatial.SpatialHashGrid;
+import com.w1k5.atc.engine.domain.track.TrackLifecycle;
+import org.agrona.collections.Object2IntHashMap;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Fuses plots from the {@link AdapterType#RADAR} and {@link AdapterType#ADSB}
+ * adapters into one system track per aircraft, so an aircraft seen by both radar
+ * and ADS-B is detected once and does not jitter between the two sources. Each
+ * system track runs an alpha-beta filter on x, y and altitude, with the gains of
+ * the source each plot came from; filter state
+ * lives in primitive arrays indexed by a dense slot, and no plot allocates.
+ * Plots carrying an identity (ADS-B, or radar correlated by Mode S) associate by
+ * flight ID. Anonymous plots associate with the nearest track whose predicted
+ * position falls inside the gate, searched through a {@link SpatialHashGrid} of
+ * the tracks; plots matching no track are counted and dropped.
+ * Plots only update the filters. {@link #publish} pushes each track that received
+ * plots to the engine once, in place and as one batch through
+ * {@link TrackLifecycle#updateTracks}, so detection load does not grow with the
+ * number of sensors. System tracks are
+ * started from a flight plan with {@link #initiate} and end when the lifecycle
+ * drops them.
+ */
+public class TrackFusion {
+    public static final long DEFAULT_HORIZONTAL_GATE = FixedPointGeometry.CENTIMETERS_PER_NAUTICAL_MILE;
+    public static final long DEFAULT_VERTICAL_GATE = 30_480; // centimeters, 1000 feet
+    public static final long MAX_GROUND_SPEED = 36_000; // centimeters per second, about 700 knots
+
+    private static final int MISSING_SLOT = -1;
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    // Radar plots are noisy and arrive once a scan, so they are smoothed hard; ADS-B
+    // positions are GPS-derived and arrive about once a second, so the filter follows them closely
+    private static final double RADAR_ALPHA = 0.5;
+    private static final double RADAR_BETA = 0.15;
+    private static final double ADSB_ALPHA = 0.85;
+    private static final double ADSB_BETA = 0.5;
+
+    private final TrackLifecycle lifecycle;
+    private final FlightStore store;
+    private final long horizontalGateSquared;
+    private final long verticalGate;
+    private final Object2IntHashMap<String> slots;
+    private final SpatialHashGrid grid;
+
+    private String[] flightIds;
+    private double[] positionX;    // centimeters
+    private double[] positionY;    // centimeters
+    private double[] altitude;     // centimeters
+    private double[] velocityX;    // centimeters per second
+    private double[] velocityY;    // centimeters per second
+    private double[] verticalRate; // centimeters per second
+    private long[] lastPlotNanos;
+    private int[] cellX;
+    private int[] cellY;
+    private boolean[] pending;     // plotted since the last publish
+    private int size;
+
+    // Publish batch, one entry per pending track, rounded to the engine's integer units
+    private int[] batchHandles;
+    private long[] batchX;
+    private long[] batchY;
+    private long[] batchAltitude;
+    private long[] batchVelocityX;
+    private long[] batchVelocityY;
+    private long[] batchVerticalRate;
+    private long[] batchNanos;
+
+    private long plotCount;
+    private long unassociatedCount;
+    private long publishedCount;
+
+    public TrackFusion(TrackLifecycle lifecycle) {
+        this(lifecycle, DEFAULT_HORIZONTAL_GATE, DEFAULT_VERTICAL_GATE);
+    }
+
+    /**
+     * Create a fusion stage feeding a lifecycle's engine. Tracks the lifecycle drops
+     * are forgotten here too.
+     *
+     * @param horizontalGate horizontal gate radius in centimeters
+     * @param verticalGate vertical gate in centimeters
+     */
+    public TrackFusion(TrackLifecycle lifecycle, long horizontalGate, long verticalGate) {
+        this.lifecycle = Objects.requireNonNull(lifecycle, "Lifecycle cannot be null");
+        if (horizontalGate <= 0 || verticalGate <= 0) {
+            throw new IllegalArgumentException("Gates must be positive");
+        }
+        this.store = lifecycle.getEngine().getFlightStore();
+        this.horizontalGateSquared = FixedPointGeometry.horizontalDistanceSquared(horizontalGate, 0);
+        this.verticalGate = verticalGate;
+        this.slots = new Object2IntHashMap<>(MISSING_SLOT);
+        // Tracks are indexed where they were last plotted; cells are widened by how far one
+        // can fly before the lifecycle drops it (plus a second for poll and timer granularity),
+        // so however long a track coasts, the gate stays within one ring of cells
+        double coastLimitSeconds = lifecycle.getDropAfterNanos() / NANOS_PER_SECOND + 1.0;
+        this.grid = new SpatialHashGrid(horizontalGate + Math.round(MAX_GROUND_SPEED * coastLimitSeconds));
+
+        int capacity = 64;
+        this.flightIds = new String[capacity];
+        this.positionX = new double[capacity];
+        this.positionY = new double[capacity];
+        this.altitude = new double[capacity];
+        this.velocityX = new double[capacity];
+        this.velocityY = new double[capacity];
+        this.verticalRate = new double[capacity];
+        this.lastPlotNanos = new long[capacity];
+        this.cellX = new int[capacity];
+        this.cellY = new int[capacity];
+        this.pending = new boolean[capacity];
+        this.batchHandles = new int[capacity];
+        this.batchX = new long[capacity];
+        this.batchY = new long[capacity];
+        this.batchAltitude = new long[capacity];
+        this.batchVelocityX = new long[capacity];
+        this.batchVelocityY = new long[capacity];
+        this.batchVerticalRate = new long[capacity];
+        this.batchNanos = new long[capacity];
+
+        lifecycle.addListener(new TrackLifecycle.Listener() {
+            @Override
+            public void onDropped(String flightId, long timeNanos) {
+                forget(flightId);
+            }
+        });
+    }
+
+    // Getters
+    public int getTrackCount() { return size; }
+    public long getPlotCount() { return plotCount; }
+    public long getUnassociatedCount() { return unassociatedCount; }
+    public long getPublishedCount() { return publishedCount; }
+
+    /**
+     * Check whether a flight has a system track.
+     */
+    public boolean hasTrack(String flightId) {
+        return slots.getValue(flightId) != MISSING_SLOT;
+    }
+
+    /**
+     * Start a system track from a flight plan and its first report, adding it to the
+     * engine. An existing track is restarted from the flight's state.
+     */
+    public void initiate(Flight flight, long timeNanos) {
+        lifecycle.update(flight, timeNanos);
+
+        String flightId = flight.getFlightId();
+        int slot = slots.getValue(flightId);
+        if (slot == MISSING_SLOT) {
+            ensureCapacity(size + 1);
+            slot = size++;
+            slots.put(flightId, slot);
+            flightIds[slot] = flightId;
+        } else {
+            grid.removeFromCell(slot, cellX[slot], cellY[slot]);
+        }
+
+        AircraftState state = flight.getState();
+        positionX[slot] = state.getPositionX();
+        positionY[slot] = state.getPositionY();
+        altitude[slot] = state.getAltitude();
+        velocityX[slot] = state.getVelocityX();
+        velocityY[slot] = state.getVelocityY();
+        verticalRate[slot] = state.getVerticalRate();
+        lastPlotNanos[slot] = timeNanos;
+        pending[slot] = false;
+        index(slot);
+    }
+
+    /**
+     * Fuse one plot into its system track.
+     *
+     * @param source the adapter the plot came from, {@link AdapterType#RADAR} or {@link AdapterType#ADSB}
+     * @param flightId the identity the source reported, or null for an anonymous plot
+     * @return true if the plot was associated with a track
+     * @throws IllegalArgumentException if the adapter is not a surveillance source
+     */
+    public boolean accept(AdapterType source, String flightId, long x, long y, long altitude, long timeNanos) {
+        boolean radar = switch (source) {
+            case RADAR -> true;
+            case ADSB -> false;
+            default -> throw new IllegalArgumentException("Not a surveillance source: " + source);
+        };
+        plotCount++;
+        int slot = flightId != null ? slots.getValue(flightId) : associate(x, y, altitude, timeNanos);
+        if (slot == MISSING_SLOT) {
+            unassociatedCount++;
+            return false;
+        }
+
+        if (radar) {
+            filter(slot, RADAR_ALPHA, RADAR_BETA, x, y, altitude, timeNanos);
+        } else {
+            filter(slot, ADSB_ALPHA, ADSB_BETA, x, y, altitude, timeNanos);
+        }
+        return true;
+    }
+
+    /**
+     * Push every track that received plots since the last call to the engine, once
+     * each, at the time of its latest plot. The tracks go to the engine as one batch,
+     * so pairs of updated tracks are tested once and the epoch advances once.
+     *
+     * @return the number of tracks published
+     */
+    public int publish() {
+        int published = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (!pending[slot]) {
+                continue;
+            }
+            pending[slot] = false;
+            int handle = store.handleOf(flightIds[slot]);
+            if (handle == FlightStore.MISSING_HANDLE) {
+                continue;
+            }
+            batchHandles[published] = handle;
+            batchX[published] = Math.round(positionX[slot]);
+            batchY[published] = Math.round(positionY[slot]);
+            batchAltitude[published] = Math.round(altitude[slot]);
+            batchVelocityX[published] = Math.round(velocityX[slot]);
+            batchVelocityY[published] = Math.round(velocityY[slot]);
+            batchVerticalRate[published] = Math.round(verticalRate[slot]);
+            batchNanos[published] = lastPlotNanos[slot];
+            published++;
+        }
+        if (published > 0) {
+            lifecycle.updateTracks(published, batchHandles, batchX, batchY, batchAltitude,
+                    batchVelocityX, batchVelocityY, batchVerticalRate, batchNanos);
+        }
+        publishedCount += published;
+        return published;
+    }
+
+    /**
+     * End a system track and remove the flight from the engine.
+     */
+    public void remove(String flightId) {
+        forget(flightId);
+        lifecycle.remove(flightId);
+    }
+
+    /**
+     * Find the nearest track whose position predicted to the plot time is inside the gate.
+     */
+    private int associate(long x, long y, long z, long timeNanos) {
+        int plotCellX = grid.cellOf(x);
+        int plotCellY = grid.cellOf(y);
+        int best = MISSING_SLOT;
+        long bestDistance = horizontalGateSquared;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int node = grid.firstNode(plotCellX + dx, plotCellY + dy); node != -1; node = grid.nextNode(node)) {
+                    int slot = grid.entryOf(node);
+                    double elapsed = (timeNanos - lastPlotNanos[slot]) / NANOS_PER_SECOND;
+                    long deltaAltitude = z - Math.round(altitude[slot] + verticalRate[slot] * elapsed);
+                    if (Math.abs(deltaAltitude) >= verticalGate) {
+                        continue;
+                    }
+                    long distance = FixedPointGeometry.horizontalDistanceSquared(
+                            x - Math.round(positionX[slot] + velocityX[slot] * elapsed),
+                            y - Math.round(positionY[slot] + velocityY[slot] * elapsed));
+                    if (distance < bestDistance || (distance == bestDistance && best != MISSING_SLOT && slot < best)) {
+                        best = slot;
+                        bestDistance = distance;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Alpha-beta update of one track with a plot. {@code alpha} is the share of a
+     * position residual applied to the position, {@code beta} the share per second
+     * since the last plot applied to the velocity. A plot older than the track's
+     * latest corrects its position against the retrodicted estimate and leaves the
+     * velocity and the track time alone.
+     */
+    private void filter(int slot, double alpha, double beta, long x, long y, long z, long timeNanos) {
+        double elapsed = (timeNanos - lastPlotNanos[slot]) / NANOS_PER_SECOND;
+        beta = elapsed > 0.0 ? beta / elapsed : 0.0;
+        correct(positionX, velocityX, slot, x, elapsed, alpha, beta);
+        correct(positionY, velocityY, slot, y, elapsed, alpha, beta);
+        correct(altitude, verticalRate, slot, z, elapsed, alpha, beta);
+        lastPlotNanos[slot] = Math.max(lastPlotNanos[slot], timeNanos);
+        pending[slot] = true;
+
+        int previousX = cellX[slot];
+        int previousY = cellY[slot];
+        cellX[slot] = grid.cellOf(Math.round(positionX[slot]));
+        cellY[slot] = grid.cellOf(Math.round(positionY[slot]));
+        if (previousX != cellX[slot] || previousY != cellY[slot]) {
+            grid.removeFromCell(slot, previousX, previousY);
+            grid.insertIntoCell(slot, cellX[slot], cellY[slot]);
+        }
+    }
+
+    private static void correct(double[] position, double[] velocity, int slot, long measured,
+                                double elapsed, double alpha, double beta) {
+        double predicted = position[slot] + velocity[slot] * elapsed;
+        double residual = measured - predicted;
+        position[slot] += velocity[slot] * Math.max(elapsed, 0.0) + alpha * residual;
+        velocity[slot] += beta * residual;
+    }
+
+    private void index(int slot) {
+        cellX[slot] = grid.cellOf(Math.round(positionX[slot]));
+        cellY[slot] = grid.cellOf(Math.round(positionY[slot]));
+        grid.insertIntoCell(slot, cellX[slot], cellY[slot]);
+    }
+
+    /**
+     * Drop a track's filter, moving the last slot into its place.
+     */
+    private void forget(String flightId) {
+        int slot = slots.removeKey(flightId);
+        if (slot == MISSING_SLOT) {
+            return;
+        }
+
+        grid.removeFromCell(slot, cellX[slot], cellY[slot]);
+        int last = --size;
+        if (slot != last) {
+            grid.removeFromCell(last, cellX[last], cellY[last]);
+            flightIds[slot] = flightIds[last];
+            positionX[slot] = positionX[last];
+            positionY[slot] = positionY[last];
+            altitude[slot] = altitude[last];
+            velocityX[slot] = velocityX[last];
+            velocityY[slot] = velocityY[last];
+            verticalRate[slot] = verticalRate[last];
+            lastPlotNanos[slot] = lastPlotNanos[last];
+            cellX[slot] = cellX[last];
+            cellY[slot] = cellY[last];
+            pending[slot] = pending[last];
+            grid.insertIntoCell(slot, cellX[slot], cellY[slot]);
+            slots.put(flightIds[slot], slot);
+        }
+        flightIds[last] = null;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= flightIds.length) {
+            return;
+        }
+        int capacity = Math.max(required, flightIds.length * 2);
+        flightIds = Arrays.copyOf(flightIds, capacity);
+        positionX = Arrays.copyOf(positionX, capacity);
+        positionY = Arrays.copyOf(positionY, capacity);
+        altitude = Arrays.copyOf(altitude, capacity);
+        velocityX = Arrays.copyOf(velocityX, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        verticalRate = Arrays.copyOf(verticalRate, capacity);
+        lastPlotNanos = Arrays.copyOf(lastPlotNanos, capacity);
+        cellX = Arrays.copyOf(cellX, capacity);
+        cellY = Arrays.copyOf(cellY, capacity);
+        pending = Arrays.copyOf(pending, capacity);
+        batchHandles = Arrays.copyOf(batchHandles, capacity);
+        batchX = Arrays.copyOf(batchX, capacity);
+        batchY = Arrays.copyOf(batchY, capacity);
+        batchAltitude = Arrays.copyOf(batchAltitude, capacity);
+        batchVelocityX = Arrays.copyOf(batchVelocityX, capacity);
+        batchVelocityY = Arrays.copyOf(batchVelocityY, capacity);
+        batchVerticalRate = Arrays.copyOf(batchVerticalRate, capacity);
+        batchNanos = Arrays.copyOf(batchNanos, capacity);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TrackFusion{tracks=%d, plots=%d, unassociated=%d, published=%d}",
+                size, plotCount, unassociatedCount, publishedCount);
+    }
+}
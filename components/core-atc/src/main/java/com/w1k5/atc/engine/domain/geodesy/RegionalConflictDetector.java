@@ -0,0 +1,166 @@
+package com.w1k5.atc.engine.domain.geodesy;
+
+import com.w1k5.atc.engine.domain.conflict.Conflict;
+import com.w1k5.atc.engine.domain.conflict.ConflictDetectionEngine;
+import com.w1k5.atc.engine.domain.constraints.AircraftPerformance;
+import com.w1k5.atc.engine.domain.entities.Flight;
+import com.w1k5.atc.engine.domain.entities.FlightIntent;
+import com.w1k5.atc.engine.domain.separation.SeparationMinima;
+import org.agrona.collections.Int2ObjectHashMap;
+import org.agrona.collections.Object2ObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Detects conflicts over WGS84 traffic that spans several regions of a
+ * {@link RegionalProjection}. Each region has its own {@link ConflictDetectionEngine}
+ * on the region's tangent plane, and a flight is fed to every region
+ * {@link RegionalProjection#regionsNear} returns for it: its own, plus the
+ * neighbours within the halo. A pair closer than the halo is therefore in at
+ * least one engine together, even when the flights sit on either side of a
+ * region boundary. A pair near a corner can be found by several engines; it is
+ * reported once, from the lowest numbered region that found it.
+ */
+public class RegionalConflictDetector implements AutoCloseable {
+    private static final int MAX_REGIONS_PER_FLIGHT = 9;
+
+    private final RegionalProjection projection;
+    private final SeparationMinima separationMinima;
+    private final Int2ObjectHashMap<ConflictDetectionEngine> engines;
+    private final Object2ObjectHashMap<String, int[]> regionsByFlight;
+    private final int[] regionScratch;
+
+    public RegionalConflictDetector() {
+        this(new RegionalProjection(), new SeparationMinima());
+    }
+
+    public RegionalConflictDetector(RegionalProjection projection, SeparationMinima separationMinima) {
+        this.projection = Objects.requireNonNull(projection, "Projection cannot be null");
+        this.separationMinima = Objects.requireNonNull(separationMinima, "Separation minima cannot be null");
+        this.engines = new Int2ObjectHashMap<>();
+        this.regionsByFlight = new Object2ObjectHashMap<>();
+        this.regionScratch = new int[MAX_REGIONS_PER_FLIGHT];
+    }
+
+    // Getters
+    public RegionalProjection getProjection() { return projection; }
+    public int getFlightCount() { return regionsByFlight.size(); }
+    public int getEngineCount() { return engines.size(); }
+
+    /**
+     * Get a region's engine, or null if no flight has been fed to the region yet.
+     */
+    public ConflictDetectionEngine getEngine(int region) {
+        return engines.get(region);
+    }
+
+    /**
+     * Get the regions a flight is currently fed to, its own region first.
+     */
+    public int[] getRegions(String flightId) {
+        int[] regions = regionsByFlight.get(flightId);
+        return regions == null ? new int[0] : regions.clone();
+    }
+
+    /**
+     * Project a track report into every region near it and update the flight in
+     * those regions' engines. Regions the flight has moved away from drop it.
+     *
+     * @param groundSpeed ground speed in meters per second
+     * @param track true track in degrees
+     * @param timeNanos the time the report is recorded at
+     */
+    public void updateFlight(String flightId, double latitude, double longitude, double height,
+                             double groundSpeed, double track, FlightIntent intent,
+                             AircraftPerformance performance, int sectorId, long timeNanos) {
+        Objects.requireNonNull(flightId, "Flight ID cannot be null");
+        int count = projection.regionsNear(latitude, longitude, regionScratch);
+
+        int[] previous = regionsByFlight.get(flightId);
+        if (previous != null) {
+            for (int region : previous) {
+                if (!contains(regionScratch, count, region)) {
+                    engines.get(region).removeFlight(flightId);
+                }
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            int region = regionScratch[i];
+            Flight flight = new Flight(flightId,
+                projection.project(region, latitude, longitude, height, groundSpeed, track, sectorId),
+                intent, performance, sectorId);
+            engine(region).updateFlight(flight, timeNanos);
+        }
+        regionsByFlight.put(flightId, Arrays.copyOf(regionScratch, count));
+    }
+
+    /**
+     * Remove a flight from every region it was fed to.
+     */
+    public void removeFlight(String flightId) {
+        int[] regions = regionsByFlight.remove(flightId);
+        if (regions != null) {
+            for (int region : regions) {
+                engines.get(region).removeFlight(flightId);
+            }
+        }
+    }
+
+    /**
+     * Detect current conflicts in every region, each pair reported once.
+     */
+    public List<Conflict> detectAllConflicts() {
+        int[] regions = new int[engines.size()];
+        int count = 0;
+        for (Int2ObjectHashMap<ConflictDetectionEngine>.KeyIterator it = engines.keySet().iterator(); it.hasNext(); ) {
+            regions[count++] = it.nextInt();
+        }
+        Arrays.sort(regions, 0, count);
+
+        List<Conflict> conflicts = new ArrayList<>();
+        Set<Conflict> seen = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            for (Conflict conflict : engines.get(regions[i]).detectAllConflicts()) {
+                // Conflicts are equal by their pair of flights, whichever plane found them
+                if (seen.add(conflict)) {
+                    conflicts.add(conflict);
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Close every region's engine.
+     */
+    @Override
+    public void close() {
+        for (ConflictDetectionEngine engine : engines.values()) {
+            engine.close();
+        }
+    }
+
+    private ConflictDetectionEngine engine(int region) {
+        ConflictDetectionEngine engine = engines.get(region);
+        if (engine == null) {
+            engine = new ConflictDetectionEngine(separationMinima);
+            engines.put(region, engine);
+        }
+        return engine;
+    }
+
+    private static boolean contains(int[] regions, int count, int region) {
+        for (int i = 0; i < count; i++) {
+            if (regions[i] == region) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,174 @@
+package com.w1k5.atc.engine.domain.geodesy;
+
+import com.w1k5.atc.engine.domain.entities.AircraftState;
+import org.agrona.collections.Int2ObjectHashMap;
+
+/**
+ * Projects WGS84 track reports, once at ingest, into per-region tangent planes so
+ * detection stays on integer Cartesian math. The globe is tiled into latitude and
+ * longitude bands of a fixed size; each region's {@link TangentPlane} sits at the
+ * region's center and is built on first use and cached. With the default 4 degree
+ * regions, the plane's scale error at a region corner is under 0.15%, about ten
+ * meters at 5 NM.
+ * Coordinates of different regions cannot be compared, so pairs straddling a
+ * region boundary are handled with a halo: {@link #regionsNear} also returns every
+ * neighbouring region whose edge is within the halo distance, and the flight is
+ * projected into those planes too. Any two flights closer than the halo then share
+ * at least one plane; a halo of at least the largest horizontal minima, plus the
+ * distance flown over any lookahead, keeps detection across boundaries exact.
+ * {@link RegionalConflictDetector} runs detection this way, one engine per plane.
+ */
+public class RegionalProjection {
+    public static final double DEFAULT_REGION_DEGREES = 4.0;
+    public static final double DEFAULT_HALO_METERS = 18520.0; // 10 NM
+
+    private final double regionDegrees;
+    private final double haloMeters;
+    private final int latitudeBands;
+    private final int longitudeBands;
+    private final Int2ObjectHashMap<TangentPlane> planes;
+
+    public RegionalProjection() {
+        this(DEFAULT_REGION_DEGREES, DEFAULT_HALO_METERS);
+    }
+
+    public RegionalProjection(double regionDegrees, double haloMeters) {
+        double bands = 180.0 / regionDegrees;
+        if (!(regionDegrees > 0.0 && regionDegrees <= 90.0) || Math.abs(bands - Math.rint(bands)) > 1e-9) {
+            throw new IllegalArgumentException("Region size must divide 180 degrees and be at most 90");
+        }
+        if (!(haloMeters >= 0.0)) {
+            throw new IllegalArgumentException("Halo cannot be negative");
+        }
+        this.regionDegrees = regionDegrees;
+        this.haloMeters = haloMeters;
+        this.latitudeBands = (int) Math.rint(bands);
+        this.longitudeBands = 2 * latitudeBands;
+        this.planes = new Int2ObjectHashMap<>();
+    }
+
+    // Getters
+    public double getRegionDegrees() { return regionDegrees; }
+    public double getHaloMeters() { return haloMeters; }
+
+    /**
+     * Get the region a position falls in.
+     */
+    public int regionOf(double latitude, double longitude) {
+        return region(latitudeBand(latitude), longitudeBand(longitude));
+    }
+
+    /**
+     * Collect the region a position falls in, followed by every neighbouring region
+     * whose edge is within the halo distance.
+     *
+     * @param regions receives the regions; at least nine elements
+     * @return the number of regions written
+     */
+    public int regionsNear(double latitude, double longitude, int[] regions) {
+        int latitudeBand = latitudeBand(latitude);
+        int longitudeBand = longitudeBand(longitude);
+
+        // Distances to the region's edges, on the ellipsoid at this latitude
+        double sinLatitude = Math.sin(Math.toRadians(latitude));
+        double primeVertical = TangentPlane.primeVerticalRadius(sinLatitude);
+        double meridian = primeVertical * (1.0 - TangentPlane.ECCENTRICITY_SQUARED)
+                / (1.0 - TangentPlane.ECCENTRICITY_SQUARED * sinLatitude * sinLatitude);
+        double metersPerLatitudeDegree = Math.toRadians(meridian);
+        double metersPerLongitudeDegree = Math.toRadians(primeVertical * Math.cos(Math.toRadians(latitude)));
+        double south = -90.0 + latitudeBand * regionDegrees;
+        double west = -180.0 + longitudeBand * regionDegrees;
+        boolean nearSouth = (latitude - south) * metersPerLatitudeDegree < haloMeters;
+        boolean nearNorth = (south + regionDegrees - latitude) * metersPerLatitudeDegree < haloMeters;
+        boolean nearWest = (normalizeLongitude(longitude) - west) * metersPerLongitudeDegree < haloMeters;
+        boolean nearEast = (west + regionDegrees - normalizeLongitude(longitude)) * metersPerLongitudeDegree < haloMeters;
+
+        int count = 0;
+        regions[count++] = region(latitudeBand, longitudeBand);
+        for (int dLatitude = -1; dLatitude <= 1; dLatitude++) {
+            if ((dLatitude < 0 && !nearSouth) || (dLatitude > 0 && !nearNorth)) {
+                continue;
+            }
+            int band = latitudeBand + dLatitude;
+            if (band < 0 || band >= latitudeBands) {
+                continue;
+            }
+            for (int dLongitude = -1; dLongitude <= 1; dLongitude++) {
+                if ((dLatitude == 0 && dLongitude == 0)
+                        || (dLongitude < 0 && !nearWest) || (dLongitude > 0 && !nearEast)) {
+                    continue;
+                }
+                int region = region(band, Math.floorMod(longitudeBand + dLongitude, longitudeBands));
+                if (!contains(regions, count, region)) {
+                    regions[count++] = region;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get a region's tangent plane, building and caching it on first use.
+     */
+    public TangentPlane plane(int region) {
+        TangentPlane plane = planes.get(region);
+        if (plane == null) {
+            if (region < 0 || region >= latitudeBands * longitudeBands) {
+                throw new IllegalArgumentException("Unknown region: " + region);
+            }
+            double latitude = -90.0 + (region / longitudeBands + 0.5) * regionDegrees;
+            double longitude = -180.0 + (region % longitudeBands + 0.5) * regionDegrees;
+            plane = new TangentPlane(latitude, longitude);
+            planes.put(region, plane);
+        }
+        return plane;
+    }
+
+    /**
+     * Project a track report into a region's plane.
+     *
+     * @see TangentPlane#toAircraftState
+     */
+    public AircraftState project(int region, double latitude, double longitude, double height,
+                                 double groundSpeed, double track, int sectorId) {
+        return plane(region).toAircraftState(latitude, longitude, height, groundSpeed, track, sectorId);
+    }
+
+    /**
+     * Get the number of planes built so far.
+     */
+    public int getPlaneCount() {
+        return planes.size();
+    }
+
+    private int latitudeBand(double latitude) {
+        if (!(latitude >= -90.0 && latitude <= 90.0)) {
+            throw new IllegalArgumentException("Latitude must be between -90 and 90 degrees");
+        }
+        return Math.min(latitudeBands - 1, (int) Math.floor((latitude + 90.0) / regionDegrees));
+    }
+
+    private int longitudeBand(double longitude) {
+        if (!(longitude >= -180.0 && longitude <= 180.0)) {
+            throw new IllegalArgumentException("Longitude must be between -180 and 180 degrees");
+        }
+        return Math.floorMod((int) Math.floor((longitude + 180.0) / regionDegrees), longitudeBands);
+    }
+
+    private int region(int latitudeBand, int longitudeBand) {
+        return latitudeBand * longitudeBands + longitudeBand;
+    }
+
+    private static double normalizeLongitude(double longitude) {
+        return longitude == 180.0 ? -180.0 : longitude;
+    }
+
+    private static boolean contains(int[] regions, int count, int region) {
+        for (int i = 0; i < count; i++) {
+            if (regions[i] == region) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,140 @@
+package com.w1k5.atc.engine.domain.geodesy;
+
+import com.w1k5.atc.engine.domain.entities.AircraftState;
+
+/**
+ * Local east-north-up (ENU) tangent plane on the WGS84 ellipsoid.
+ * The origin's trigonometry and ECEF coordinates are computed once, so projecting
+ * a position costs one geodetic-to-ECEF conversion and a 3x3 rotation, with no
+ * haversine. The ECEF-to-ENU step is a rigid transform, so 3D distances between
+ * projected points are exact chord lengths.
+ * Positions become {@link AircraftState} centimeters: east and north on the plane,
+ * and height above the ellipsoid as altitude rather than ENU up, which drops away
+ * with the Earth's curvature and would skew vertical separation far from the origin.
+ * Instances are immutable and safe to share.
+ */
+public final class TangentPlane {
+    public static final double SEMI_MAJOR_AXIS = 6378137.0; // meters
+    public static final double FLATTENING = 1.0 / 298.257223563;
+    static final double ECCENTRICITY_SQUARED = FLATTENING * (2.0 - FLATTENING);
+
+    private static final double CENTIMETERS_PER_METER = 100.0;
+
+    private final double originLatitude;  // degrees
+    private final double originLongitude; // degrees
+
+    // Cached projection constants
+    private final double sinLatitude;
+    private final double cosLatitude;
+    private final double sinLongitude;
+    private final double cosLongitude;
+    private final double originX; // ECEF meters
+    private final double originY;
+    private final double originZ;
+
+    public TangentPlane(double originLatitude, double originLongitude) {
+        if (!(originLatitude >= -90.0 && originLatitude <= 90.0)) {
+            throw new IllegalArgumentException("Origin latitude must be between -90 and 90 degrees");
+        }
+        if (!(originLongitude >= -180.0 && originLongitude <= 180.0)) {
+            throw new IllegalArgumentException("Origin longitude must be between -180 and 180 degrees");
+        }
+        this.originLatitude = originLatitude;
+        this.originLongitude = originLongitude;
+
+        double latitude = Math.toRadians(originLatitude);
+        double longitude = Math.toRadians(originLongitude);
+        this.sinLatitude = Math.sin(latitude);
+        this.cosLatitude = Math.cos(latitude);
+        this.sinLongitude = Math.sin(longitude);
+        this.cosLongitude = Math.cos(longitude);
+
+        double primeVertical = primeVerticalRadius(sinLatitude);
+        this.originX = primeVertical * cosLatitude * cosLongitude;
+        this.originY = primeVertical * cosLatitude * sinLongitude;
+        this.originZ = primeVertical * (1.0 - ECCENTRICITY_SQUARED) * sinLatitude;
+    }
+
+    // Getters
+    public double getOriginLatitude() { return originLatitude; }
+    public double getOriginLongitude() { return originLongitude; }
+
+    /**
+     * Project a geodetic position onto the plane.
+     *
+     * @param latitude degrees
+     * @param longitude degrees
+     * @param height meters above the ellipsoid
+     * @param enu receives east, north and up in meters; at least three elements
+     */
+    public void project(double latitude, double longitude, double height, double[] enu) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double sinLat = Math.sin(lat);
+        double cosLat = Math.cos(lat);
+        double primeVertical = primeVerticalRadius(sinLat);
+
+        double dx = (primeVertical + height) * cosLat * Math.cos(lon) - originX;
+        double dy = (primeVertical + height) * cosLat * Math.sin(lon) - originY;
+        double dz = (primeVertical * (1.0 - ECCENTRICITY_SQUARED) + height) * sinLat - originZ;
+
+        enu[0] = -sinLongitude * dx + cosLongitude * dy;
+        enu[1] = -sinLatitude * cosLongitude * dx - sinLatitude * sinLongitude * dy + cosLatitude * dz;
+        enu[2] = cosLatitude * cosLongitude * dx + cosLatitude * sinLongitude * dy + sinLatitude * dz;
+    }
+
+    /**
+     * Project a track report into an aircraft state on this plane.
+     * The ground velocity is rotated from the aircraft's local east/north into the
+     * plane's, which corrects for meridian convergence away from the origin.
+     *
+     * @param latitude degrees
+     * @param longitude degrees
+     * @param height meters above the ellipsoid
+     * @param groundSpeed meters per second
+     * @param track true track in degrees clockwise from north
+     * @param sectorId sector the aircraft is in
+     */
+    public AircraftState toAircraftState(double latitude, double longitude, double height,
+                                         double groundSpeed, double track, int sectorId) {
+        double[] enu = new double[3];
+        project(latitude, longitude, height, enu);
+
+        double trackRadians = Math.toRadians(track);
+        double localEast = groundSpeed * Math.sin(trackRadians);
+        double localNorth = groundSpeed * Math.cos(trackRadians);
+
+        // Local ENU velocity to ECEF at the aircraft, then ECEF to this plane
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double sinLat = Math.sin(lat);
+        double cosLat = Math.cos(lat);
+        double sinLon = Math.sin(lon);
+        double cosLon = Math.cos(lon);
+        double vx = -sinLon * localEast - sinLat * cosLon * localNorth;
+        double vy = cosLon * localEast - sinLat * sinLon * localNorth;
+        double vz = cosLat * localNorth;
+        double east = -sinLongitude * vx + cosLongitude * vy;
+        double north = -sinLatitude * cosLongitude * vx - sinLatitude * sinLongitude * vy + cosLatitude * vz;
+
+        return new AircraftState(
+            Math.round(enu[0] * CENTIMETERS_PER_METER),
+            Math.round(enu[1] * CENTIMETERS_PER_METER),
+            Math.round(east * CENTIMETERS_PER_METER),
+            Math.round(north * CENTIMETERS_PER_METER),
+            Math.round(height * CENTIMETERS_PER_METER),
+            sectorId);
+    }
+
+    /**
+     * Radius of curvature in the prime vertical for a latitude's sine.
+     */
+    static double primeVerticalRadius(double sinLatitude) {
+        return SEMI_MAJOR_AXIS / Math.sqrt(1.0 - ECCENTRICITY_SQUARED * sinLatitude * sinLatitude);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TangentPlane{origin=(%.4f, %.4f)}", originLatitude, originLongitude);
+    }
+}
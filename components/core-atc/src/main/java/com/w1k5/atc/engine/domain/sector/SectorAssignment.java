@@ -1,6 +1,5 @@
 package com.w1k5.atc.engine.domain.sector;
 
-import java.time.Instant;
 import java.util.Objects;
 
 /**
@@ -14,7 +13,7 @@ public class SectorAssignment {
     private final AssignmentReason reason;
     private final AssignmentPriority priority;
     private final double complexityContribution;
-    private final Instant assignmentTime;
+    private final long assignmentTimeNanos;
     private final String reasoning;
 
     public enum AssignmentReason {
@@ -36,14 +35,14 @@ public class SectorAssignment {
 
     public SectorAssignment(String aircraftId, int assignedSectorId, int previousSectorId,
                            AssignmentReason reason, AssignmentPriority priority,
-                           double complexityContribution, String reasoning) {
+                           double complexityContribution, String reasoning, long assignmentTimeNanos) {
         this.aircraftId = Objects.requireNonNull(aircraftId, "Aircraft ID cannot be null");
         this.assignedSectorId = assignedSectorId;
         this.previousSectorId = previousSectorId;
         this.reason = Objects.requireNonNull(reason, "Assignment reason cannot be null");
         this.priority = Objects.requireNonNull(priority, "Assignment priority cannot be null");
         this.complexityContribution = complexityContribution;
-        this.assignmentTime = Instant.now();
+        this.assignmentTimeNanos = assignmentTimeNanos;
         this.reasoning = Objects.requireNonNull(reasoning, "Reasoning cannot be null");
     }
 
@@ -54,7 +53,7 @@ public class SectorAssignment {
     public AssignmentReason getReason() { return reason; }
     public AssignmentPriority getPriority() { return priority; }
     public double getComplexityContribution() { return complexityContribution; }
-    public Instant getAssignmentTime() { return assignmentTime; }
+    public long getAssignmentTimeNanos() { return assignmentTimeNanos; }
     public String getReasoning() { return reasoning; }
 
     /**
@@ -100,12 +99,12 @@ public class SectorAssignment {
         SectorAssignment that = (SectorAssignment) o;
         return Objects.equals(aircraftId, that.aircraftId) &&
                assignedSectorId == that.assignedSectorId &&
-               assignmentTime.equals(that.assignmentTime);
+               assignmentTimeNanos == that.assignmentTimeNanos;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(aircraftId, assignedSectorId, assignmentTime);
+        return Objects.hash(aircraftId, assignedSectorId, assignmentTimeNanos);
     }
 
     @Override
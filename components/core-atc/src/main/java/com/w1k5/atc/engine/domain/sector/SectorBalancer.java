@@ -5,6 +5,8 @@ import com.w1k5.atc.engine.domain.entities.ComplexityCalculator;
 import com.w1k5.atc.engine.domain.constraints.AircraftPerformance;
 import com.w1k5.atc.engine.domain.entities.FlightIntent;
 import com.w1k5.atc.engine.domain.entities.Flight;
+import com.w1k5.atc.engine.domain.spatial.FixedPointGeometry;
+import com.w1k5.atc.engine.domain.time.DomainClock;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -21,6 +23,7 @@ public class SectorBalancer {
     private final Map<Integer, SectorWorkload> sectorWorkloads;
     private final Map<String, Integer> aircraftSectorAssignments;
     private final Map<String, Double> aircraftComplexityCache;
+    private final DomainClock clock;
     
     // Balancing configuration
     private static final double LOAD_BALANCE_THRESHOLD = 0.2; // 20% difference triggers rebalancing
@@ -29,7 +32,16 @@ public class SectorBalancer {
     private static final boolean ENABLE_AUTO_REBALANCING = true;
 
     public SectorBalancer(List<Sector> sectors) {
+        this(sectors, DomainClock.SYSTEM);
+    }
+
+    /**
+     * Create a balancer that stamps assignments and workloads from a clock,
+     * e.g. one fed cluster time so replicas stamp identical values.
+     */
+    public SectorBalancer(List<Sector> sectors, DomainClock clock) {
         this.sectors = Objects.requireNonNull(sectors, "Sectors cannot be null");
+        this.clock = Objects.requireNonNull(clock, "Clock cannot be null");
         this.sectorWorkloads = new HashMap<>();
         this.aircraftSectorAssignments = new HashMap<>();
         this.aircraftComplexityCache = new HashMap<>();
@@ -44,7 +56,7 @@ public class SectorBalancer {
     private void initializeSectorWorkloads() {
         for (Sector sector : sectors) {
             // Default capacity: 20 aircraft, complexity score 100
-            sectorWorkloads.put(sector.getId(), new SectorWorkload(sector.getId(), 20, 100.0));
+            sectorWorkloads.put(sector.getId(), new SectorWorkload(sector.getId(), 20, 100.0, clock));
         }
     }
 
@@ -155,10 +167,10 @@ public class SectorBalancer {
      */
     private int findClosestSector(AircraftState state) {
         Sector closestSector = null;
-        double minDistance = Double.MAX_VALUE;
+        long minDistance = Long.MAX_VALUE;
         
         for (Sector sector : sectors) {
-            double distance = calculateDistanceToSector(state, sector);
+            long distance = calculateDistanceSquaredToSector(state, sector);
             if (distance < minDistance) {
                 minDistance = distance;
                 closestSector = sector;
@@ -169,17 +181,16 @@ public class SectorBalancer {
     }
 
     /**
-     * Calculate distance from aircraft to sector center.
+     * Calculate squared horizontal distance from aircraft to sector center, in square
+     * centimeters like the sector bounds; ranking by squares needs no square root.
      */
-    private double calculateDistanceToSector(AircraftState state, Sector sector) {
+    private long calculateDistanceSquaredToSector(AircraftState state, Sector sector) {
         // Simplified distance calculation - would use actual sector boundaries
-        double sectorCenterX = (sector.getMinX() + sector.getMaxX()) / 2.0;
-        double sectorCenterY = (sector.getMinY() + sector.getMaxY()) / 2.0;
-        
-        double deltaX = state.getPositionXInMeters() - sectorCenterX;
-        double deltaY = state.getPositionYInMeters() - sectorCenterY;
+        long sectorCenterX = sector.getMinX() + (sector.getMaxX() - sector.getMinX()) / 2;
+        long sectorCenterY = sector.getMinY() + (sector.getMaxY() - sector.getMinY()) / 2;
         
-        return Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+        return FixedPointGeometry.horizontalDistanceSquared(
+            state.getPositionX() - sectorCenterX, state.getPositionY() - sectorCenterY);
     }
 
     /**
@@ -191,7 +202,7 @@ public class SectorBalancer {
         String reasoning = generateReasoning(aircraftId, optimalSectorId, currentSectorId, reason, complexity);
         
         return new SectorAssignment(aircraftId, optimalSectorId, currentSectorId, 
-                                  reason, priority, complexity, reasoning);
+                                  reason, priority, complexity, reasoning, clock.nanos());
     }
 
     /**
@@ -239,6 +250,25 @@ public class SectorBalancer {
         }
     }
 
+    /**
+     * Remove an aircraft that is no longer tracked, releasing its sector workload.
+     *
+     * @return true if the aircraft was assigned to a sector
+     */
+    public boolean removeAircraft(String aircraftId) {
+        Integer sectorId = aircraftSectorAssignments.remove(aircraftId);
+        Double complexity = aircraftComplexityCache.remove(aircraftId);
+        if (sectorId == null) {
+            return false;
+        }
+
+        SectorWorkload workload = sectorWorkloads.get(sectorId);
+        if (workload != null) {
+            workload.removeAircraft(aircraftId, complexity == null ? 0.0 : complexity);
+        }
+        return true;
+    }
+
     /**
      * Update sector workload tracking.
      */
@@ -327,7 +357,8 @@ public class SectorBalancer {
                     SectorAssignment.AssignmentPriority.MEDIUM,
                     complexity,
                     "Rebalancing from overloaded sector " + overloaded.getSectorId() + 
-                    " to underloaded sector " + underloaded.getSectorId()
+                    " to underloaded sector " + underloaded.getSectorId(),
+                    clock.nanos()
                 );
                 
                 assignments.add(assignment);
@@ -1,5 +1,7 @@
 package com.w1k5.atc.engine.domain.sector;
 
+import com.w1k5.atc.engine.domain.time.DomainClock;
+
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Objects;
@@ -14,15 +16,21 @@ public class SectorWorkload {
     private final double maxComplexityScore;
     private final List<String> currentAircraftIds;
     private double currentComplexityScore;
-    private long lastUpdateTime;
+    private final DomainClock clock;
+    private long lastUpdateNanos;
 
     public SectorWorkload(int sectorId, int maxAircraftCapacity, double maxComplexityScore) {
+        this(sectorId, maxAircraftCapacity, maxComplexityScore, DomainClock.SYSTEM);
+    }
+
+    public SectorWorkload(int sectorId, int maxAircraftCapacity, double maxComplexityScore, DomainClock clock) {
         this.sectorId = sectorId;
         this.maxAircraftCapacity = maxAircraftCapacity;
         this.maxComplexityScore = maxComplexityScore;
         this.currentAircraftIds = new ArrayList<>();
         this.currentComplexityScore = 0.0;
-        this.lastUpdateTime = System.currentTimeMillis();
+        this.clock = Objects.requireNonNull(clock, "Clock cannot be null");
+        this.lastUpdateNanos = clock.nanos();
     }
 
     // Getters
@@ -31,7 +39,7 @@ public class SectorWorkload {
     public double getMaxComplexityScore() { return maxComplexityScore; }
     public List<String> getCurrentAircraftIds() { return new ArrayList<>(currentAircraftIds); }
     public double getCurrentComplexityScore() { return currentComplexityScore; }
-    public long getLastUpdateTime() { return lastUpdateTime; }
+    public long getLastUpdateNanos() { return lastUpdateNanos; }
 
     /**
      * Get current aircraft count.
@@ -84,7 +92,7 @@ public class SectorWorkload {
         if (!currentAircraftIds.contains(aircraftId)) {
             currentAircraftIds.add(aircraftId);
             currentComplexityScore += complexityContribution;
-            lastUpdateTime = System.currentTimeMillis();
+            lastUpdateNanos = clock.nanos();
         }
     }
 
@@ -94,7 +102,7 @@ public class SectorWorkload {
     public void removeAircraft(String aircraftId, double complexityContribution) {
         if (currentAircraftIds.remove(aircraftId)) {
             currentComplexityScore = Math.max(0.0, currentComplexityScore - complexityContribution);
-            lastUpdateTime = System.currentTimeMillis();
+            lastUpdateNanos = clock.nanos();
         }
     }
 
@@ -104,7 +112,7 @@ public class SectorWorkload {
     public void updateAircraftComplexity(String aircraftId, double oldComplexity, double newComplexity) {
         if (currentAircraftIds.contains(aircraftId)) {
             currentComplexityScore = currentComplexityScore - oldComplexity + newComplexity;
-            lastUpdateTime = System.currentTimeMillis();
+            lastUpdateNanos = clock.nanos();
         }
     }
 
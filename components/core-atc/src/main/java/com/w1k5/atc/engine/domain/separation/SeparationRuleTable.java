@@ -0,0 +1,156 @@
+package com.w1k5.atc.engine.domain.separation;
+
+import com.w1k5.atc.engine.domain.constraints.AircraftPerformance;
+import com.w1k5.atc.engine.domain.spatial.FixedPointGeometry;
+import org.agrona.collections.Int2IntHashMap;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Separation minima compiled into lookup tables for the detection hot loop.
+ * Each airspace gets a wake category matrix of squared horizontal minima and
+ * vertical minima in centimeters; airspaces without an override use the default
+ * minima. A flight maps to a rule (airspace, wake category) once, when it is
+ * indexed, and a pair then costs one table lookup and two integer compares.
+ * Tables are immutable: a configuration change compiles a new table and swaps
+ * the reference, so readers never see a half-built table.
+ */
+public final class SeparationRuleTable {
+    private static final AircraftPerformance.WakeTurbulenceCategory[] CATEGORIES =
+            AircraftPerformance.WakeTurbulenceCategory.values();
+    public static final int CATEGORY_COUNT = CATEGORIES.length;
+
+    private static final int DEFAULT_SLOT = 0;
+
+    private final SeparationMinima defaultMinima;
+    private final Map<Integer, SeparationMinima> airspaceMinima;
+    private final Int2IntHashMap airspaceSlots;
+    private final int ruleCount;
+
+    // Indexed by rule1 * ruleCount + rule2, in (square) centimeters
+    private final long[] horizontalMinima;
+    private final long[] horizontalMinimaSquared;
+    private final long[] verticalMinima;
+    private final long maxHorizontalMinima;
+
+    private SeparationRuleTable(SeparationMinima defaultMinima, Map<Integer, SeparationMinima> airspaceMinima) {
+        this.defaultMinima = defaultMinima;
+        this.airspaceMinima = airspaceMinima;
+        this.airspaceSlots = new Int2IntHashMap(DEFAULT_SLOT);
+
+        SeparationMinima[] slotMinima = new SeparationMinima[airspaceMinima.size() + 1];
+        slotMinima[DEFAULT_SLOT] = defaultMinima;
+        int slot = DEFAULT_SLOT + 1;
+        for (Map.Entry<Integer, SeparationMinima> entry : airspaceMinima.entrySet()) {
+            airspaceSlots.put(entry.getKey().intValue(), slot);
+            slotMinima[slot++] = entry.getValue();
+        }
+
+        // One wake matrix per airspace
+        long[][] slotHorizontal = new long[slotMinima.length][CATEGORY_COUNT * CATEGORY_COUNT];
+        long[][] slotVertical = new long[slotMinima.length][CATEGORY_COUNT * CATEGORY_COUNT];
+        for (int s = 0; s < slotMinima.length; s++) {
+            for (int a = 0; a < CATEGORY_COUNT; a++) {
+                for (int b = 0; b < CATEGORY_COUNT; b++) {
+                    slotHorizontal[s][a * CATEGORY_COUNT + b] = FixedPointGeometry.nauticalMilesToCentimeters(pairHorizontalMinima(slotMinima[s], Math.max(a, b)));
+                    slotVertical[s][a * CATEGORY_COUNT + b] = FixedPointGeometry.feetToCentimeters(slotMinima[s].getVerticalMinima());
+                }
+            }
+        }
+
+        // Pairs straddling two airspaces take the stricter of both matrices
+        this.ruleCount = slotMinima.length * CATEGORY_COUNT;
+        this.horizontalMinima = new long[ruleCount * ruleCount];
+        this.horizontalMinimaSquared = new long[ruleCount * ruleCount];
+        this.verticalMinima = new long[ruleCount * ruleCount];
+        long max = 0;
+        for (int rule1 = 0; rule1 < ruleCount; rule1++) {
+            for (int rule2 = 0; rule2 < ruleCount; rule2++) {
+                int slot1 = rule1 / CATEGORY_COUNT;
+                int slot2 = rule2 / CATEGORY_COUNT;
+                int wakes = (rule1 % CATEGORY_COUNT) * CATEGORY_COUNT + rule2 % CATEGORY_COUNT;
+                int pair = rule1 * ruleCount + rule2;
+                horizontalMinima[pair] = Math.max(slotHorizontal[slot1][wakes], slotHorizontal[slot2][wakes]);
+                horizontalMinimaSquared[pair] = horizontalMinima[pair] * horizontalMinima[pair];
+                verticalMinima[pair] = Math.max(slotVertical[slot1][wakes], slotVertical[slot2][wakes]);
+                max = Math.max(max, horizontalMinima[pair]);
+            }
+        }
+        this.maxHorizontalMinima = max;
+    }
+
+    /**
+     * Compile a table that applies the default minima everywhere.
+     */
+    public static SeparationRuleTable compile(SeparationMinima defaultMinima) {
+        return compile(defaultMinima, Map.of());
+    }
+
+    /**
+     * Compile a table with per-airspace overrides, e.g.
+     * {@link SeparationMinima#createReduced()} for reduced separation zones.
+     * Airspaces are identified by sector ID.
+     */
+    public static SeparationRuleTable compile(SeparationMinima defaultMinima, Map<Integer, SeparationMinima> airspaceMinima) {
+        Objects.requireNonNull(defaultMinima, "Default separation minima cannot be null");
+        Objects.requireNonNull(airspaceMinima, "Airspace separation minima cannot be null");
+        Map<Integer, SeparationMinima> overrides = new TreeMap<>();
+        for (Map.Entry<Integer, SeparationMinima> entry : airspaceMinima.entrySet()) {
+            overrides.put(entry.getKey(), Objects.requireNonNull(entry.getValue(), "Separation minima cannot be null"));
+        }
+        return new SeparationRuleTable(defaultMinima, overrides);
+    }
+
+    /**
+     * Horizontal minima in nautical miles for a pair whose higher wake category
+     * is {@code category}. Wake minima only apply behind MEDIUM and heavier
+     * aircraft; light pairs are separated by the airspace's radar minima alone.
+     */
+    private static double pairHorizontalMinima(SeparationMinima minima, int category) {
+        AircraftPerformance.WakeTurbulenceCategory wake = CATEGORIES[category];
+        if (wake == AircraftPerformance.WakeTurbulenceCategory.LIGHT) {
+            return minima.getHorizontalMinima();
+        }
+        return Math.max(minima.getHorizontalMinima(), SeparationMinima.getWakeSeparationDistance(wake));
+    }
+
+    // Getters
+    public SeparationMinima getDefaultMinima() { return defaultMinima; }
+    public Map<Integer, SeparationMinima> getAirspaceMinima() { return Collections.unmodifiableMap(airspaceMinima); }
+    public int getRuleCount() { return ruleCount; }
+    public long getMaxHorizontalMinima() { return maxHorizontalMinima; }
+
+    /**
+     * Get the rule for a flight in an airspace with a wake category ordinal.
+     */
+    public int ruleOf(int airspaceId, int wakeCategory) {
+        return airspaceSlots.get(airspaceId) * CATEGORY_COUNT + wakeCategory;
+    }
+
+    /**
+     * Get the table index for a pair of rules.
+     */
+    public int pairIndex(int rule1, int rule2) {
+        return rule1 * ruleCount + rule2;
+    }
+
+    // Per-pair accessors, in (square) centimeters
+    public long getHorizontalMinima(int pairIndex) { return horizontalMinima[pairIndex]; }
+    public long getHorizontalMinimaSquared(int pairIndex) { return horizontalMinimaSquared[pairIndex]; }
+    public long getVerticalMinima(int pairIndex) { return verticalMinima[pairIndex]; }
+
+    /**
+     * Backing tables for detection kernels, indexed by {@link #pairIndex}.
+     * Callers must not modify them.
+     */
+    public long[] horizontalMinimaSquaredTable() { return horizontalMinimaSquared; }
+    public long[] verticalMinimaTable() { return verticalMinima; }
+
+    @Override
+    public String toString() {
+        return String.format("SeparationRuleTable{default=%s, airspaces=%s}", defaultMinima, airspaceMinima.keySet());
+    }
+}
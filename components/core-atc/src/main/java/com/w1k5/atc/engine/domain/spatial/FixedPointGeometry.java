@@ -0,0 +1,102 @@
+package com.w1k5.atc.engine.domain.spatial;
+
+/**
+ * Distance kernel for fixed-point positions in centimeters, shared by every
+ * separation, sector and complexity path. Separation is tested on squared
+ * centimeters against squared minima, so the hot paths never take a square root
+ * or convert to floating point.
+ * Squares are overflow-safe: each axis delta is clamped to {@link #MAX_EXACT_DELTA}
+ * (about 10,700 km) before squaring, so a sum of three squares always fits in a
+ * long. Below the clamp results are exact; beyond it they saturate, which still
+ * orders correctly against any minima. Coordinates are assumed within ±2^62 cm,
+ * so their differences never overflow.
+ */
+public final class FixedPointGeometry {
+    public static final long CENTIMETERS_PER_METER = 100;
+    public static final long CENTIMETERS_PER_NAUTICAL_MILE = 185_200;
+    public static final double CENTIMETERS_PER_FOOT = 30.48;
+
+    /**
+     * Largest axis delta squared exactly, in centimeters.
+     */
+    public static final long MAX_EXACT_DELTA = 1L << 30;
+
+    private FixedPointGeometry() {
+    }
+
+    /**
+     * Convert a distance in nautical miles to whole centimeters.
+     */
+    public static long nauticalMilesToCentimeters(double nauticalMiles) {
+        return Math.round(nauticalMiles * CENTIMETERS_PER_NAUTICAL_MILE);
+    }
+
+    /**
+     * Convert a height in feet to whole centimeters.
+     */
+    public static long feetToCentimeters(double feet) {
+        return Math.round(feet * CENTIMETERS_PER_FOOT);
+    }
+
+    /**
+     * Squared horizontal distance in square centimeters, saturating beyond
+     * {@link #MAX_EXACT_DELTA} per axis.
+     */
+    public static long horizontalDistanceSquared(long deltaX, long deltaY) {
+        long x = clamp(deltaX);
+        long y = clamp(deltaY);
+        return x * x + y * y;
+    }
+
+    /**
+     * Squared 3D distance in square centimeters, saturating beyond
+     * {@link #MAX_EXACT_DELTA} per axis.
+     */
+    public static long distanceSquared(long deltaX, long deltaY, long deltaAltitude) {
+        long x = clamp(deltaX);
+        long y = clamp(deltaY);
+        long altitude = clamp(deltaAltitude);
+        return x * x + y * y + altitude * altitude;
+    }
+
+    /**
+     * Check whether a pair is inside its separation minima: strictly closer than the
+     * horizontal minima and strictly closer than the vertical minima.
+     *
+     * @param horizontalMinimaSquared squared horizontal minima in square centimeters
+     * @param verticalMinima vertical minima in centimeters
+     */
+    public static boolean isWithin(long deltaX, long deltaY, long deltaAltitude,
+                                   long horizontalMinimaSquared, long verticalMinima) {
+        return horizontalDistanceSquared(deltaX, deltaY) < horizontalMinimaSquared
+            && Math.abs(deltaAltitude) < verticalMinima;
+    }
+
+    /**
+     * Horizontal distance in centimeters. Exact up to double rounding at any range.
+     */
+    public static double horizontalDistance(long deltaX, long deltaY) {
+        if (isExact(deltaX) && isExact(deltaY)) {
+            return Math.sqrt(horizontalDistanceSquared(deltaX, deltaY));
+        }
+        return Math.hypot(deltaX, deltaY);
+    }
+
+    /**
+     * 3D distance in centimeters. Exact up to double rounding at any range.
+     */
+    public static double distance(long deltaX, long deltaY, long deltaAltitude) {
+        if (isExact(deltaX) && isExact(deltaY) && isExact(deltaAltitude)) {
+            return Math.sqrt(distanceSquared(deltaX, deltaY, deltaAltitude));
+        }
+        return Math.hypot(Math.hypot(deltaX, deltaY), deltaAltitude);
+    }
+
+    private static long clamp(long delta) {
+        return Math.min(Math.abs(delta), MAX_EXACT_DELTA);
+    }
+
+    private static boolean isExact(long delta) {
+        return Math.abs(delta) < MAX_EXACT_DELTA;
+    }
+}
@@ -0,0 +1,152 @@
+package com.w1k5.atc.engine.domain.spatial;
+
+import java.util.Arrays;
+
+/**
+ * Static interval tree over int IDs, for "which intervals overlap this window" queries.
+ * The tree is implicit: intervals are sorted by start and each segment's midpoint is a
+ * node carrying the largest end in its subtree, so a query skips every subtree that
+ * ends before the window or starts after it. Building is O(n log n) and allocates
+ * nothing once the arrays have grown; queries are O(log n + k). Query results are
+ * held by the tree and read with {@link #result(int)} until the next query.
+ */
+public class IntervalTree {
+    private int[] ids;
+    private double[] starts;
+    private double[] ends;
+    private double[] maxEnds;
+    private int size;
+
+    private int[] results;
+    private int resultCount;
+
+    public IntervalTree() {
+        this.ids = new int[64];
+        this.starts = new double[64];
+        this.ends = new double[64];
+        this.maxEnds = new double[64];
+        this.results = new int[16];
+    }
+
+    /**
+     * Get the number of intervals in the tree.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Rebuild the tree over IDs [0, count), where ID {@code i} spans [start[i], end[i]].
+     */
+    public void build(double[] start, double[] end, int count) {
+        if (ids.length < count) {
+            int capacity = Math.max(count, ids.length * 2);
+            ids = new int[capacity];
+            starts = new double[capacity];
+            ends = new double[capacity];
+            maxEnds = new double[capacity];
+        }
+        for (int i = 0; i < count; i++) {
+            ids[i] = i;
+            starts[i] = start[i];
+            ends[i] = end[i];
+        }
+        size = count;
+        sortByStart(count);
+        computeMaxEnds(0, count);
+    }
+
+    /**
+     * Find every interval overlapping the closed window [from, to], in ascending
+     * start order. Returns the number of results.
+     */
+    public int overlapping(double from, double to) {
+        resultCount = 0;
+        if (from <= to) {
+            search(0, size, from, to);
+        }
+        return resultCount;
+    }
+
+    /**
+     * Get an ID from the last query's results.
+     */
+    public int result(int index) {
+        if (index < 0 || index >= resultCount) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return results[index];
+    }
+
+    private void search(int lo, int hi, double from, double to) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (maxEnds[mid] < from) {
+                return; // Everything below ends before the window
+            }
+            search(lo, mid, from, to);
+            if (starts[mid] > to) {
+                return; // This node and everything to its right start after the window
+            }
+            if (ends[mid] >= from) {
+                if (resultCount == results.length) {
+                    results = Arrays.copyOf(results, resultCount * 2);
+                }
+                results[resultCount++] = ids[mid];
+            }
+            lo = mid + 1;
+        }
+    }
+
+    private double computeMaxEnds(int lo, int hi) {
+        if (lo >= hi) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        int mid = (lo + hi) >>> 1;
+        double max = Math.max(ends[mid], Math.max(computeMaxEnds(lo, mid), computeMaxEnds(mid + 1, hi)));
+        maxEnds[mid] = max;
+        return max;
+    }
+
+    // In-place heapsort by (start, id), so builds are deterministic and allocation-free
+
+    private void sortByStart(int count) {
+        for (int i = count / 2 - 1; i >= 0; i--) {
+            siftDown(i, count);
+        }
+        for (int end = count - 1; end > 0; end--) {
+            swap(0, end);
+            siftDown(0, end);
+        }
+    }
+
+    private void siftDown(int root, int count) {
+        int child;
+        while ((child = 2 * root + 1) < count) {
+            if (child + 1 < count && after(child + 1, child)) {
+                child++;
+            }
+            if (!after(child, root)) {
+                return;
+            }
+            swap(root, child);
+            root = child;
+        }
+    }
+
+    private boolean after(int i, int j) {
+        return starts[i] > starts[j] || (starts[i] == starts[j] && ids[i] > ids[j]);
+    }
+
+    private void swap(int i, int j) {
+        int id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+        double start = starts[i];
+        starts[i] = starts[j];
+        starts[j] = start;
+        double end = ends[i];
+        ends[i] = ends[j];
+        ends[j] = end;
+    }
+}
@@ -0,0 +1,278 @@
+package com.w1k5.atc.engine.domain.spatial;
+
+import java.util.Arrays;
+
+/**
+ * Static 3D k-d tree over int handles, for nearest-neighbour and radius queries.
+ * The tree is implicit: {@link #build} permutes handles so that each segment's
+ * median, split on x, y and altitude in turn, sits at the segment midpoint, and
+ * copies the coordinates into tree order. Building is O(n log n) and allocates
+ * nothing once the arrays have grown; queries are O(log n + k) on typical traffic.
+ * Distances are Euclidean in the coordinates' own unit (centimeters). Query
+ * results are held by the tree and read with {@link #result(int)} until the next query.
+ */
+public class KdTree {
+    private static final int DIMENSIONS = 3;
+
+    private int[] handles;
+    private long[][] coordinates; // [axis][tree position]
+    private int size;
+
+    // Results of the last query
+    private int[] results;
+    private int resultCount;
+
+    // Bounded max-heap of the best k candidates during a nearest query
+    private double[] heapDistances;
+    private int[] heapHandles;
+    private int heapSize;
+
+    public KdTree() {
+        this.handles = new int[64];
+        this.coordinates = new long[DIMENSIONS][64];
+        this.results = new int[16];
+        this.heapDistances = new double[16];
+        this.heapHandles = new int[16];
+    }
+
+    /**
+     * Get the number of handles in the tree.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Rebuild the tree over handles [0, count) from per-handle coordinate columns.
+     */
+    public void build(long[] x, long[] y, long[] altitude, int count) {
+        if (handles.length < count) {
+            int capacity = Math.max(count, handles.length * 2);
+            handles = new int[capacity];
+            coordinates = new long[DIMENSIONS][capacity];
+        }
+        for (int i = 0; i < count; i++) {
+            handles[i] = i;
+            coordinates[0][i] = x[i];
+            coordinates[1][i] = y[i];
+            coordinates[2][i] = altitude[i];
+        }
+        size = count;
+        build(0, count, 0);
+    }
+
+    private void build(int lo, int hi, int axis) {
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            select(lo, hi - 1, mid, axis);
+            int next = (axis + 1) % DIMENSIONS;
+            build(lo, mid, next);
+            lo = mid + 1;
+            axis = next;
+        }
+    }
+
+    /**
+     * Find the {@code k} handles nearest to a point, nearest first, ties broken
+     * by handle. A handle equal to {@code excluded} is skipped.
+     * Returns the number of results.
+     */
+    public int nearest(long x, long y, long altitude, int k, int excluded) {
+        resultCount = 0;
+        if (k <= 0 || size == 0) {
+            return 0;
+        }
+        if (heapHandles.length < k) {
+            heapHandles = new int[k];
+            heapDistances = new double[k];
+        }
+        heapSize = 0;
+        searchNearest(0, size, 0, x, y, altitude, k, excluded);
+
+        // Pop the max-heap from the back so results are nearest first
+        resultCount = heapSize;
+        ensureResultCapacity(resultCount);
+        for (int i = resultCount - 1; i >= 0; i--) {
+            results[i] = heapHandles[0];
+            popHeap();
+        }
+        return resultCount;
+    }
+
+    /**
+     * Find every handle strictly within {@code radius} of a point, in ascending
+     * handle order. Returns the number of results.
+     */
+    public int withinRadius(long x, long y, long altitude, long radius) {
+        resultCount = 0;
+        if (size > 0 && radius > 0) {
+            searchRadius(0, size, 0, x, y, altitude, radius, (double) radius * radius);
+            Arrays.sort(results, 0, resultCount);
+        }
+        return resultCount;
+    }
+
+    /**
+     * Get a handle from the last query's results.
+     */
+    public int result(int index) {
+        if (index < 0 || index >= resultCount) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return results[index];
+    }
+
+    private void searchNearest(int lo, int hi, int axis, long x, long y, long altitude, int k, int excluded) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (handles[mid] != excluded) {
+            offer(distanceSquared(mid, x, y, altitude), handles[mid], k);
+        }
+
+        double delta = (double) coordinate(axis, x, y, altitude) - coordinates[axis][mid];
+        int next = (axis + 1) % DIMENSIONS;
+        if (delta < 0) {
+            searchNearest(lo, mid, next, x, y, altitude, k, excluded);
+            if (heapSize < k || delta * delta <= heapDistances[0]) {
+                searchNearest(mid + 1, hi, next, x, y, altitude, k, excluded);
+            }
+        } else {
+            searchNearest(mid + 1, hi, next, x, y, altitude, k, excluded);
+            if (heapSize < k || delta * delta <= heapDistances[0]) {
+                searchNearest(lo, mid, next, x, y, altitude, k, excluded);
+            }
+        }
+    }
+
+    private void searchRadius(int lo, int hi, int axis, long x, long y, long altitude,
+                              long radius, double radiusSquared) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (distanceSquared(mid, x, y, altitude) < radiusSquared) {
+            ensureResultCapacity(resultCount + 1);
+            results[resultCount++] = handles[mid];
+        }
+
+        // Left holds coordinates <= the split and right holds coordinates >= it
+        double delta = (double) coordinate(axis, x, y, altitude) - coordinates[axis][mid];
+        int next = (axis + 1) % DIMENSIONS;
+        if (delta < radius) {
+            searchRadius(lo, mid, next, x, y, altitude, radius, radiusSquared);
+        }
+        if (delta > -radius) {
+            searchRadius(mid + 1, hi, next, x, y, altitude, radius, radiusSquared);
+        }
+    }
+
+    private void ensureResultCapacity(int required) {
+        if (required > results.length) {
+            results = Arrays.copyOf(results, Math.max(required, results.length * 2));
+        }
+    }
+
+    private double distanceSquared(int position, long x, long y, long altitude) {
+        double deltaX = (double) x - coordinates[0][position];
+        double deltaY = (double) y - coordinates[1][position];
+        double deltaAltitude = (double) altitude - coordinates[2][position];
+        return deltaX * deltaX + deltaY * deltaY + deltaAltitude * deltaAltitude;
+    }
+
+    private static long coordinate(int axis, long x, long y, long altitude) {
+        return axis == 0 ? x : axis == 1 ? y : altitude;
+    }
+
+    // Max-heap ordered by (distance, handle), so the worst candidate is at the root
+
+    private boolean worse(double distance1, int handle1, double distance2, int handle2) {
+        return distance1 > distance2 || (distance1 == distance2 && handle1 > handle2);
+    }
+
+    private void offer(double distance, int handle, int k) {
+        if (heapSize < k) {
+            int child = heapSize++;
+            while (child > 0) {
+                int parent = (child - 1) >>> 1;
+                if (!worse(distance, handle, heapDistances[parent], heapHandles[parent])) {
+                    break;
+                }
+                heapDistances[child] = heapDistances[parent];
+                heapHandles[child] = heapHandles[parent];
+                child = parent;
+            }
+            heapDistances[child] = distance;
+            heapHandles[child] = handle;
+        } else if (worse(heapDistances[0], heapHandles[0], distance, handle)) {
+            siftDown(distance, handle);
+        }
+    }
+
+    private void popHeap() {
+        heapSize--;
+        if (heapSize > 0) {
+            siftDown(heapDistances[heapSize], heapHandles[heapSize]);
+        }
+    }
+
+    private void siftDown(double distance, int handle) {
+        int parent = 0;
+        int child;
+        while ((child = 2 * parent + 1) < heapSize) {
+            if (child + 1 < heapSize && worse(heapDistances[child + 1], heapHandles[child + 1],
+                    heapDistances[child], heapHandles[child])) {
+                child++;
+            }
+            if (!worse(heapDistances[child], heapHandles[child], distance, handle)) {
+                break;
+            }
+            heapDistances[parent] = heapDistances[child];
+            heapHandles[parent] = heapHandles[child];
+            parent = child;
+        }
+        heapDistances[parent] = distance;
+        heapHandles[parent] = handle;
+    }
+
+    // Three-way quickselect on tree positions [left, right], so that position nth
+    // holds the median on the axis even when many flights share a coordinate
+
+    private void select(int left, int right, int nth, int axis) {
+        long[] keys = coordinates[axis];
+        while (right > left) {
+            long pivot = keys[(left + right) >>> 1];
+            int less = left;
+            int greater = right;
+            int i = left;
+            while (i <= greater) {
+                if (keys[i] < pivot) {
+                    swap(i++, less++);
+                } else if (keys[i] > pivot) {
+                    swap(i, greater--);
+                } else {
+                    i++;
+                }
+            }
+            if (nth < less) {
+                right = less - 1;
+            } else if (nth > greater) {
+                left = greater + 1;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        int handle = handles[i];
+        handles[i] = handles[j];
+        handles[j] = handle;
+        for (long[] axisCoordinates : coordinates) {
+            long value = axisCoordinates[i];
+            axisCoordinates[i] = axisCoordinates[j];
+            axisCoordinates[j] = value;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.w1k5.atc.engine.domain.spatial;
+
+import org.agrona.collections.Int2ObjectHashMap;
+
+import java.util.Arrays;
+
+/**
+ * Membership index from sector ID to the int handles of the flights in it.
+ * Each sector keeps a dense handle array and each handle remembers its slot,
+ * so adding, removing or moving a flight is O(1) and a sector's members can be
+ * read without touching flights in other sectors.
+ */
+public class SectorIndex {
+    private static final int NONE = -1;
+
+    private final Int2ObjectHashMap<Members> sectors;
+
+    // Per-handle sector and slot within that sector's member array
+    private int[] handleSector;
+    private int[] handleSlot;
+
+    public SectorIndex() {
+        this.sectors = new Int2ObjectHashMap<>();
+        this.handleSector = new int[64];
+        this.handleSlot = new int[64];
+        Arrays.fill(handleSlot, NONE);
+    }
+
+    /**
+     * Place a handle in a sector, moving it out of its previous sector if needed.
+     */
+    public void put(int handle, int sectorId) {
+        ensureCapacity(handle + 1);
+        if (handleSlot[handle] != NONE) {
+            if (handleSector[handle] == sectorId) {
+                return;
+            }
+            remove(handle);
+        }
+
+        Members members = sectors.get(sectorId);
+        if (members == null) {
+            members = new Members();
+            sectors.put(sectorId, members);
+        }
+        handleSector[handle] = sectorId;
+        handleSlot[handle] = members.size;
+        members.add(handle);
+    }
+
+    /**
+     * Remove a handle from its sector, if indexed.
+     */
+    public void remove(int handle) {
+        if (handle >= handleSlot.length || handleSlot[handle] == NONE) {
+            return;
+        }
+
+        Members members = sectors.get(handleSector[handle]);
+        int slot = handleSlot[handle];
+        int last = members.handles[--members.size];
+        members.handles[slot] = last;
+        handleSlot[last] = slot;
+        handleSlot[handle] = NONE;
+    }
+
+    /**
+     * Re-key an indexed handle, e.g. after the flight store swapped its last
+     * record into a freed slot. {@code to} must not be indexed.
+     */
+    public void move(int from, int to) {
+        if (from >= handleSlot.length || handleSlot[from] == NONE) {
+            return;
+        }
+
+        ensureCapacity(to + 1);
+        Members members = sectors.get(handleSector[from]);
+        members.handles[handleSlot[from]] = to;
+        handleSector[to] = handleSector[from];
+        handleSlot[to] = handleSlot[from];
+        handleSlot[from] = NONE;
+    }
+
+    /**
+     * Get the number of handles in a sector.
+     */
+    public int size(int sectorId) {
+        Members members = sectors.get(sectorId);
+        return members == null ? 0 : members.size;
+    }
+
+    /**
+     * Copy a sector's handles into {@code target}, growing it if needed, and
+     * return the array holding them. Order is unspecified.
+     */
+    public int[] copyMembers(int sectorId, int[] target) {
+        Members members = sectors.get(sectorId);
+        if (members == null) {
+            return target;
+        }
+        if (target.length < members.size) {
+            target = new int[Math.max(members.size, target.length * 2)];
+        }
+        System.arraycopy(members.handles, 0, target, 0, members.size);
+        return target;
+    }
+
+    /**
+     * Remove every handle, keeping the per-sector arrays for reuse.
+     */
+    public void clear() {
+        for (Members members : sectors.values()) {
+            members.size = 0;
+        }
+        Arrays.fill(handleSlot, NONE);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= handleSlot.length) {
+            return;
+        }
+        int capacity = Math.max(required, handleSlot.length * 2);
+        int previous = handleSlot.length;
+        handleSector = Arrays.copyOf(handleSector, capacity);
+        handleSlot = Arrays.copyOf(handleSlot, capacity);
+        Arrays.fill(handleSlot, previous, capacity, NONE);
+    }
+
+    private static final class Members {
+        int[] handles = new int[16];
+        int size;
+
+        void add(int handle) {
+            if (size == handles.length) {
+                handles = Arrays.copyOf(handles, size * 2);
+            }
+            handles[size++] = handle;
+        }
+    }
+}
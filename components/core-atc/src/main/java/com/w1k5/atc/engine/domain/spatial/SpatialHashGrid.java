@@ -0,0 +1,232 @@
+package com.w1k5.atc.engine.domain.spatial;
+
+import java.util.Arrays;
+
+/**
+ * Uniform-grid spatial hash used as the broadphase for pairwise detection.
+ * Entries are int handles bucketed by horizontal cell; each cell is a singly linked
+ * list held in primitive arrays, so rebuilding the grid every cycle allocates nothing
+ * once the arrays have grown to the traffic level. Entries can also be moved
+ * individually, which keeps a long-lived grid current between full rebuilds; a cell
+ * emptied by a removal leaves the table at once, so the table and its probe chains
+ * stay sized to the occupied cells however long the grid lives.
+ */
+public class SpatialHashGrid {
+    private static final int EMPTY = -1;
+    private static final long EMPTY_KEY = Long.MIN_VALUE;
+    private static final int MIN_CELL = Integer.MIN_VALUE / 2;
+    private static final int MAX_CELL = Integer.MAX_VALUE / 2;
+
+    private final long cellSize; // centimeters
+
+    // Open-addressed cell table: packed cell key -> head node
+    private long[] cellKeys;
+    private int[] cellHeads;
+    private int cellMask;
+    private int cellCount;
+
+    // Node pool: one node per (entry, cell) insertion
+    private int[] nodeEntries;
+    private int[] nodeNext;
+    private int nodeCount;
+    private int freeNode;
+
+    public SpatialHashGrid(long cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        this.cellSize = cellSize;
+        this.cellKeys = new long[64];
+        this.cellHeads = new int[64];
+        this.cellMask = 63;
+        this.nodeEntries = new int[64];
+        this.nodeNext = new int[64];
+        this.freeNode = EMPTY;
+        Arrays.fill(cellKeys, EMPTY_KEY);
+    }
+
+    public long getCellSize() { return cellSize; }
+
+    /**
+     * Get the number of occupied cells.
+     */
+    public int getCellCount() { return cellCount; }
+
+    /**
+     * Remove all entries, sizing the tables for the expected number of insertions.
+     */
+    public void clear(int expectedEntries) {
+        int required = Integer.highestOneBit(Math.max(32, expectedEntries) * 2 - 1) << 1;
+        if (required > cellKeys.length) {
+            cellKeys = new long[required];
+            cellHeads = new int[required];
+            cellMask = required - 1;
+        }
+        Arrays.fill(cellKeys, EMPTY_KEY);
+        cellCount = 0;
+        nodeCount = 0;
+        freeNode = EMPTY;
+    }
+
+    /**
+     * Get the cell coordinate containing a position in centimeters.
+     */
+    public int cellOf(long position) {
+        long cell = Math.floorDiv(position, cellSize);
+        // Clamp so neighbour offsets and the packed key never wrap
+        return (int) Math.max(MIN_CELL, Math.min(MAX_CELL, cell));
+    }
+
+    /**
+     * Insert an entry at a horizontal position in centimeters.
+     */
+    public void insert(int entry, long x, long y) {
+        insertIntoCell(entry, cellOf(x), cellOf(y));
+    }
+
+    /**
+     * Insert an entry into a specific cell.
+     */
+    public void insertIntoCell(int entry, int cellX, int cellY) {
+        if ((cellCount + 1) * 2 > cellKeys.length) {
+            growCells();
+        }
+
+        long key = packCell(cellX, cellY);
+        int slot = findSlot(key);
+        int node = allocateNode();
+        nodeEntries[node] = entry;
+        if (cellKeys[slot] == EMPTY_KEY) {
+            cellKeys[slot] = key;
+            cellCount++;
+            nodeNext[node] = EMPTY;
+        } else {
+            nodeNext[node] = cellHeads[slot];
+        }
+        cellHeads[slot] = node;
+    }
+
+    /**
+     * Remove an entry previously inserted at a horizontal position in centimeters.
+     * Returns false if the entry was not found in that cell.
+     */
+    public boolean remove(int entry, long x, long y) {
+        return removeFromCell(entry, cellOf(x), cellOf(y));
+    }
+
+    /**
+     * Remove an entry from a specific cell. A cell left empty is deleted from the table.
+     */
+    public boolean removeFromCell(int entry, int cellX, int cellY) {
+        int slot = findSlot(packCell(cellX, cellY));
+        if (cellKeys[slot] == EMPTY_KEY) {
+            return false;
+        }
+
+        int previous = EMPTY;
+        for (int node = cellHeads[slot]; node != EMPTY; node = nodeNext[node]) {
+            if (nodeEntries[node] == entry) {
+                if (previous == EMPTY) {
+                    cellHeads[slot] = nodeNext[node];
+                } else {
+                    nodeNext[previous] = nodeNext[node];
+                }
+                nodeNext[node] = freeNode;
+                freeNode = node;
+                if (cellHeads[slot] == EMPTY) {
+                    deleteSlot(slot);
+                }
+                return true;
+            }
+            previous = node;
+        }
+        return false;
+    }
+
+    /**
+     * Get the first node in a cell, or -1 if the cell is empty.
+     */
+    public int firstNode(int cellX, int cellY) {
+        int slot = findSlot(packCell(cellX, cellY));
+        return cellKeys[slot] == EMPTY_KEY ? EMPTY : cellHeads[slot];
+    }
+
+    /**
+     * Get the node following the given node in the same cell, or -1.
+     */
+    public int nextNode(int node) {
+        return nodeNext[node];
+    }
+
+    /**
+     * Get the entry held by a node.
+     */
+    public int entryOf(int node) {
+        return nodeEntries[node];
+    }
+
+    private int allocateNode() {
+        if (freeNode != EMPTY) {
+            int node = freeNode;
+            freeNode = nodeNext[node];
+            return node;
+        }
+        if (nodeCount == nodeEntries.length) {
+            nodeEntries = Arrays.copyOf(nodeEntries, nodeCount * 2);
+            nodeNext = Arrays.copyOf(nodeNext, nodeCount * 2);
+        }
+        return nodeCount++;
+    }
+
+    private int findSlot(long key) {
+        int slot = (int) (mix(key) & cellMask);
+        while (cellKeys[slot] != EMPTY_KEY && cellKeys[slot] != key) {
+            slot = (slot + 1) & cellMask;
+        }
+        return slot;
+    }
+
+    /**
+     * Delete a cell by backward shifting: later keys of the probe run move up into
+     * the gap when it lies between their home slot and their current one, so every
+     * remaining key stays reachable without tombstones.
+     */
+    private void deleteSlot(int slot) {
+        int gap = slot;
+        for (int next = (gap + 1) & cellMask; cellKeys[next] != EMPTY_KEY; next = (next + 1) & cellMask) {
+            int home = (int) (mix(cellKeys[next]) & cellMask);
+            if (((next - home) & cellMask) >= ((next - gap) & cellMask)) {
+                cellKeys[gap] = cellKeys[next];
+                cellHeads[gap] = cellHeads[next];
+                gap = next;
+            }
+        }
+        cellKeys[gap] = EMPTY_KEY;
+        cellCount--;
+    }
+
+    private void growCells() {
+        long[] oldKeys = cellKeys;
+        int[] oldHeads = cellHeads;
+        cellKeys = new long[oldKeys.length * 2];
+        cellHeads = new int[oldKeys.length * 2];
+        cellMask = cellKeys.length - 1;
+        Arrays.fill(cellKeys, EMPTY_KEY);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY_KEY) {
+                int slot = findSlot(oldKeys[i]);
+                cellKeys[slot] = oldKeys[i];
+                cellHeads[slot] = oldHeads[i];
+            }
+        }
+    }
+
+    private static long packCell(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+}
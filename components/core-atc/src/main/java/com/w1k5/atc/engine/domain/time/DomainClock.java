@@ -0,0 +1,20 @@
+package com.w1k5.atc.engine.domain.time;
+
+/**
+ * Source of domain time in nanoseconds. Entities are stamped from a clock rather
+ * than by reading the system clock themselves, so a replica fed cluster time
+ * stamps the same values on replay, after a snapshot restore, and in fast-time
+ * simulation. Reading a clock never allocates.
+ */
+@FunctionalInterface
+public interface DomainClock {
+    /**
+     * Wall-clock time at millisecond resolution, for code running outside a cluster.
+     */
+    DomainClock SYSTEM = () -> System.currentTimeMillis() * 1_000_000L;
+
+    /**
+     * Get the current time in nanoseconds.
+     */
+    long nanos();
+}
@@ -0,0 +1,48 @@
+package com.w1k5.atc.engine.domain.time;
+
+/**
+ * A clock that only moves when it is told to: set from {@code Cluster.time()} and
+ * timer timestamps inside the clustered service, or stepped by a simulation.
+ * Time never goes backwards.
+ */
+public class ManualClock implements DomainClock {
+    private long nanos;
+
+    public ManualClock() {
+        this(0L);
+    }
+
+    public ManualClock(long nanos) {
+        this.nanos = nanos;
+    }
+
+    @Override
+    public long nanos() {
+        return nanos;
+    }
+
+    /**
+     * Move the clock to a time, which must not be before the current one.
+     */
+    public void set(long nanos) {
+        if (nanos < this.nanos) {
+            throw new IllegalArgumentException("Clock cannot go backwards: " + nanos + " < " + this.nanos);
+        }
+        this.nanos = nanos;
+    }
+
+    /**
+     * Move the clock forward by a duration.
+     */
+    public void advance(long deltaNanos) {
+        if (deltaNanos < 0) {
+            throw new IllegalArgumentException("Clock cannot go backwards");
+        }
+        this.nanos += deltaNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ManualClock{" + nanos + "ns}";
+    }
+}
@@ -0,0 +1,281 @@
+package com.w1k5.atc.engine.domain.track;
+
+import com.w1k5.atc.engine.domain.conflict.ConflictDetectionEngine;
+import com.w1k5.atc.engine.domain.entities.Flight;
+import com.w1k5.atc.engine.domain.entities.FlightStore;
+import org.agrona.DeadlineTimerWheel;
+import org.agrona.collections.Long2ObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coast/drop lifecycle of the tracks fed to a {@link ConflictDetectionEngine}, on
+ * cluster time. A track that misses a number of expected updates is coasted: it
+ * stays in detection, flagged as no longer reporting. After more missed updates it
+ * is dropped and removed from the engine, with its grid cell, sector membership,
+ * cached trajectory and live conflicts.
+ * Each track has one timer on a {@link DeadlineTimerWheel}, so scheduling and
+ * expiry are O(1) whatever the number of tracks. Updates only record the time;
+ * the timer is not moved on every report. When it fires, a track that has
+ * reported since is rescheduled from its latest update, so the wheel sees about
+ * one timer operation per coast period per track instead of one per report.
+ * Only tracks fed through this class are tracked.
+ */
+public class TrackLifecycle {
+    public static final long DEFAULT_UPDATE_PERIOD_NANOS = 4_000_000_000L; // one radar scan
+    public static final int DEFAULT_COAST_AFTER_MISSED = 2;
+    public static final int DEFAULT_DROP_AFTER_MISSED = 5;
+
+    private static final long TICK_RESOLUTION_NANOS = 1L << 27; // about 134 ms
+    private static final int TICKS_PER_WHEEL = 512;              // about 69 s per revolution
+
+    private final ConflictDetectionEngine engine;
+    private final long coastAfterNanos;
+    private final long dropAfterNanos;
+    private final Map<String, Track> tracks;
+    private final Long2ObjectHashMap<Track> timers;
+    private final List<Listener> listeners;
+    private final DeadlineTimerWheel.TimerHandler expiryHandler;
+    private DeadlineTimerWheel wheel; // started at the first cluster time seen
+    private int coastingCount;
+    private long droppedCount;
+
+    public enum State {
+        ACTIVE, COASTING
+    }
+
+    /**
+     * Receives lifecycle transitions, e.g. to drop a track from a {@code SectorBalancer}
+     * when it is evicted from the engine.
+     */
+    public interface Listener {
+        default void onCoasting(String flightId, long timeNanos) {}
+        default void onResumed(String flightId, long timeNanos) {}
+        default void onDropped(String flightId, long timeNanos) {}
+    }
+
+    public TrackLifecycle(ConflictDetectionEngine engine) {
+        this(engine, DEFAULT_UPDATE_PERIOD_NANOS, DEFAULT_COAST_AFTER_MISSED, DEFAULT_DROP_AFTER_MISSED);
+    }
+
+    /**
+     * @param updatePeriodNanos expected time between a track's updates
+     * @param coastAfterMissed missed updates after which a track is coasted
+     * @param dropAfterMissed missed updates after which a track is dropped
+     */
+    public TrackLifecycle(ConflictDetectionEngine engine, long updatePeriodNanos, int coastAfterMissed, int dropAfterMissed) {
+        this.engine = Objects.requireNonNull(engine, "Engine cannot be null");
+        if (updatePeriodNanos <= 0) {
+            throw new IllegalArgumentException("Update period must be positive");
+        }
+        if (coastAfterMissed < 1 || dropAfterMissed <= coastAfterMissed) {
+            throw new IllegalArgumentException("Tracks must coast after at least one missed update and drop after coasting");
+        }
+        this.coastAfterNanos = updatePeriodNanos * coastAfterMissed;
+        this.dropAfterNanos = updatePeriodNanos * dropAfterMissed;
+        this.tracks = new HashMap<>();
+        this.timers = new Long2ObjectHashMap<>();
+        this.listeners = new ArrayList<>();
+        this.expiryHandler = this::onTimerExpiry;
+    }
+
+    // Getters
+    public ConflictDetectionEngine getEngine() { return engine; }
+    public long getCoastAfterNanos() { return coastAfterNanos; }
+    public long getDropAfterNanos() { return dropAfterNanos; }
+    public int getTrackCount() { return tracks.size(); }
+    public int getCoastingCount() { return coastingCount; }
+    public long getDroppedCount() { return droppedCount; }
+
+    public void addListener(Listener listener) {
+        listeners.add(Objects.requireNonNull(listener, "Listener cannot be null"));
+    }
+
+    /**
+     * Get a track's state, or null if it is not tracked.
+     */
+    public State getState(String flightId) {
+        Track track = tracks.get(flightId);
+        return track == null ? null : track.state;
+    }
+
+    /**
+     * Apply a track update to the engine, measured at a cluster time.
+     */
+    public void update(Flight flight, long timeNanos) {
+        engine.updateFlight(flight, timeNanos);
+        touch(flight.getFlightId(), timeNanos);
+    }
+
+    /**
+     * Apply a track update to a flight already in the engine, in place by store
+     * handle, and record it at a cluster time.
+     *
+     * @see ConflictDetectionEngine#updateTrack
+     */
+    public void updateTrack(int handle, long positionX, long positionY, long altitude,
+                            long velocityX, long velocityY, long timeNanos) {
+        updateTrack(handle, positionX, positionY, altitude, velocityX, velocityY, 0L, timeNanos);
+    }
+
+    /**
+     * Apply a track update with a measured vertical rate, in place by store handle,
+     * and record it at a cluster time.
+     */
+    public void updateTrack(int handle, long positionX, long positionY, long altitude,
+                            long velocityX, long velocityY, long verticalRate, long timeNanos) {
+        engine.updateTrack(handle, positionX, positionY, altitude, velocityX, velocityY, verticalRate, timeNanos);
+        touch(engine.getFlightStore().getFlightId(handle), timeNanos);
+    }
+
+    /**
+     * Apply a batch of in-place track updates, each recorded at its own cluster time.
+     *
+     * @see ConflictDetectionEngine#updateTracks
+     */
+    public void updateTracks(int count, int[] handles, long[] positionX, long[] positionY, long[] altitude,
+                             long[] velocityX, long[] velocityY, long[] verticalRate, long[] timeNanos) {
+        engine.updateTracks(count, handles, positionX, positionY, altitude, velocityX, velocityY, verticalRate, timeNanos);
+        FlightStore store = engine.getFlightStore();
+        for (int i = 0; i < count; i++) {
+            touch(store.getFlightId(handles[i]), timeNanos[i]);
+        }
+    }
+
+    /**
+     * Apply a scan of track updates to the engine in one batch, measured at a cluster time.
+     *
+     * @see ConflictDetectionEngine#updateFlights
+     */
+    public void updateAll(Collection<Flight> batch, long timeNanos) {
+        engine.updateFlights(batch, timeNanos);
+        for (Flight flight : batch) {
+            touch(flight.getFlightId(), timeNanos);
+        }
+    }
+
+    /**
+     * Stop tracking a flight and remove it from the engine, e.g. when it leaves the airspace.
+     */
+    public void remove(String flightId) {
+        Track track = tracks.remove(flightId);
+        if (track != null) {
+            if (track.state == State.COASTING) {
+                coastingCount--;
+            }
+            timers.remove(track.timerId);
+            wheel.cancelTimer(track.timerId);
+        }
+        engine.removeFlight(flightId);
+    }
+
+    /**
+     * Coast and drop every track whose timer expired by a cluster time.
+     * The wheel advances one tick per step, so a late poll steps through every tick
+     * it missed; an empty wheel is restarted at the poll time instead, so an idle
+     * period is never stepped through.
+     *
+     * @return the number of tracks dropped
+     */
+    public int poll(long timeNanos) {
+        if (wheel == null) {
+            return 0;
+        }
+        if (wheel.timerCount() == 0) {
+            wheel.resetStartTime(timeNanos);
+            return 0;
+        }
+        long dropped = droppedCount;
+        do {
+            wheel.poll(timeNanos, expiryHandler, Integer.MAX_VALUE);
+        } while (timeNanos >= wheel.currentTickTime());
+        return (int) (droppedCount - dropped);
+    }
+
+    private void touch(String flightId, long timeNanos) {
+        Track track = tracks.get(flightId);
+        if (track == null) {
+            track = new Track(flightId, timeNanos);
+            tracks.put(flightId, track);
+            schedule(track, timeNanos + coastAfterNanos);
+            return;
+        }
+
+        track.lastUpdateNanos = Math.max(track.lastUpdateNanos, timeNanos);
+        if (track.state == State.COASTING) {
+            track.state = State.ACTIVE;
+            coastingCount--;
+            for (Listener listener : listeners) {
+                listener.onResumed(flightId, timeNanos);
+            }
+        }
+    }
+
+    private void schedule(Track track, long deadlineNanos) {
+        if (wheel == null) {
+            wheel = new DeadlineTimerWheel(TimeUnit.NANOSECONDS, track.lastUpdateNanos, TICK_RESOLUTION_NANOS, TICKS_PER_WHEEL);
+        }
+        track.timerId = wheel.scheduleTimer(deadlineNanos);
+        timers.put(track.timerId, track);
+    }
+
+    private boolean onTimerExpiry(TimeUnit timeUnit, long now, long timerId) {
+        Track track = timers.remove(timerId);
+        if (track == null) {
+            return true;
+        }
+
+        long silence = now - track.lastUpdateNanos;
+        if (silence < coastAfterNanos) {
+            // Reported since the timer was set
+            schedule(track, track.lastUpdateNanos + coastAfterNanos);
+        } else if (silence < dropAfterNanos) {
+            if (track.state == State.ACTIVE) {
+                track.state = State.COASTING;
+                coastingCount++;
+                for (Listener listener : listeners) {
+                    listener.onCoasting(track.flightId, now);
+                }
+            }
+            schedule(track, track.lastUpdateNanos + dropAfterNanos);
+        } else {
+            tracks.remove(track.flightId);
+            engine.removeFlight(track.flightId);
+            if (track.state == State.COASTING) {
+                coastingCount--; // A late poll can drop a track that never coasted
+            }
+            droppedCount++;
+            for (Listener listener : listeners) {
+                listener.onDropped(track.flightId, now);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TrackLifecycle{tracks=%d, coasting=%d, dropped=%d}",
+                tracks.size(), coastingCount, droppedCount);
+    }
+
+    /**
+     * One track's last report and its pending timer.
+     */
+    private static final class Track {
+        final String flightId;
+        long lastUpdateNanos;
+        long timerId;
+        State state = State.ACTIVE;
+
+        Track(String flightId, long lastUpdateNanos) {
+            this.flightId = flightId;
+            this.lastUpdateNanos = lastUpdateNanos;
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package com.w1k5.atc.engine.application;
 
+import io.aeron.cluster.service.Cluster;
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ClusteredServiceNodeTest {
@@ -45,4 +51,35 @@ class ClusteredServiceNodeTest {
         // Test that service can be closed without errors
         assertDoesNotThrow(() -> service.close());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testMyClusteredServiceConvertsClusterTime() {
+        // A cluster on the default millisecond clock, recording the timers scheduled on it
+        List<String> timers = new ArrayList<>();
+        Cluster cluster = (Cluster) Proxy.newProxyInstance(Cluster.class.getClassLoader(), new Class<?>[] {Cluster.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "time" -> 5_000L;
+                case "timeUnit" -> TimeUnit.MILLISECONDS;
+                case "scheduleTimer" -> timers.add(args[0] + "@" + args[1]);
+                case "hashCode" -> 0;
+                case "equals" -> proxy == args[0];
+                case "toString" -> "cluster";
+                default -> null;
+            });
+
+        MyClusteredService service = new MyClusteredService();
+        try {
+            service.onStart(cluster, null);
+            assertEquals(5_000_000_000L, service.getClock().nanos());
+            assertEquals(List.of("1@5100", "2@5200", "3@6000"), timers);
+
+            // Domain time is in nanoseconds, timer deadlines go back in cluster milliseconds
+            timers.clear();
+            service.onTimerEvent(1, 5_100L);
+            assertEquals(5_100_000_000L, service.getClock().nanos());
+            assertEquals(List.of("1@5200"), timers);
+        } finally {
+            service.close();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.w1k5.atc.engine.domain;
+
+import com.w1k5.atc.engine.domain.conflict.Conflict;
+import com.w1k5.atc.engine.domain.conflict.ConflictAlert;
+import com.w1k5.atc.engine.domain.conflict.ConflictAlertTracker;
+import com.w1k5.atc.engine.domain.conflict.ConflictDetectionEngine;
+import com.w1k5.atc.engine.domain.constraints.AircraftPerformance;
+import com.w1k5.atc.engine.domain.constraints.AltitudeConstraints;
+import com.w1k5.atc.engine.domain.constraints.SpeedConstraints;
+import com.w1k5.atc.engine.domain.entities.AircraftState;
+import com.w1k5.atc.engine.domain.entities.Flight;
+import com.w1k5.atc.engine.domain.entities.FlightIntent;
+import com.w1k5.atc.engine.domain.entities.Waypoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Conflict Alert Tracker Tests")
+class ConflictAlertTrackerTest {
+
+    private static final long CYCLE_NANOS = 100_000_000L; // 10 Hz detection
+    private static final long SECOND_NANOS = 1_000_000_000L;
+
+    private ConflictAlertTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new ConflictAlertTracker();
+    }
+
+    private static Conflict conflict(double timeToConflict) {
+        return new Conflict("FL001", "FL002", Conflict.Severity.HIGH, 5000.0, timeToConflict);
+    }
+
+    @Test
+    @DisplayName("Should keep one alert open for a pair flickering at the boundary")
+    void shouldKeepOneAlertForFlickeringPair() {
+        List<ConflictAlert> transitions = new ArrayList<>();
+        long time = 0;
+        // In and out of separation every cycle for a minute
+        for (int cycle = 0; cycle < 600; cycle++, time += CYCLE_NANOS) {
+            List<Conflict> active = cycle % 2 == 1 ? List.of(conflict(0.0)) : List.of();
+            transitions.addAll(tracker.update(active, List.of(), time));
+        }
+        assertEquals(1, transitions.size());
+        assertTrue(transitions.get(0).isRaised());
+        assertEquals(ConflictAlert.State.ACTIVE, transitions.get(0).getState());
+
+        // Separated for the exit dwell, then clear for the close dwell
+        long clearFrom = time;
+        while (time - clearFrom < 20 * SECOND_NANOS) {
+            transitions.addAll(tracker.update(List.of(), List.of(), time));
+            time += CYCLE_NANOS;
+        }
+        assertEquals(3, transitions.size());
+        assertEquals(ConflictAlert.State.RESOLVING, transitions.get(1).getState());
+        assertEquals(clearFrom + 5 * SECOND_NANOS, transitions.get(1).getTimeNanos());
+        assertEquals(ConflictAlert.State.CLOSED, transitions.get(2).getState());
+        assertEquals(clearFrom + 15 * SECOND_NANOS, transitions.get(2).getTimeNanos());
+        assertNull(tracker.getState("FL002", "FL001"));
+        assertEquals(0, tracker.getOpenAlertCount());
+
+        assertThrows(IllegalArgumentException.class, () -> tracker.update(List.of(), List.of(), 0));
+    }
+
+    @Test
+    @DisplayName("Should raise predictions after the enter dwell and hold them up to the exit horizon")
+    void shouldApplyPredictionThresholds() {
+        // Beyond the enter horizon: never raised
+        assertTrue(tracker.update(List.of(), List.of(conflict(150.0)), 0).isEmpty());
+        assertNull(tracker.getState("FL001", "FL002"));
+
+        // Within it, but raised only after a full second
+        assertTrue(tracker.update(List.of(), List.of(conflict(110.0)), SECOND_NANOS).isEmpty());
+        assertTrue(tracker.update(List.of(), List.of(conflict(109.5)), SECOND_NANOS + CYCLE_NANOS).isEmpty());
+        List<ConflictAlert> raised = tracker.update(List.of(), List.of(conflict(109.0)), 2 * SECOND_NANOS);
+        assertEquals(1, raised.size());
+        assertEquals(ConflictAlert.State.PREDICTED, raised.get(0).getState());
+        assertEquals(109.0, raised.get(0).getConflict().getTimeToConflict(), 0.001);
+
+        // Drifting back between the enter and exit horizons keeps it open
+        for (long time = 3 * SECOND_NANOS; time < 30 * SECOND_NANOS; time += SECOND_NANOS) {
+            assertTrue(tracker.update(List.of(), List.of(conflict(170.0)), time).isEmpty());
+        }
+        assertEquals(ConflictAlert.State.PREDICTED, tracker.getState("FL001", "FL002"));
+
+        // Loss of separation escalates at once
+        List<ConflictAlert> escalated = tracker.update(List.of(conflict(0.0)), List.of(conflict(0.0)), 30 * SECOND_NANOS);
+        assertEquals(1, escalated.size());
+        assertEquals(ConflictAlert.State.PREDICTED, escalated.get(0).getPreviousState());
+        assertEquals(ConflictAlert.State.ACTIVE, escalated.get(0).getState());
+
+        assertThrows(IllegalArgumentException.class, () -> new ConflictAlertTracker(120, 60, 1, 5, 10));
+    }
+
+    @Test
+    @DisplayName("Should emit only alert transitions from the engine")
+    void shouldPollAlertTransitionsFromEngine() {
+        ConflictDetectionEngine engine = new ConflictDetectionEngine();
+        SpeedConstraints speedConstraints = new SpeedConstraints(200, 400, 300, SpeedConstraints.SpeedUnit.KNOTS);
+        AltitudeConstraints altitudeConstraints = new AltitudeConstraints(25000, 35000, 30000, AltitudeConstraints.AltitudeUnit.FEET);
+        FlightIntent intent = new FlightIntent("FL001", List.of(new Waypoint("WP1", 0, 0, 30000)),
+                speedConstraints, altitudeConstraints, null, null);
+        AircraftPerformance performance = new AircraftPerformance("A320", AircraftPerformance.WakeTurbulenceCategory.MEDIUM,
+                1800, 1800, 380, 180, 39000);
+
+        engine.updateFlight(new Flight("FL001", new AircraftState(0, 0, 0, 0, 914400, 1), intent, performance, 1));
+        engine.updateFlight(new Flight("FL002", new AircraftState(200000, 0, 0, 0, 914400, 1), intent, performance, 1));
+
+        List<ConflictAlert> raised = engine.pollConflictAlerts(0);
+        assertEquals(1, raised.size());
+        assertEquals(ConflictAlert.State.ACTIVE, raised.get(0).getState());
+        assertTrue(engine.pollConflictAlerts(CYCLE_NANOS).isEmpty());
+
+        // Move apart; the alert resolves only after the exit dwell
+        engine.updateFlight(new Flight("FL002", new AircraftState(100000000, 0, 0, 0, 914400, 1), intent, performance, 1));
+        assertTrue(engine.pollConflictAlerts(2 * CYCLE_NANOS).isEmpty());
+        List<ConflictAlert> resolving = engine.pollConflictAlerts(2 * CYCLE_NANOS + 5 * SECOND_NANOS);
+        assertEquals(1, resolving.size());
+        assertEquals(ConflictAlert.State.RESOLVING, resolving.get(0).getState());
+    }
+}
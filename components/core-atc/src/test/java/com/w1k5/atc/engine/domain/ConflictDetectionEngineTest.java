@@ -1,22 +1,35 @@
 package com.w1k5.atc.engine.domain;
 
+import com.w1k5.atc.engine.domain.conflict.ClosestPointOfApproach;
 import com.w1k5.atc.engine.domain.conflict.Conflict;
+import com.w1k5.atc.engine.domain.conflict.ConflictBuffer;
+import com.w1k5.atc.engine.domain.conflict.ConflictDelta;
 import com.w1k5.atc.engine.domain.conflict.ConflictDetectionEngine;
 import com.w1k5.atc.engine.domain.conflict.ConflictDetectionStats;
+import com.w1k5.atc.engine.domain.conflict.SeparationKernel;
 import com.w1k5.atc.engine.domain.constraints.AircraftPerformance;
 import com.w1k5.atc.engine.domain.constraints.AltitudeConstraints;
 import com.w1k5.atc.engine.domain.constraints.SpeedConstraints;
 import com.w1k5.atc.engine.domain.entities.AircraftState;
 import com.w1k5.atc.engine.domain.entities.Flight;
 import com.w1k5.atc.engine.domain.entities.FlightIntent;
+import com.w1k5.atc.engine.domain.entities.FlightStore;
 import com.w1k5.atc.engine.domain.entities.Waypoint;
 import com.w1k5.atc.engine.domain.separation.SeparationMinima;
+import com.w1k5.atc.engine.domain.separation.SeparationRuleTable;
+import com.w1k5.atc.engine.domain.time.ManualClock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -212,6 +225,40 @@ class ConflictDetectionEngineTest {
         assertEquals(expectedRate, stats.getConflictRate(), 0.001);
     }
 
+    @Test
+    @DisplayName("Should serve cached statistics per epoch without re-running detection")
+    void shouldCacheStatisticsPerEpoch() {
+        List<Flight> traffic = createDenseTraffic(500, 53L);
+        traffic.forEach(engine::updateFlight);
+
+        ConflictDetectionStats stats = engine.getStats();
+        assertSame(stats, engine.getStats());
+        assertEquals(engine.getEpoch(), stats.getEpoch());
+
+        ConflictDetectionStats expected = new ConflictDetectionStats(traffic.size(),
+                engine.getActiveConflicts().size(), engine.detectAllConflicts());
+        assertEquals(expected.getTotalFlights(), stats.getTotalFlights());
+        assertEquals(expected.getTotalConflicts(), stats.getTotalConflicts());
+        for (Conflict.Urgency urgency : Conflict.Urgency.values()) {
+            assertEquals(expected.getConflictsByUrgency(urgency), stats.getConflictsByUrgency(urgency));
+        }
+        assertEquals(expected.getConflictsBySeverity(Conflict.Severity.HIGH),
+                stats.getConflictsBySeverity(Conflict.Severity.HIGH));
+        assertEquals(expected.getAverageConflictDistance(), stats.getAverageConflictDistance(), 0.01);
+        assertEquals(expected.hasImmediateConflicts(), stats.hasImmediateConflicts());
+        // The snapshot keeps the epoch's conflicts, consistent with its aggregates
+        assertEquals(stats.getTotalConflicts(), stats.getConflicts().size());
+        assertEquals(new HashSet<>(engine.getActiveConflicts()), new HashSet<>(stats.getConflicts()));
+        assertThrows(UnsupportedOperationException.class, () -> stats.getConflicts().clear());
+
+        engine.removeFlight(traffic.get(0).getFlightId());
+        ConflictDetectionStats next = engine.getStats();
+        assertNotSame(stats, next);
+        assertEquals(traffic.size() - 1, next.getTotalFlights());
+        assertEquals(engine.getActiveConflicts().size(), next.getTotalConflicts());
+        assertEquals(next.getTotalConflicts(), next.getConflicts().size());
+    }
+
     @Test
     @DisplayName("Should clear all flights")
     void shouldClearAllFlights() {
@@ -248,4 +295,792 @@ class ConflictDetectionEngineTest {
         assertEquals(0, stats.getTotalConflicts());
         assertEquals(0.0, stats.getConflictRate());
     }
+
+    @Test
+    @DisplayName("Should match a brute-force pair scan")
+    void shouldMatchBruteForcePairScan() {
+        List<Flight> traffic = createDenseTraffic(400, 42L);
+        traffic.forEach(engine::updateFlight);
+
+        List<Conflict> expected = bruteForceConflicts(new ArrayList<>(engine.getAllFlights()));
+        List<Conflict> actual = engine.detectAllConflicts();
+
+        assertFalse(expected.isEmpty(), "Traffic sample should contain conflicts");
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getFlightId1(), actual.get(i).getFlightId1());
+            assertEquals(expected.get(i).getFlightId2(), actual.get(i).getFlightId2());
+            assertEquals(expected.get(i).getDistance(), actual.get(i).getDistance());
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep live conflict set in step with full detection")
+    void shouldKeepLiveConflictSetInStepWithFullDetection() {
+        List<Flight> traffic = createDenseTraffic(300, 7L);
+        traffic.forEach(engine::updateFlight);
+
+        // Move a handful of flights and drop a few others
+        List<Flight> moved = createDenseTraffic(300, 8L);
+        for (int i = 0; i < 300; i += 20) {
+            engine.updateFlight(moved.get(i));
+        }
+        for (int i = 5; i < 300; i += 50) {
+            engine.removeFlight(traffic.get(i).getFlightId());
+        }
+
+        assertEquals(new HashSet<>(engine.detectAllConflicts()), new HashSet<>(engine.getActiveConflicts()));
+    }
+
+    @Test
+    @DisplayName("Should apply a batch like the same updates one by one")
+    void shouldApplyBatchLikeSingleUpdates() {
+        ConflictDetectionEngine sequential = new ConflictDetectionEngine();
+        List<Flight> scan = createDenseTraffic(300, 7L);
+        scan.forEach(sequential::updateFlight);
+
+        // The first scan rebuilds the grid outright
+        long epoch = engine.getEpoch();
+        assertEquals(300, engine.updateFlights(scan));
+        assertEquals(epoch + 1, engine.getEpoch());
+        assertEquals(300, engine.getLastBatchSize());
+        assertTrue(engine.getLastBatchNanos() > 0);
+        assertEquals(new HashSet<>(sequential.getActiveConflicts()), new HashSet<>(engine.getActiveConflicts()));
+
+        // A partial scan refits only the flights that moved; a flight listed twice takes its last record
+        List<Flight> moved = createDenseTraffic(300, 8L);
+        List<Flight> partial = new ArrayList<>();
+        for (int i = 0; i < 300; i += 20) {
+            partial.add(moved.get(i));
+        }
+        partial.add(0, scan.get(20));
+        partial.forEach(sequential::updateFlight);
+        assertEquals(15, engine.updateFlights(partial));
+
+        Set<Conflict> expected = new HashSet<>(sequential.getActiveConflicts());
+        assertEquals(expected, new HashSet<>(engine.getActiveConflicts()));
+        assertEquals(expected, new HashSet<>(engine.detectAllConflicts()));
+        assertEquals(sequential.getStats().getTotalConflicts(), engine.getStats().getTotalConflicts());
+    }
+
+    @Test
+    @DisplayName("Should apply in-place track updates like rebuilt flights")
+    void shouldApplyTrackUpdatesLikeRebuiltFlights() {
+        ConflictDetectionEngine rebuilt = new ConflictDetectionEngine();
+        List<Flight> traffic = createDenseTraffic(300, 7L);
+        traffic.forEach(engine::updateFlight);
+        traffic.forEach(rebuilt::updateFlight);
+
+        List<Flight> moved = createDenseTraffic(300, 8L);
+        for (int i = 0; i < 300; i += 3) {
+            Flight flight = moved.get(i);
+            AircraftState state = flight.getState();
+            int handle = engine.getFlightStore().handleOf(flight.getFlightId());
+            engine.updateTrack(handle, state.getPositionX(), state.getPositionY(), state.getAltitude(),
+                state.getVelocityX(), state.getVelocityY(), 42L);
+            rebuilt.updateFlight(new Flight(flight.getFlightId(), state, traffic.get(i).getIntent(),
+                traffic.get(i).getPerformance(), traffic.get(i).getSectorId()));
+        }
+
+        Set<Conflict> expected = new HashSet<>(rebuilt.getActiveConflicts());
+        assertEquals(expected, new HashSet<>(engine.getActiveConflicts()));
+        assertEquals(expected, new HashSet<>(engine.detectAllConflicts()));
+
+        // The stored record is a live view; the flight passed in is never touched
+        Flight view = engine.getFlightStore().getFlight(engine.getFlightStore().handleOf(traffic.get(0).getFlightId()));
+        assertEquals(moved.get(0).getState().getPositionX(), view.getState().getPositionX());
+        assertEquals(42L, view.getLastUpdateNanos());
+        assertNotEquals(view.getState().getPositionX(), traffic.get(0).getState().getPositionX());
+        assertThrows(IndexOutOfBoundsException.class, () -> engine.updateTrack(300, 0, 0, 0, 0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Should apply a batch of in-place track updates as one change")
+    void shouldApplyTrackBatchAsOneChange() {
+        ConflictDetectionEngine rebuilt = new ConflictDetectionEngine();
+        List<Flight> traffic = createDenseTraffic(300, 7L);
+        traffic.forEach(engine::updateFlight);
+        traffic.forEach(rebuilt::updateFlight);
+
+        // Every third flight moves; the first is listed twice and takes its last update
+        List<Flight> moved = createDenseTraffic(300, 8L);
+        int count = 101;
+        int[] handles = new int[count];
+        long[] x = new long[count];
+        long[] y = new long[count];
+        long[] altitude = new long[count];
+        long[] velocityX = new long[count];
+        long[] velocityY = new long[count];
+        long[] verticalRate = new long[count];
+        long[] times = new long[count];
+        handles[0] = engine.getFlightStore().handleOf(traffic.get(0).getFlightId());
+        for (int i = 0, b = 1; i < 300; i += 3, b++) {
+            Flight flight = moved.get(i);
+            AircraftState state = flight.getState();
+            handles[b] = engine.getFlightStore().handleOf(flight.getFlightId());
+            x[b] = state.getPositionX();
+            y[b] = state.getPositionY();
+            altitude[b] = state.getAltitude();
+            velocityX[b] = state.getVelocityX();
+            velocityY[b] = state.getVelocityY();
+            times[b] = 42L;
+            rebuilt.updateFlight(new Flight(flight.getFlightId(), state, traffic.get(i).getIntent(),
+                traffic.get(i).getPerformance(), traffic.get(i).getSectorId()));
+        }
+
+        long epoch = engine.getEpoch();
+        assertEquals(100, engine.updateTracks(count, handles, x, y, altitude, velocityX, velocityY, verticalRate, times));
+        assertEquals(epoch + 1, engine.getEpoch());
+        assertEquals(42L, engine.getFlightStore().getMeasuredNanos(handles[0]));
+
+        Set<Conflict> expected = new HashSet<>(rebuilt.getActiveConflicts());
+        assertEquals(expected, new HashSet<>(engine.getActiveConflicts()));
+        assertEquals(expected, new HashSet<>(engine.detectAllConflicts()));
+        assertEquals(0, engine.updateTracks(0, handles, x, y, altitude, velocityX, velocityY, verticalRate, times));
+    }
+
+    @Test
+    @DisplayName("Should detect on positions extrapolated to cluster time")
+    void shouldDetectOnExtrapolatedPositions() {
+        // Head-on at 200 m/s each, 20 km apart, last measured at t = 0
+        Flight west = new Flight("WEST", new AircraftState(0, 0, 20000, 0, 1000000, 1),
+            flight1.getIntent(), flight1.getPerformance(), 1);
+        Flight east = new Flight("EAST", new AircraftState(2000000, 0, -20000, 0, 1000000, 1),
+            flight2.getIntent(), flight2.getPerformance(), 1);
+        engine.updateFlight(west, 0L);
+        engine.updateFlight(east, 0L);
+        assertTrue(engine.getActiveConflicts().isEmpty());
+
+        // 20.5 s later: 11.8 km apart, outside the 5 NM wake minima
+        long epoch = engine.getEpoch();
+        assertEquals(2, engine.extrapolateTo(20_500_000_000L));
+        assertEquals(epoch + 1, engine.getEpoch());
+        assertTrue(engine.getActiveConflicts().isEmpty());
+        assertEquals(0, engine.extrapolateTo(20_500_000_000L));
+
+        // 40 s later, but extrapolation stops at MAX_EXTRAPOLATION_NANOS: 8 km apart
+        engine.extrapolateTo(40_000_000_000L);
+        FlightStore store = engine.getFlightStore();
+        assertEquals(600000, store.getPositionX(store.handleOf("WEST")));
+        assertEquals(0, store.getMeasuredX(store.handleOf("WEST")));
+        assertEquals(1, engine.getActiveConflicts().size());
+        assertEquals(new HashSet<>(engine.detectAllConflicts()), new HashSet<>(engine.getActiveConflicts()));
+        assertEquals(8000.0, engine.getActiveConflicts().get(0).getDistance(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should re-test only flights that moved when extrapolating")
+    void shouldRetestOnlyMovedFlightsWhenExtrapolating() {
+        // Two holding flights 3 km apart, and one inbound at 500 m/s from 20 km
+        Flight holdA = new Flight("HOLDA", new AircraftState(0, 0, 0, 0, 1000000, 1),
+            flight1.getIntent(), flight1.getPerformance(), 1);
+        Flight holdB = new Flight("HOLDB", new AircraftState(300000, 0, 0, 0, 1000000, 1),
+            flight1.getIntent(), flight1.getPerformance(), 1);
+        Flight inbound = new Flight("INBOUND", new AircraftState(2000000, 0, -50000, 0, 1000000, 1),
+            flight2.getIntent(), flight2.getPerformance(), 1);
+        engine.updateFlights(List.of(holdA, holdB, inbound), 0L);
+        assertEquals(1, engine.getActiveConflicts().size());
+        Conflict holding = engine.getActiveConflicts().get(0);
+
+        // Only the inbound flight moves: 10 km out it conflicts with the nearer holding flight
+        assertEquals(1, engine.extrapolateTo(20_000_000_000L));
+        assertEquals(2, engine.getActiveConflicts().size());
+        assertEquals(new HashSet<>(engine.detectAllConflicts()), new HashSet<>(engine.getActiveConflicts()));
+
+        // 5 km out it conflicts with both; the pair that never moved keeps its conflict as recorded
+        assertEquals(1, engine.extrapolateTo(30_000_000_000L));
+        assertEquals(3, engine.getActiveConflicts().size());
+        assertEquals(new HashSet<>(engine.detectAllConflicts()), new HashSet<>(engine.getActiveConflicts()));
+        assertTrue(engine.getActiveConflicts().stream().anyMatch(conflict -> conflict == holding));
+        assertEquals(3, engine.getStats().getTotalConflicts());
+    }
+
+    @Test
+    @DisplayName("Should record updates at the injected clock's time")
+    void shouldRecordUpdatesAtInjectedClockTime() {
+        ManualClock clock = new ManualClock(5_000_000_000L);
+        engine.setClock(clock);
+        engine.updateFlight(flight1);
+        FlightStore store = engine.getFlightStore();
+        int handle = store.handleOf("FL001");
+        assertEquals(5_000_000_000L, store.getMeasuredNanos(handle));
+        assertEquals(5_000_000_000L, store.getFlight(handle).getLastUpdateNanos());
+        assertEquals(0L, flight1.getLastUpdateNanos());
+
+        // One second on, in cluster time, the flight has moved one second along its velocity
+        clock.advance(1_000_000_000L);
+        engine.updateFlights(List.of(flight2));
+        assertEquals(6_000_000_000L, store.getMeasuredNanos(store.handleOf("FL002")));
+        engine.extrapolateTo(clock.nanos());
+        assertEquals(flight1.getState().getPositionX() + flight1.getState().getVelocityX(), store.getPositionX(handle));
+        assertEquals(flight2.getState().getPositionX(), store.getPositionX(store.handleOf("FL002")));
+    }
+
+    @Test
+    @DisplayName("Should report new, persisting and resolved conflicts")
+    void shouldReportConflictDelta() {
+        engine.updateFlight(flight1);
+        engine.updateFlight(flight2);
+        engine.updateFlight(flight3);
+
+        ConflictDelta first = engine.pollConflictDelta();
+        assertEquals(1, first.getNewConflicts().size());
+        assertTrue(first.getNewConflicts().get(0).involvesFlight("FL001"));
+        assertTrue(first.getPersistingConflicts().isEmpty());
+
+        ConflictDelta second = engine.pollConflictDelta();
+        assertFalse(second.hasChanges());
+        assertEquals(1, second.getPersistingConflicts().size());
+
+        engine.removeFlight("FL002");
+        ConflictDelta third = engine.pollConflictDelta();
+        assertEquals(1, third.getResolvedConflicts().size());
+        assertTrue(third.getResolvedConflicts().get(0).involvesFlight("FL002"));
+        assertEquals(0, third.getActiveCount());
+    }
+
+    @Test
+    @DisplayName("Should predict loss of separation within lookahead")
+    void shouldPredictLossOfSeparationWithinLookahead() {
+        // Head-on at the same level, 40 km apart, closing at 400 m/s
+        AircraftState west = new AircraftState(0, 0, 20000, 0, 3000000, 1);
+        AircraftState east = new AircraftState(4000000, 0, -20000, 0, 3000000, 1);
+        engine.updateFlight(new Flight("WEST", west, flight1.getIntent(), flight1.getPerformance(), 1));
+        engine.updateFlight(new Flight("EAST", east, flight1.getIntent(), flight1.getPerformance(), 1));
+
+        assertTrue(engine.detectAllConflicts().isEmpty());
+        assertTrue(engine.detectPredictedConflicts().isEmpty(), "Zero lookahead only sees current state");
+
+        engine.setLookaheadSeconds(120);
+        List<Conflict> predicted = engine.detectPredictedConflicts();
+        assertEquals(1, predicted.size());
+        // Medium pair needs 5 NM (9260 m): separation lost after (40000 - 9260) / 400 s
+        assertEquals((40000 - 9260) / 400.0, predicted.get(0).getTimeToConflict(), 0.01);
+        assertEquals(0.0, predicted.get(0).getDistance(), 0.01);
+
+        assertThrows(IllegalArgumentException.class, () -> engine.setLookaheadSeconds(301));
+    }
+
+    @Test
+    @DisplayName("Should match brute-force closest point of approach with swept pruning")
+    void shouldMatchBruteForceClosestPointOfApproach() {
+        createDenseTraffic(300, 11L).forEach(engine::updateFlight);
+        engine.setLookaheadSeconds(90);
+
+        List<String> expected = new ArrayList<>();
+        List<Flight> flightList = new ArrayList<>(engine.getAllFlights());
+        ClosestPointOfApproach cpa = new ClosestPointOfApproach();
+        for (int i = 0; i < flightList.size(); i++) {
+            for (int j = i + 1; j < flightList.size(); j++) {
+                AircraftState a = flightList.get(i).getState();
+                AircraftState b = flightList.get(j).getState();
+                AircraftPerformance.WakeTurbulenceCategory category =
+                    flightList.get(i).getPerformance().getWakeCategory().compareTo(flightList.get(j).getPerformance().getWakeCategory()) >= 0
+                        ? flightList.get(i).getPerformance().getWakeCategory() : flightList.get(j).getPerformance().getWakeCategory();
+                SeparationMinima minima = SeparationMinima.createWithWakeTurbulence(category);
+                cpa.compute(b.getPositionXInMeters() - a.getPositionXInMeters(),
+                    b.getPositionYInMeters() - a.getPositionYInMeters(),
+                    b.getAltitudeInMeters() - a.getAltitudeInMeters(),
+                    b.getVelocityXInMetersPerSecond() - a.getVelocityXInMetersPerSecond(),
+                    b.getVelocityYInMetersPerSecond() - a.getVelocityYInMetersPerSecond(),
+                    0.0, 90, minima.getHorizontalMinima() * 1852.0, minima.getVerticalMinima() * 0.3048);
+                if (cpa.losesSeparation()) {
+                    expected.add(flightList.get(i).getFlightId() + "-" + flightList.get(j).getFlightId());
+                }
+            }
+        }
+
+        List<String> actual = new ArrayList<>();
+        engine.detectPredictedConflicts().forEach(c -> actual.add(c.getFlightId1() + "-" + c.getFlightId2()));
+
+        assertTrue(expected.size() > engine.detectAllConflicts().size(), "Lookahead should find more pairs");
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Should predict a region's pairs, across its sector boundary, as the whole picture does")
+    void shouldPredictConflictsInSectors() {
+        List<Flight> traffic = createDenseTraffic(300, 13L);
+        traffic.forEach(engine::updateFlight);
+        Map<String, Integer> sectors = new HashMap<>();
+        traffic.forEach(f -> sectors.put(f.getFlightId(), f.getSectorId()));
+
+        for (int lookahead : new int[] {0, 90}) {
+            engine.setLookaheadSeconds(lookahead);
+            Set<String> tma = new HashSet<>();
+            Set<String> all = new HashSet<>();
+            for (Conflict conflict : engine.detectPredictedConflicts()) {
+                String key = conflict.getFlightId1() + "-" + conflict.getFlightId2() + "@"
+                    + conflict.getDistance() + "/" + conflict.getTimeToConflict();
+                all.add(key);
+                if (sectors.get(conflict.getFlightId1()) != 3 || sectors.get(conflict.getFlightId2()) != 3) {
+                    tma.add(key);
+                }
+            }
+
+            List<Conflict> region = engine.detectPredictedConflictsInSectors(1, 2);
+            Set<String> actual = new HashSet<>();
+            region.forEach(c -> actual.add(c.getFlightId1() + "-" + c.getFlightId2() + "@"
+                + c.getDistance() + "/" + c.getTimeToConflict()));
+            assertEquals(tma.size(), region.size(), "Each pair once");
+            assertEquals(tma, actual);
+            assertTrue(tma.size() < all.size(), "Sector 3 pairs are outside the region");
+            assertEquals(all.size(), engine.detectPredictedConflictsInSectors(1, 2, 3).size());
+            assertTrue(engine.detectPredictedConflictsInSectors(99).isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Should probe a climb clearance without changing the live picture")
+    void shouldProbeClimbWithoutMutating() {
+        // Level at FL300, with opposite-direction traffic at FL350 closing head-on
+        AircraftState climber = new AircraftState(0, 0, 20000, 0, 914400, 1);
+        AircraftState above = new AircraftState(4000000, 0, -20000, 0, 1066800, 1);
+        engine.updateFlight(new Flight("AAL123", climber, flight1.getIntent(), flight1.getPerformance(), 1));
+        engine.updateFlight(new Flight("DAL456", above, flight1.getIntent(), flight1.getPerformance(), 1));
+        engine.setLookaheadSeconds(120);
+        assertTrue(engine.detectPredictedConflicts().isEmpty());
+        long epoch = engine.getEpoch();
+
+        // Climb AAL123 to FL350
+        List<Conflict> probed = engine.probe("AAL123", new AircraftState(0, 0, 20000, 0, 1066800, 1));
+        assertEquals(1, probed.size());
+        assertEquals("AAL123", probed.get(0).getFlightId1());
+        assertEquals("DAL456", probed.get(0).getFlightId2());
+        assertEquals((40000 - 9260) / 400.0, probed.get(0).getTimeToConflict(), 0.01);
+
+        // The live picture is untouched, and the probed flight is not tested against itself
+        assertEquals(epoch, engine.getEpoch());
+        assertTrue(engine.detectPredictedConflicts().isEmpty());
+        assertEquals(914400, engine.getFlightStore().getAltitude(engine.getFlightStore().handleOf("AAL123")));
+        assertTrue(engine.probe("AAL123", climber).isEmpty());
+        assertTrue(engine.probe("UNKNOWN", climber).isEmpty());
+
+        // With no horizon, only current separation is probed
+        engine.setLookaheadSeconds(0);
+        assertTrue(engine.probe("AAL123", new AircraftState(0, 0, 20000, 0, 1066800, 1)).isEmpty());
+        assertEquals(1, engine.probe(new Flight("NEW1", new AircraftState(4050000, 0, 0, 0, 1066800, 1),
+            flight1.getIntent(), flight1.getPerformance(), 1)).size());
+    }
+
+    @Test
+    @DisplayName("Should match full detection when probing every live flight")
+    void shouldMatchFullDetectionWhenProbing() {
+        createDenseTraffic(300, 23L).forEach(engine::updateFlight);
+        engine.setLookaheadSeconds(60);
+
+        Set<String> expected = new HashSet<>();
+        engine.detectPredictedConflicts().forEach(c -> expected.add(c.getFlightId1() + "-" + c.getFlightId2()));
+
+        Set<String> probed = new HashSet<>();
+        for (Flight flight : new ArrayList<>(engine.getAllFlights())) {
+            for (Conflict conflict : engine.probe(flight)) {
+                String first = conflict.getFlightId1();
+                String second = conflict.getFlightId2();
+                int firstHandle = engine.getFlightStore().handleOf(first);
+                int secondHandle = engine.getFlightStore().handleOf(second);
+                probed.add(firstHandle < secondHandle ? first + "-" + second : second + "-" + first);
+            }
+        }
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, probed);
+    }
+
+    @Test
+    @DisplayName("Should produce identical conflicts with vector and scalar kernels")
+    void shouldProduceIdenticalConflictsWithVectorAndScalarKernels() {
+        ConflictDetectionEngine vectorEngine = new ConflictDetectionEngine(standardMinima, SeparationKernel.Type.VECTOR);
+        // The test JVM adds the Vector API module, so a scalar fallback here is a build fault
+        assertTrue(SeparationKernel.isVectorApiAvailable(), "jdk.incubator.vector is not resolved in the test JVM");
+        assertEquals(SeparationKernel.Type.VECTOR, vectorEngine.getKernelType());
+        assertEquals(SeparationKernel.Type.SCALAR, engine.getKernelType());
+
+        List<Flight> traffic = createDenseTraffic(500, 23L);
+        traffic.forEach(engine::updateFlight);
+        traffic.forEach(vectorEngine::updateFlight);
+
+        List<Conflict> scalar = engine.detectAllConflicts();
+        List<Conflict> vector = vectorEngine.detectAllConflicts();
+        assertEquals(scalar.size(), vector.size());
+        for (int i = 0; i < scalar.size(); i++) {
+            assertEquals(scalar.get(i).getFlightId1(), vector.get(i).getFlightId1());
+            assertEquals(scalar.get(i).getFlightId2(), vector.get(i).getFlightId2());
+            assertEquals(scalar.get(i).getDistance(), vector.get(i).getDistance());
+        }
+        assertEquals(new HashSet<>(engine.getActiveConflicts()), new HashSet<>(vectorEngine.getActiveConflicts()));
+        assertEquals(engine.detectConflictsInSector(2), vectorEngine.detectConflictsInSector(2));
+    }
+
+    @Test
+    @DisplayName("Should produce identical conflicts in parallel and serial detection")
+    void shouldProduceIdenticalConflictsInParallelAndSerialDetection() {
+        List<Flight> traffic = createDenseTraffic(2000, 31L);
+        traffic.forEach(engine::updateFlight);
+        List<Conflict> serial = engine.detectAllConflicts();
+
+        try (ConflictDetectionEngine parallelEngine = new ConflictDetectionEngine()) {
+            parallelEngine.setParallelism(4);
+            assertEquals(4, parallelEngine.getParallelism());
+            traffic.forEach(parallelEngine::updateFlight);
+
+            for (int run = 0; run < 3; run++) {
+                List<Conflict> parallel = parallelEngine.detectAllConflicts();
+                assertEquals(serial.size(), parallel.size());
+                for (int i = 0; i < serial.size(); i++) {
+                    assertEquals(serial.get(i).getFlightId1(), parallel.get(i).getFlightId1());
+                    assertEquals(serial.get(i).getFlightId2(), parallel.get(i).getFlightId2());
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should fill a reusable conflict buffer with the same conflicts")
+    void shouldFillReusableConflictBuffer() {
+        createDenseTraffic(600, 43L).forEach(engine::updateFlight);
+        List<Conflict> expected = engine.detectAllConflicts();
+        assertFalse(expected.isEmpty());
+
+        ConflictBuffer buffer = new ConflictBuffer(engine.getFlightStore(), 8);
+        for (int run = 0; run < 2; run++) {
+            engine.detectAllConflicts(buffer);
+            assertEquals(expected.size(), buffer.size());
+            for (int i = 0; i < buffer.size(); i++) {
+                ConflictBuffer.ConflictView view = buffer.view(i);
+                Conflict conflict = expected.get(i);
+                assertEquals(conflict.getFlightId1(), view.getFlightId1());
+                assertEquals(conflict.getFlightId2(), view.getFlightId2());
+                assertEquals(conflict.getDistance(), view.getDistance());
+                assertEquals(conflict.getTimeToConflict(), view.getTimeToConflict());
+                assertEquals(conflict.getUrgency(), view.getUrgency());
+            }
+        }
+
+        ConflictBuffer foreign = new ConflictBuffer(new ConflictDetectionEngine().getFlightStore());
+        assertThrows(IllegalArgumentException.class, () -> engine.detectAllConflicts(foreign));
+    }
+
+    @Test
+    @DisplayName("Should apply reduced separation airspace after a rule change")
+    void shouldApplyReducedSeparationAirspace() {
+        SpeedConstraints speedConstraints = new SpeedConstraints(200, 400, 300, SpeedConstraints.SpeedUnit.KNOTS);
+        AltitudeConstraints altitudeConstraints = new AltitudeConstraints(25000, 35000, 30000, AltitudeConstraints.AltitudeUnit.FEET);
+        FlightIntent intent = new FlightIntent("LT001", List.of(), speedConstraints, altitudeConstraints, null, null);
+        AircraftPerformance light = new AircraftPerformance("C172", AircraftPerformance.WakeTurbulenceCategory.LIGHT,
+                700, 700, 140, 60, 14000);
+
+        // 2.8 NM and 600 ft apart: inside standard minima, outside reduced minima
+        engine.updateFlight(new Flight("LT001", new AircraftState(0, 0, 0, 0, 300000, 2), intent, light, 2));
+        engine.updateFlight(new Flight("LT002", new AircraftState(518560, 0, 0, 0, 318288, 2), intent, light, 2));
+        assertEquals(1, engine.getActiveConflicts().size());
+
+        engine.setSeparationRules(SeparationRuleTable.compile(standardMinima, Map.of(2, SeparationMinima.createReduced())));
+        assertTrue(engine.getActiveConflicts().isEmpty());
+        assertTrue(engine.detectAllConflicts().isEmpty());
+
+        engine.setSeparationRules(SeparationRuleTable.compile(standardMinima));
+        assertEquals(1, engine.getActiveConflicts().size());
+    }
+
+    @Test
+    @DisplayName("Should match brute force under per-airspace rules")
+    void shouldMatchBruteForceUnderAirspaceRules() {
+        SeparationRuleTable rules = SeparationRuleTable.compile(standardMinima, Map.of(2, SeparationMinima.createReduced()));
+        engine.setSeparationRules(rules);
+        List<Flight> traffic = createDenseTraffic(800, 47L);
+        traffic.forEach(engine::updateFlight);
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < traffic.size(); i++) {
+            for (int j = i + 1; j < traffic.size(); j++) {
+                if (traffic.get(i).hasConflictWith(traffic.get(j), rules)) {
+                    expected.add(traffic.get(i).getFlightId() + "|" + traffic.get(j).getFlightId());
+                }
+            }
+        }
+        List<String> actual = new ArrayList<>();
+        for (Conflict conflict : engine.detectAllConflicts()) {
+            actual.add(conflict.getFlightId1() + "|" + conflict.getFlightId2());
+        }
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), engine.getActiveConflicts().size());
+    }
+
+    @Test
+    @DisplayName("Should keep sector queries in step with sector changes and removals")
+    void shouldDetectSectorConflictsThroughSectorIndex() {
+        List<Flight> traffic = createDenseTraffic(600, 59L);
+        traffic.forEach(engine::updateFlight);
+
+        // Move some flights to another sector and remove others
+        List<Flight> current = new ArrayList<>(traffic);
+        for (int i = 0; i < 100; i++) {
+            Flight flight = current.get(i);
+            Flight moved = new Flight(flight.getFlightId(), flight.getState(), flight.getIntent(),
+                flight.getPerformance(), flight.getSectorId() % 3 + 1);
+            engine.updateFlight(moved);
+            current.set(i, moved);
+        }
+        for (int i = 0; i < 50; i++) {
+            engine.removeFlight(current.remove(current.size() - 1 - i).getFlightId());
+        }
+
+        List<Flight> inStore = new ArrayList<>(engine.getAllFlights());
+        for (int sectorId = 1; sectorId <= 3; sectorId++) {
+            List<Flight> sectorFlights = new ArrayList<>();
+            for (Flight flight : inStore) {
+                if (flight.getSectorId() == sectorId) {
+                    sectorFlights.add(flight);
+                }
+            }
+            List<Conflict> expected = bruteForceConflicts(sectorFlights);
+            List<Conflict> actual = engine.detectConflictsInSector(sectorId);
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getFlightId1(), actual.get(i).getFlightId1());
+                assertEquals(expected.get(i).getFlightId2(), actual.get(i).getFlightId2());
+            }
+        }
+        assertTrue(engine.detectConflictsInSector(99).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should answer nearest and radius queries like a full scan")
+    void shouldAnswerNearestQueriesLikeFullScan() {
+        List<Flight> traffic = createDenseTraffic(700, 61L);
+        traffic.forEach(engine::updateFlight);
+        // Shared flight level to exercise ties on the altitude axis
+        for (int i = 0; i < 100; i++) {
+            Flight flight = traffic.get(i);
+            AircraftState state = flight.getState();
+            Flight levelled = new Flight(flight.getFlightId(), new AircraftState(state.getPositionX(), state.getPositionY(),
+                state.getVelocityX(), state.getVelocityY(), 1_000_000, 1), flight.getIntent(), flight.getPerformance(), 1);
+            engine.updateFlight(levelled);
+            traffic.set(i, levelled);
+        }
+
+        for (int q = 0; q < traffic.size(); q += 35) {
+            Flight reference = traffic.get(q);
+            List<Flight> others = new ArrayList<>(traffic);
+            others.remove(reference);
+            others.sort((a, b) -> Double.compare(distanceSquared(reference, a), distanceSquared(reference, b)));
+
+            List<Flight> nearest = engine.nearest(reference.getFlightId(), 10);
+            assertEquals(10, nearest.size());
+            for (int i = 0; i < nearest.size(); i++) {
+                assertEquals(distanceSquared(reference, others.get(i)), distanceSquared(reference, nearest.get(i)));
+            }
+
+            long radius = 800_000; // 8 km
+            List<String> expected = new ArrayList<>();
+            for (Flight flight : engine.getAllFlights()) {
+                if (distanceSquared(reference, flight) < (double) radius * radius) {
+                    expected.add(flight.getFlightId());
+                }
+            }
+            List<String> actual = new ArrayList<>();
+            AircraftState state = reference.getState();
+            for (Flight flight : engine.withinRadius(state.getPositionX(), state.getPositionY(), state.getAltitude(), radius)) {
+                actual.add(flight.getFlightId());
+            }
+            assertEquals(expected, actual);
+        }
+
+        assertTrue(engine.nearest("UNKNOWN", 5).isEmpty());
+        assertEquals(traffic.size() - 1, engine.nearest(traffic.get(0).getFlightId(), traffic.size() + 10).size());
+    }
+
+    @Test
+    @DisplayName("Should rank and return nearest traffic at extrapolated positions")
+    void shouldAnswerNearestQueriesAtExtrapolatedPositions() {
+        // Measured at t = 0, AWAY is the nearer; 20 s on, CLOSING has passed it
+        engine.updateFlight(new Flight("REF", new AircraftState(0, 0, 0, 0, 1_000_000, 1),
+            flight1.getIntent(), flight1.getPerformance(), 1), 0L);
+        engine.updateFlight(new Flight("AWAY", new AircraftState(1_000_000, 0, 20000, 0, 1_000_000, 1),
+            flight1.getIntent(), flight1.getPerformance(), 1), 0L);
+        engine.updateFlight(new Flight("CLOSING", new AircraftState(1_500_000, 0, -20000, 0, 1_000_000, 1),
+            flight1.getIntent(), flight1.getPerformance(), 1), 0L);
+        engine.extrapolateTo(20_000_000_000L);
+
+        List<Flight> nearest = engine.nearest("REF", 2);
+        assertEquals(List.of("CLOSING", "AWAY"), nearest.stream().map(Flight::getFlightId).toList());
+        assertEquals(1_100_000, nearest.get(0).getState().getPositionX());
+        assertEquals(1_400_000, nearest.get(1).getState().getPositionX());
+        assertEquals(-20000, nearest.get(0).getState().getVelocityX());
+        assertEquals(0L, nearest.get(0).getLastUpdateNanos());
+
+        List<Flight> within = engine.withinRadius(0, 0, 1_000_000, 1_200_000);
+        assertEquals(List.of("REF", "CLOSING"), within.stream().map(Flight::getFlightId).toList());
+        assertEquals(1_100_000, within.get(1).getState().getPositionX());
+
+        // The stored records keep the measured positions
+        FlightStore store = engine.getFlightStore();
+        assertEquals(1_500_000, store.getFlight(store.handleOf("CLOSING")).getState().getPositionX());
+    }
+
+    @Test
+    @DisplayName("Should detect medium-term conflicts along flight intent")
+    void shouldDetectMediumTermConflictsAlongIntent() {
+        SpeedConstraints speed = new SpeedConstraints(200, 400, 300, SpeedConstraints.SpeedUnit.KNOTS);
+        AltitudeConstraints band = new AltitudeConstraints(25000, 35000, 30000, AltitudeConstraints.AltitudeUnit.FEET);
+        AircraftPerformance performance = flight1.getPerformance(); // 2000 ft/min climb and descent
+
+        // Eastbound and northbound at FL300 (9144 m), crossing at the origin in 500 s
+        FlightIntent east = new FlightIntent("EAST", List.of(new Waypoint("E", 100_000, 0, 9144)), speed, band, null, null);
+        FlightIntent north = new FlightIntent("NORTH", List.of(new Waypoint("N", 0, 100_000, 9144)), speed, band, null, null);
+        // Southbound on the same airway, but cleared above the band: it climbs to FL350 first
+        FlightIntent south = new FlightIntent("SOUTH", List.of(new Waypoint("S", 0, -100_000, 11_000)), speed, band, null, null);
+
+        engine.updateFlight(new Flight("EAST", new AircraftState(-10_000_000, 0, 20000, 0, 914400, 1), east, performance, 1));
+        engine.updateFlight(new Flight("NORTH", new AircraftState(0, -10_000_000, 0, 20000, 914400, 1), north, performance, 1));
+        engine.updateFlight(new Flight("SOUTH", new AircraftState(0, 10_000_000, 0, -20000, 914400, 1), south, performance, 1));
+
+        assertTrue(engine.detectAllConflicts().isEmpty());
+        engine.setLookaheadSeconds(300);
+        assertTrue(engine.detectPredictedConflicts().isEmpty(), "Crossing is beyond the short-term lookahead");
+
+        List<Conflict> conflicts = engine.detectMediumTermConflicts();
+        assertEquals(1, conflicts.size());
+        assertEquals("EAST", conflicts.get(0).getFlightId1());
+        assertEquals("NORTH", conflicts.get(0).getFlightId2());
+        // 5 NM (9260 m) is lost when sqrt(2) * (100000 - 200 t) drops below it
+        assertEquals((100_000 - 9260 / Math.sqrt(2)) / 200, conflicts.get(0).getTimeToConflict(), 0.01);
+
+        assertEquals(1, engine.detectMediumTermConflictsForFlight("NORTH").size());
+        assertTrue(engine.detectMediumTermConflictsForFlight("SOUTH").isEmpty());
+        assertTrue(engine.detectMediumTermConflictsForFlight("UNKNOWN").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should predict medium-term conflicts on one time base for staggered measurements")
+    void shouldAnchorMediumTermConflictsOnPictureTime() {
+        SpeedConstraints speed = new SpeedConstraints(200, 400, 300, SpeedConstraints.SpeedUnit.KNOTS);
+        AltitudeConstraints band = new AltitudeConstraints(25000, 35000, 30000, AltitudeConstraints.AltitudeUnit.FEET);
+        AircraftPerformance performance = flight1.getPerformance();
+        FlightIntent east = new FlightIntent("EAST", List.of(new Waypoint("E", 100_000, 0, 9144)), speed, band, null, null);
+        FlightIntent north = new FlightIntent("NORTH", List.of(new Waypoint("N", 0, 100_000, 9144)), speed, band, null, null);
+
+        // Both reach the origin together, 500 s after EAST's measurement. NORTH is
+        // measured 20 s later, 4 km further on, while EAST coasts
+        engine.updateFlight(new Flight("EAST", new AircraftState(-10_000_000, 0, 20000, 0, 914400, 1), east, performance, 1), 0L);
+        engine.updateFlight(new Flight("NORTH", new AircraftState(0, -9_600_000, 0, 20000, 914400, 1), north, performance, 1),
+            20_000_000_000L);
+        assertEquals(20_000_000_000L, engine.getFlightStore().getPictureNanos());
+
+        // Separation is lost as for a collision course seen from 96 km each, at the picture time
+        List<Conflict> conflicts = engine.detectMediumTermConflicts();
+        assertEquals(1, conflicts.size());
+        assertEquals((96_000 - 9260 / Math.sqrt(2)) / 200, conflicts.get(0).getTimeToConflict(), 0.01);
+        assertEquals(0.0, conflicts.get(0).getDistance(), 1.0);
+
+        // Moving the picture on re-anchors the prediction without any new measurement
+        engine.extrapolateTo(30_000_000_000L);
+        assertEquals((94_000 - 9260 / Math.sqrt(2)) / 200,
+            engine.detectMediumTermConflictsForFlight("EAST").get(0).getTimeToConflict(), 0.01);
+    }
+
+    @Test
+    @DisplayName("Should match brute-force closest point of approach over the MTCD horizon")
+    void shouldMatchBruteForceMediumTermConflicts() {
+        // Without waypoints every flight holds its track, so MTCD is CPA over the whole horizon;
+        // all flights are measured at once, so no trajectory is shifted
+        List<Flight> traffic = createDenseTraffic(200, 23L);
+        traffic.forEach(flight -> engine.updateFlight(flight, 0L));
+
+        List<String> expected = new ArrayList<>();
+        ClosestPointOfApproach cpa = new ClosestPointOfApproach();
+        for (int i = 0; i < traffic.size(); i++) {
+            for (int j = i + 1; j < traffic.size(); j++) {
+                AircraftState a = traffic.get(i).getState();
+                AircraftState b = traffic.get(j).getState();
+                AircraftPerformance.WakeTurbulenceCategory category =
+                    traffic.get(i).getPerformance().getWakeCategory().compareTo(traffic.get(j).getPerformance().getWakeCategory()) >= 0
+                        ? traffic.get(i).getPerformance().getWakeCategory() : traffic.get(j).getPerformance().getWakeCategory();
+                SeparationMinima minima = SeparationMinima.createWithWakeTurbulence(category);
+                cpa.compute(b.getPositionXInMeters() - a.getPositionXInMeters(),
+                    b.getPositionYInMeters() - a.getPositionYInMeters(),
+                    b.getAltitudeInMeters() - a.getAltitudeInMeters(),
+                    b.getVelocityXInMetersPerSecond() - a.getVelocityXInMetersPerSecond(),
+                    b.getVelocityYInMetersPerSecond() - a.getVelocityYInMetersPerSecond(),
+                    0.0, ConflictDetectionEngine.MTCD_HORIZON_SECONDS,
+                    minima.getHorizontalMinima() * 1852.0, minima.getVerticalMinima() * 0.3048);
+                if (cpa.losesSeparation()) {
+                    expected.add(traffic.get(i).getFlightId() + "-" + traffic.get(j).getFlightId()
+                        + String.format("@%.2f", cpa.getLossOfSeparationTime()));
+                }
+            }
+        }
+
+        List<String> actual = new ArrayList<>();
+        List<Conflict> conflicts = engine.detectMediumTermConflicts();
+        conflicts.forEach(c -> actual.add(c.getFlightId1() + "-" + c.getFlightId2()
+            + String.format("@%.2f", c.getTimeToConflict())));
+        assertEquals(expected, actual);
+
+        // Probing one flight through the time index finds the same pairs as the full pass
+        for (Flight flight : traffic.subList(0, 20)) {
+            HashSet<String> fromFullPass = new HashSet<>();
+            conflicts.stream().filter(c -> c.involvesFlight(flight.getFlightId()))
+                .forEach(c -> fromFullPass.add(c.getFlightId1().equals(flight.getFlightId()) ? c.getFlightId2() : c.getFlightId1()));
+            HashSet<String> fromProbe = new HashSet<>();
+            engine.detectMediumTermConflictsForFlight(flight.getFlightId()).forEach(c -> fromProbe.add(c.getFlightId2()));
+            assertEquals(fromFullPass, fromProbe);
+        }
+    }
+
+    private static double distanceSquared(Flight a, Flight b) {
+        double dx = (double) a.getState().getPositionX() - b.getState().getPositionX();
+        double dy = (double) a.getState().getPositionY() - b.getState().getPositionY();
+        double dz = (double) a.getState().getAltitude() - b.getState().getAltitude();
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Random traffic packed into a 100 km square so many pairs straddle grid cells.
+     */
+    static List<Flight> createDenseTraffic(int count, long seed) {
+        Random random = new Random(seed);
+        AircraftPerformance.WakeTurbulenceCategory[] categories = AircraftPerformance.WakeTurbulenceCategory.values();
+        SpeedConstraints speedConstraints = new SpeedConstraints(200, 400, 300, SpeedConstraints.SpeedUnit.KNOTS);
+        AltitudeConstraints altitudeConstraints = new AltitudeConstraints(25000, 35000, 30000, AltitudeConstraints.AltitudeUnit.FEET);
+
+        List<Flight> traffic = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String flightId = String.format("TR%04d", i);
+            AircraftState state = new AircraftState(
+                (long) (random.nextDouble() * 10_000_000) - 5_000_000,
+                (long) (random.nextDouble() * 10_000_000) - 5_000_000,
+                random.nextInt(50_000) - 25_000,
+                random.nextInt(50_000) - 25_000,
+                900_000 + random.nextInt(200_000),
+                1);
+            AircraftPerformance performance = new AircraftPerformance("T" + i,
+                categories[random.nextInt(categories.length)], 2000, 2000, 400, 200, 41000);
+            FlightIntent intent = new FlightIntent(flightId, List.of(), speedConstraints, altitudeConstraints, null, null);
+            traffic.add(new Flight(flightId, state, intent, performance, 1 + random.nextInt(3)));
+        }
+        return traffic;
+    }
+
+    private static List<Conflict> bruteForceConflicts(List<Flight> flightList) {
+        List<Conflict> conflicts = new ArrayList<>();
+        for (int i = 0; i < flightList.size(); i++) {
+            for (int j = i + 1; j < flightList.size(); j++) {
+                Flight a = flightList.get(i);
+                Flight b = flightList.get(j);
+                AircraftPerformance.WakeTurbulenceCategory category =
+                    a.getPerformance().getWakeCategory().compareTo(b.getPerformance().getWakeCategory()) >= 0
+                        ? a.getPerformance().getWakeCategory() : b.getPerformance().getWakeCategory();
+                if (a.hasConflictWith(b, SeparationMinima.createWithWakeTurbulence(category))) {
+                    // Exact squared centimeters, rounded once
+                    long dx = a.getState().getPositionX() - b.getState().getPositionX();
+                    long dy = a.getState().getPositionY() - b.getState().getPositionY();
+                    conflicts.add(new Conflict(a.getFlightId(), b.getFlightId(), Conflict.Severity.HIGH,
+                        Math.sqrt(dx * dx + dy * dy) / 100.0, 0.0));
+                }
+            }
+        }
+        return conflicts;
+    }
 }
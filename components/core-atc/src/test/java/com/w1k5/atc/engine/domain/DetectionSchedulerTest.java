@@ -0,0 +1,138 @@
+package com.w1k5.atc.engine.domain;
+
+import com.w1k5.atc.engine.domain.conflict.ConflictAlert;
+import com.w1k5.atc.engine.domain.conflict.ConflictAlertTracker;
+import com.w1k5.atc.engine.domain.conflict.ConflictDetectionEngine;
+import com.w1k5.atc.engine.domain.conflict.DetectionRegion;
+import com.w1k5.atc.engine.domain.conflict.DetectionScheduler;
+import com.w1k5.atc.engine.domain.constraints.AircraftPerformance;
+import com.w1k5.atc.engine.domain.constraints.AltitudeConstraints;
+import com.w1k5.atc.engine.domain.constraints.SpeedConstraints;
+import com.w1k5.atc.engine.domain.entities.AircraftState;
+import com.w1k5.atc.engine.domain.entities.Flight;
+import com.w1k5.atc.engine.domain.entities.FlightIntent;
+import com.w1k5.atc.engine.domain.entities.Waypoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Detection Scheduler Tests")
+class DetectionSchedulerTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private ConflictDetectionEngine engine;
+    private DetectionScheduler scheduler;
+    private FlightIntent intent;
+    private AircraftPerformance performance;
+
+    @BeforeEach
+    void setUp() {
+        engine = new ConflictDetectionEngine();
+        scheduler = new DetectionScheduler(engine);
+
+        SpeedConstraints speedConstraints = new SpeedConstraints(200, 400, 300, SpeedConstraints.SpeedUnit.KNOTS);
+        AltitudeConstraints altitudeConstraints = new AltitudeConstraints(25000, 35000, 30000, AltitudeConstraints.AltitudeUnit.FEET);
+        intent = new FlightIntent("FL001", List.of(new Waypoint("WP1", 0, 0, 30000)),
+                speedConstraints, altitudeConstraints, null, null);
+        performance = new AircraftPerformance("A320", AircraftPerformance.WakeTurbulenceCategory.MEDIUM,
+                1800, 1800, 380, 180, 39000);
+
+        // A conflicting pair in the TMA sector and one in the upper sector
+        engine.updateFlight(new Flight("TMA1", new AircraftState(0, 0, 0, 0, 300000, 1), intent, performance, 1));
+        engine.updateFlight(new Flight("TMA2", new AircraftState(100000, 0, 0, 0, 300000, 1), intent, performance, 1));
+        engine.updateFlight(new Flight("UPR1", new AircraftState(50000000, 0, 0, 0, 1100000, 10), intent, performance, 10));
+        engine.updateFlight(new Flight("UPR2", new AircraftState(50100000, 0, 0, 0, 1100000, 10), intent, performance, 10));
+    }
+
+    @Test
+    @DisplayName("Should run each region only when it is due")
+    void shouldRunRegionsAtTheirOwnCadence() {
+        DetectionRegion tma = scheduler.addRegion("TMA", 100 * MILLIS, 1);
+        DetectionRegion upper = scheduler.addRegion("UPPER", 1000 * MILLIS, 10);
+
+        Map<String, Integer> runs = new HashMap<>();
+        for (long time = 0; time < 2000 * MILLIS; time += 100 * MILLIS) {
+            scheduler.tick(time, (region, conflicts, transitions) -> {
+                runs.merge(region.getName(), 1, Integer::sum);
+                assertEquals(1, conflicts.size());
+            });
+        }
+
+        assertEquals(20, runs.get("TMA"));
+        assertEquals(2, runs.get("UPPER"));
+        assertEquals(20, tma.getCycles());
+        assertEquals(2, upper.getCycles());
+        assertEquals(1, upper.getLastConflictCount());
+        assertTrue(tma.getMaxCycleNanos() >= tma.getLastCycleNanos());
+        assertTrue(tma.getMeanCycleNanos() > 0.0);
+        assertEquals(2000 * MILLIS, scheduler.getNextDueNanos());
+
+        // Nothing is due between ticks
+        assertEquals(0, scheduler.tick(1950 * MILLIS, (region, conflicts, transitions) -> fail("Nothing is due")));
+        assertThrows(IllegalArgumentException.class, () -> scheduler.addRegion("TMA", MILLIS, 2));
+    }
+
+    @Test
+    @DisplayName("Should keep a late region on its cadence and count skipped cycles")
+    void shouldCountSkippedCycles() {
+        DetectionRegion all = scheduler.addRegion("ALL", 100 * MILLIS);
+        assertTrue(all.coversAllSectors());
+
+        List<Integer> counts = new ArrayList<>();
+        scheduler.tick(0, (region, conflicts, transitions) -> counts.add(conflicts.size()));
+        // A stalled tick, 350 ms late
+        scheduler.tick(450 * MILLIS, (region, conflicts, transitions) -> counts.add(conflicts.size()));
+
+        assertEquals(List.of(2, 2), counts);
+        assertEquals(3, all.getSkippedCycles());
+        assertEquals(500 * MILLIS, all.getNextDueNanos());
+    }
+
+    @Test
+    @DisplayName("Should advance each region's alerts only when the region runs")
+    void shouldAlertAtRegionCadence() {
+        engine.setAlertTracker(new ConflictAlertTracker(120.0, 180.0, 0.0, 0.0, 0.0));
+        scheduler.addRegion("TMA", 100 * MILLIS, 1);
+        scheduler.addRegion("UPPER", 1000 * MILLIS, 10);
+
+        List<String> raised = new ArrayList<>();
+        scheduler.tick(0, (region, conflicts, transitions) -> {
+            for (ConflictAlert transition : transitions) {
+                assertEquals(ConflictAlert.State.ACTIVE, transition.getState());
+                raised.add(region.getName() + ":" + transition.getFlightId1());
+            }
+        });
+        assertEquals(List.of("TMA:TMA1", "UPPER:UPR1"), raised);
+
+        // The upper pair separates; the TMA region runs but leaves the upper alert alone
+        engine.updateFlight(new Flight("UPR2", new AircraftState(90000000, 0, 0, 0, 1100000, 10), intent, performance, 10));
+        for (long time = 100 * MILLIS; time < 1000 * MILLIS; time += 100 * MILLIS) {
+            scheduler.tick(time, (region, conflicts, transitions) -> {
+                assertEquals("TMA", region.getName());
+                assertTrue(transitions.isEmpty());
+            });
+            assertEquals(ConflictAlert.State.ACTIVE, engine.getAlertTracker().getState("UPR1", "UPR2"));
+        }
+
+        // Only the upper region's own cycle sees the pair clear
+        List<ConflictAlert> upper = new ArrayList<>();
+        scheduler.tick(1000 * MILLIS, (region, conflicts, transitions) -> {
+            if (region.getName().equals("UPPER")) {
+                upper.addAll(transitions);
+            } else {
+                assertTrue(transitions.isEmpty());
+            }
+        });
+        assertEquals(1, upper.size());
+        assertEquals(ConflictAlert.State.RESOLVING, upper.get(0).getState());
+        assertEquals(ConflictAlert.State.ACTIVE, engine.getAlertTracker().getState("TMA1", "TMA2"));
+    }
+}
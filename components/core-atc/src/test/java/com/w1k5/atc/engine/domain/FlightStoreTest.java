@@ -0,0 +1,132 @@
+package com.w1k5.atc.engine.domain;
+
+import com.w1k5.atc.engine.domain.constraints.AircraftPerformance;
+import com.w1k5.atc.engine.domain.constraints.AltitudeConstraints;
+import com.w1k5.atc.engine.domain.constraints.SpeedConstraints;
+import com.w1k5.atc.engine.domain.entities.AircraftState;
+import com.w1k5.atc.engine.domain.entities.Flight;
+import com.w1k5.atc.engine.domain.entities.FlightIntent;
+import com.w1k5.atc.engine.domain.entities.FlightStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Flight Store Tests")
+class FlightStoreTest {
+
+    private FlightStore store;
+    private FlightIntent intent;
+    private AircraftPerformance medium;
+    private AircraftPerformance heavy;
+
+    @BeforeEach
+    void setUp() {
+        store = new FlightStore(2);
+        SpeedConstraints speedConstraints = new SpeedConstraints(200, 400, 300, SpeedConstraints.SpeedUnit.KNOTS);
+        AltitudeConstraints altitudeConstraints = new AltitudeConstraints(25000, 35000, 30000, AltitudeConstraints.AltitudeUnit.FEET);
+        intent = new FlightIntent("FL001", List.of(), speedConstraints, altitudeConstraints, null, null);
+        medium = new AircraftPerformance("A320", AircraftPerformance.WakeTurbulenceCategory.MEDIUM, 1800, 1800, 380, 180, 39000);
+        heavy = new AircraftPerformance("B747", AircraftPerformance.WakeTurbulenceCategory.HEAVY, 1500, 1500, 350, 150, 45000);
+    }
+
+    private Flight flight(String flightId, long x, AircraftPerformance performance) {
+        return new Flight(flightId, new AircraftState(x, 2 * x, 100, 200, 3000000, 1), intent, performance, 1);
+    }
+
+    @Test
+    @DisplayName("Should copy flight kinematics into primitive columns")
+    void shouldCopyFlightKinematicsIntoColumns() {
+        int handle = store.put(flight("FL001", 1000, heavy));
+
+        assertEquals(0, handle);
+        assertEquals(1000, store.getPositionX(handle));
+        assertEquals(2000, store.getPositionY(handle));
+        assertEquals(3000000, store.getAltitude(handle));
+        assertEquals(100, store.getVelocityX(handle));
+        assertEquals(200, store.getVelocityY(handle));
+        assertEquals(AircraftPerformance.WakeTurbulenceCategory.HEAVY.ordinal(), store.getWakeCategory(handle));
+    }
+
+    @Test
+    @DisplayName("Should overwrite existing record in place")
+    void shouldOverwriteExistingRecordInPlace() {
+        store.put(flight("FL001", 1000, medium));
+        int handle = store.put(flight("FL001", 5000, medium));
+
+        assertEquals(0, handle);
+        assertEquals(1, store.size());
+        assertEquals(5000, store.getPositionX(handle));
+    }
+
+    @Test
+    @DisplayName("Should update a record in place by handle")
+    void shouldUpdateRecordInPlaceByHandle() {
+        Flight original = flight("FL001", 1000, heavy);
+        int handle = store.put(original);
+        Flight view = store.getFlight(handle);
+
+        store.update(handle, 7000, 8000, 3100000, 300, 400, 0, 5L);
+
+        assertSame(view, store.getFlight(handle));
+        assertEquals(7000, store.getPositionX(handle));
+        assertEquals(8000, store.getPositionY(handle));
+        assertEquals(3100000, store.getAltitude(handle));
+        assertEquals(400, store.getVelocityY(handle));
+        assertEquals(7000, view.getState().getPositionX());
+        assertEquals(300, view.getState().getVelocityX());
+        assertEquals(5L, view.getLastUpdateNanos());
+        assertEquals(heavy, view.getPerformance());
+        assertEquals(1000, original.getState().getPositionX());
+        assertThrows(IndexOutOfBoundsException.class, () -> store.update(1, 0, 0, 0, 0, 0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Should extrapolate positions and keep measurements apart")
+    void shouldExtrapolatePositionsAndKeepMeasurements() {
+        store.put(flight("FL001", 1000, medium));
+        int handle = store.handleOf("FL001");
+        // 150 m/s east, 10 m/s north, climbing at 5 m/s, measured at t = 2 s
+        store.update(handle, 0, 0, 3000000, 15000, 1000, 500, 2_000_000_000L);
+
+        assertEquals(1, store.extrapolate(2_250_000_000L, 30_000_000_000L));
+        assertEquals(3750, store.getPositionX(handle));
+        assertEquals(250, store.getPositionY(handle));
+        assertEquals(3000125, store.getAltitude(handle));
+        assertEquals(0, store.getMeasuredX(handle));
+        assertEquals(3000000, store.getMeasuredAltitude(handle));
+        assertEquals(2_000_000_000L, store.getMeasuredNanos(handle));
+        assertEquals(0, store.getFlight(handle).getState().getPositionX());
+
+        // Sub-second steps, never behind the measurement and never beyond the cap
+        assertEquals(1, store.extrapolate(2_000_000_001L, 30_000_000_000L));
+        assertEquals(0, store.getPositionX(handle));
+        assertEquals(0, store.extrapolate(1_000_000_000L, 30_000_000_000L));
+        assertEquals(0, store.getPositionX(handle));
+        store.extrapolate(100_000_000_000L, 4_000_000_000L);
+        assertEquals(60000, store.getPositionX(handle));
+
+        // A new measurement puts the flight back on it
+        store.update(handle, 5000, 0, 3000000, 15000, 0, 0, 3_000_000_000L);
+        assertEquals(5000, store.getPositionX(handle));
+    }
+
+    @Test
+    @DisplayName("Should compact by swapping last record into removed slot")
+    void shouldCompactOnRemove() {
+        for (int i = 0; i < 5; i++) {
+            store.put(flight("FL00" + i, 1000 * (i + 1), medium));
+        }
+
+        assertEquals(1, store.remove("FL001"));
+        assertEquals(4, store.size());
+        assertEquals(1, store.handleOf("FL004"));
+        assertEquals(5000, store.getPositionX(1));
+        assertEquals("FL004", store.getFlight(1).getFlightId());
+        assertEquals(FlightStore.MISSING_HANDLE, store.handleOf("FL001"));
+        assertEquals(FlightStore.MISSING_HANDLE, store.remove("FL001"));
+    }
+}
@@ -72,7 +72,9 @@ class FlightTest {
         assertEquals(intent1, flight1.getIntent());
         assertEquals(performance1, flight1.getPerformance());
         assertEquals(1, flight1.getSectorId());
-        assertNotNull(flight1.getLastUpdate());
+        assertEquals(1, state1.getSectorId());
+        // Flights never read a clock; the engine stamps the record it keeps
+        assertEquals(0L, flight1.getLastUpdateNanos());
     }
 
     @Test
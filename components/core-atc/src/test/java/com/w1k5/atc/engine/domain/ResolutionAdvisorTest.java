@@ -0,0 +1,190 @@
+package com.w1k5.atc.engine.domain;
+
+import com.w1k5.atc.engine.domain.conflict.Advisory;
+import com.w1k5.atc.engine.domain.conflict.Conflict;
+import com.w1k5.atc.engine.domain.conflict.ConflictDetectionEngine;
+import com.w1k5.atc.engine.domain.conflict.ResolutionAdvisor;
+import com.w1k5.atc.engine.domain.constraints.AircraftPerformance;
+import com.w1k5.atc.engine.domain.constraints.AltitudeConstraints;
+import com.w1k5.atc.engine.domain.constraints.SpeedConstraints;
+import com.w1k5.atc.engine.domain.entities.AircraftState;
+import com.w1k5.atc.engine.domain.entities.Flight;
+import com.w1k5.atc.engine.domain.entities.FlightIntent;
+import com.w1k5.atc.engine.domain.entities.Waypoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Resolution Advisor Tests")
+class ResolutionAdvisorTest {
+
+    private static final long FL300 = 914400; // centimeters
+
+    private ConflictDetectionEngine engine;
+    private ResolutionAdvisor advisor;
+    private SpeedConstraints speedConstraints;
+    private AircraftPerformance performance;
+
+    @BeforeEach
+    void setUp() {
+        engine = new ConflictDetectionEngine();
+        engine.setLookaheadSeconds(120);
+        advisor = new ResolutionAdvisor(engine);
+        speedConstraints = new SpeedConstraints(200, 450, 390, SpeedConstraints.SpeedUnit.KNOTS);
+        performance = new AircraftPerformance("A320", AircraftPerformance.WakeTurbulenceCategory.MEDIUM,
+                1800, 1800, 450, 180, 39000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        advisor.close();
+    }
+
+    private Flight flight(String flightId, long x, long velocityX, double minFeet, double maxFeet) {
+        return flight(flightId, x, 0, velocityX, minFeet, maxFeet);
+    }
+
+    private Flight flight(String flightId, long x, long y, long velocityX, double minFeet, double maxFeet) {
+        AltitudeConstraints altitudeConstraints = new AltitudeConstraints(minFeet, maxFeet, minFeet, AltitudeConstraints.AltitudeUnit.FEET);
+        FlightIntent intent = new FlightIntent(flightId, List.of(new Waypoint("WP1", 0, 0, 30000)),
+                speedConstraints, altitudeConstraints, null, null);
+        return new Flight(flightId, new AircraftState(x, y, velocityX, 0, FL300, 1), intent, performance, 1);
+    }
+
+    private List<Conflict> headOn(double minFeet, double maxFeet) {
+        // Closing at 400 m/s from 40 km, so separation is lost in under 90 s
+        return headOn(4000000, minFeet, maxFeet);
+    }
+
+    private List<Conflict> headOn(long distance, double minFeet, double maxFeet) {
+        engine.updateFlight(flight("EAST", 0, 20000, minFeet, maxFeet));
+        engine.updateFlight(flight("WEST", distance, -20000, minFeet, maxFeet));
+        List<Conflict> conflicts = engine.detectPredictedConflicts();
+        assertEquals(1, conflicts.size());
+        return conflicts;
+    }
+
+    @Test
+    @DisplayName("Should propose the smallest manoeuvre that clears the pair")
+    void shouldProposeSmallestClearingManoeuvre() {
+        List<Advisory> advisories = advisor.resolve(headOn(25000, 35000));
+
+        assertEquals(1, advisories.size());
+        Advisory advisory = advisories.get(0);
+        assertTrue(advisory.isConflictFree());
+        assertEquals("EAST", advisory.getFlightId());
+        assertEquals("WEST", advisory.getConflictingFlightId());
+        // A 10 degree turn does not clear the pair in time; a climb of one level,
+        // at 1800 ft/min from the current altitude, is level 1000 ft up before minima are reached
+        assertEquals(Advisory.Type.ALTITUDE, advisory.getType());
+        assertEquals(31000.0, advisory.getTargetValue(), 1e-9);
+        assertEquals(1000.0, advisory.getChange(), 1e-6);
+        assertEquals(FL300, advisory.getResolvedState().getAltitude());
+        assertEquals(914, advisory.getResolvedState().getVerticalRate());
+        assertTrue(advisor.getLastEvaluatedCount() <= advisor.getLastCandidateCount());
+
+        // Nothing changed in the live traffic
+        assertEquals(1, engine.detectPredictedConflicts().size());
+    }
+
+    @Test
+    @DisplayName("Should not advise a level change that cannot be flown before separation is lost")
+    void shouldFlyLevelChangesAtPerformanceRate() {
+        // From 20 km separation is lost in 27 s, before any climb or descent gains 1000 ft
+        List<Advisory> advisories = advisor.resolve(headOn(2000000, 25000, 35000));
+
+        assertEquals(1, advisories.size());
+        Advisory advisory = advisories.get(0);
+        assertEquals(Advisory.Type.HEADING, advisory.getType());
+        assertEquals(60.0, Math.abs(advisory.getChange()), 1e-9);
+        assertTrue(advisory.isConflictFree());
+    }
+
+    @Test
+    @DisplayName("Should regain separation for a pair already within minima")
+    void shouldRegainSeparationForActiveConflict() {
+        // Side by side 5 km apart on the same track and level
+        engine.updateFlight(flight("SOUTH", 0, 0, 20000, 25000, 35000));
+        engine.updateFlight(flight("NORTH", 0, 500000, 20000, 25000, 35000));
+        List<Conflict> active = engine.getActiveConflicts();
+        assertEquals(1, active.size());
+
+        // Nothing leaves minima at once; the turn regaining separation soonest wins over the 33 s climb
+        List<Advisory> advisories = advisor.resolve(active);
+        assertEquals(1, advisories.size());
+        Advisory advisory = advisories.get(0);
+        assertEquals(Advisory.Type.HEADING, advisory.getType());
+        assertEquals(60.0, Math.abs(advisory.getChange()), 1e-9);
+        assertTrue(advisory.isConflictFree());
+        assertEquals(1, engine.getActiveConflicts().size());
+    }
+
+    @Test
+    @DisplayName("Should start manoeuvres from the extrapolated position of a stale measurement")
+    void shouldManoeuvreFromExtrapolatedPosition() {
+        // EAST was last measured 20 s ago; WEST has just been measured
+        engine.updateFlight(flight("EAST", 0, 20000, 25000, 35000), 0L);
+        engine.updateFlight(flight("WEST", 3600000, -20000, 25000, 35000), 20_000_000_000L);
+        engine.extrapolateTo(20_000_000_000L);
+        List<Advisory> advisories = advisor.resolve(engine.detectPredictedConflicts());
+
+        // The same picture with both flights just measured where they are now
+        ConflictDetectionEngine current = new ConflictDetectionEngine();
+        current.setLookaheadSeconds(120);
+        current.updateFlight(flight("EAST", 400000, 20000, 25000, 35000), 0L);
+        current.updateFlight(flight("WEST", 3600000, -20000, 25000, 35000), 0L);
+        List<Advisory> expected;
+        try (ResolutionAdvisor reference = new ResolutionAdvisor(current)) {
+            expected = reference.resolve(current.detectPredictedConflicts());
+        }
+
+        assertEquals(1, advisories.size());
+        assertEquals(1, expected.size());
+        Advisory advisory = advisories.get(0);
+        assertEquals(expected.get(0).getFlightId(), advisory.getFlightId());
+        assertEquals(expected.get(0).getType(), advisory.getType());
+        assertEquals(expected.get(0).getTargetValue(), advisory.getTargetValue(), 1e-9);
+        assertEquals(expected.get(0).getRemainingConflicts(), advisory.getRemainingConflicts());
+        assertEquals(expected.get(0).getResolvedState().getPositionX(), advisory.getResolvedState().getPositionX());
+        assertEquals("EAST", advisory.getFlightId());
+        assertEquals(400000, advisory.getResolvedState().getPositionX());
+    }
+
+    @Test
+    @DisplayName("Should keep level changes within the altitude band and the ceiling")
+    void shouldRespectTheEnvelope() {
+        // Already at the top of the band, so the level change is a descent
+        List<Advisory> advisories = advisor.resolve(headOn(26000, 30000));
+
+        assertEquals(1, advisories.size());
+        Advisory advisory = advisories.get(0);
+        assertEquals(Advisory.Type.ALTITUDE, advisory.getType());
+        assertEquals(29000.0, advisory.getTargetValue(), 1e-9);
+        assertTrue(advisory.isConflictFree());
+    }
+
+    @Test
+    @DisplayName("Should give the serial result in parallel and return in budget when time runs out")
+    void shouldHonourTheBudget() {
+        List<Conflict> conflicts = headOn(25000, 35000);
+        advisor.setBudgetNanos(1_000_000_000L); // ample, so both searches run to the end
+        Advisory serial = advisor.resolve(conflicts).get(0);
+
+        advisor.setParallelism(4);
+        Advisory parallel = advisor.resolve(conflicts).get(0);
+        assertEquals(serial.getFlightId(), parallel.getFlightId());
+        assertEquals(serial.getType(), parallel.getType());
+        assertEquals(serial.getTargetValue(), parallel.getTargetValue(), 1e-9);
+
+        // A budget too small for any probe returns at once with no advisory
+        advisor.setBudgetNanos(1);
+        assertTrue(advisor.resolve(conflicts).isEmpty());
+        assertEquals(0, advisor.getLastEvaluatedCount());
+        assertThrows(IllegalArgumentException.class, () -> advisor.setBudgetNanos(0));
+    }
+}
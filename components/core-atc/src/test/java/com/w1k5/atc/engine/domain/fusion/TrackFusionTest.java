@@ -0,0 +1,131 @@
+package com.w1k5.atc.engine.domain.fusion;
+
+import com.w1k5.atc.engine.domain.conflict.ConflictDetectionEngine;
+import com.w1k5.atc.engine.domain.constraints.AircraftPerformance;
+import com.w1k5.atc.engine.domain.constraints.AltitudeConstraints;
+import com.w1k5.atc.engine.domain.constraints.SpeedConstraints;
+import com.w1k5.atc.engine.domain.entities.AdapterType;
+import com.w1k5.atc.engine.domain.entities.AircraftState;
+import com.w1k5.atc.engine.domain.entities.Flight;
+import com.w1k5.atc.engine.domain.entities.FlightIntent;
+import com.w1k5.atc.engine.domain.entities.FlightStore;
+import com.w1k5.atc.engine.domain.track.TrackLifecycle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Track Fusion Tests")
+class TrackFusionTest {
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final long SPEED = 20000; // centimeters per second, about 390 knots
+
+    private ConflictDetectionEngine engine;
+    private TrackLifecycle lifecycle;
+    private TrackFusion fusion;
+
+    @BeforeEach
+    void setUp() {
+        engine = new ConflictDetectionEngine();
+        lifecycle = new TrackLifecycle(engine);
+        fusion = new TrackFusion(lifecycle);
+    }
+
+    private static Flight flight(String flightId, long x, long y, long velocityX) {
+        FlightIntent intent = new FlightIntent(flightId, List.of(),
+                new SpeedConstraints(200, 450, 400, SpeedConstraints.SpeedUnit.KNOTS),
+                new AltitudeConstraints(25000, 35000, 30000, AltitudeConstraints.AltitudeUnit.FEET), null, null);
+        AircraftPerformance performance = new AircraftPerformance("A320", AircraftPerformance.WakeTurbulenceCategory.MEDIUM,
+                1800, 1800, 450, 180, 39000);
+        return new Flight(flightId, new AircraftState(x, y, velocityX, 0, 914400, 1), intent, performance, 1, 0L);
+    }
+
+    @Test
+    @DisplayName("Should fuse radar and ADS-B plots into one smoothed track per aircraft")
+    void shouldFuseSensorsIntoOneTrackPerAircraft() {
+        // Plan speeds are off by 10%; the filters have to find the real ones
+        fusion.initiate(flight("EAST", 0, 0, SPEED * 11 / 10), 0L);
+        fusion.initiate(flight("WEST", 5_000_000, 500_000, -SPEED * 9 / 10), 0L);
+
+        for (int second = 1; second <= 40; second++) {
+            long time = second * SECOND;
+            long eastX = SPEED * second;
+            long westX = 5_000_000 - SPEED * second;
+            // ADS-B identifies the eastbound flight once a second
+            assertTrue(fusion.accept(AdapterType.ADSB, "EAST", eastX, 0, 914400, time));
+            // Radar sees both every four seconds, anonymously, with 300 m of alternating error
+            if (second % 4 == 0) {
+                long error = second % 8 == 0 ? 30_000 : -30_000;
+                assertTrue(fusion.accept(AdapterType.RADAR, null, eastX + error, error, 914400, time));
+                assertTrue(fusion.accept(AdapterType.RADAR, null, westX - error, 500_000 + error, 914400, time));
+                // Both tracks go to the engine as one change
+                long epoch = engine.getEpoch();
+                assertEquals(2, fusion.publish());
+                assertEquals(epoch + 1, engine.getEpoch());
+            }
+        }
+
+        // Clutter far from every track is not associated
+        assertFalse(fusion.accept(AdapterType.RADAR, null, 50_000_000, 50_000_000, 914400, 40 * SECOND));
+        assertFalse(fusion.accept(AdapterType.ADSB, "UNKNOWN", 0, 0, 914400, 40 * SECOND));
+        assertEquals(2, fusion.getUnassociatedCount());
+        assertEquals(40 + 20 + 2, fusion.getPlotCount());
+
+        FlightStore store = engine.getFlightStore();
+        assertEquals(2, store.size());
+        assertEquals(2, fusion.getTrackCount());
+        assertEquals(20, fusion.getPublishedCount());
+
+        int east = store.handleOf("EAST");
+        int west = store.handleOf("WEST");
+        assertEquals(SPEED * 40, store.getMeasuredX(east), 20_000);
+        assertEquals(SPEED, store.getVelocityX(east), SPEED / 20);
+        assertEquals(0, store.getVerticalRate(east), 100);
+        assertEquals(5_000_000 - SPEED * 40, store.getMeasuredX(west), 40_000);
+        assertEquals(-SPEED, store.getVelocityX(west), SPEED / 10);
+        assertEquals(40 * SECOND, store.getMeasuredNanos(west));
+        assertEquals(0, fusion.publish());
+    }
+
+    @Test
+    @DisplayName("Should associate a plot with a track coasting up to its drop limit")
+    void shouldAssociateWithLongCoastingTrack() {
+        // A fast track loses its plots for 19 s, just short of the default 20 s drop
+        long fast = 30_000;
+        fusion.initiate(flight("FAST", 4_800_000, 0, fast), 0L);
+        lifecycle.poll(19 * SECOND);
+        assertEquals(TrackLifecycle.State.COASTING, lifecycle.getState("FAST"));
+
+        // 5.7 km on, the anonymous plot still falls in the gate of the coasted track
+        assertTrue(fusion.accept(AdapterType.RADAR, null, 4_800_000 + fast * 19, 0, 914400, 19 * SECOND));
+        assertEquals(0, fusion.getUnassociatedCount());
+        assertEquals(1, fusion.publish());
+        assertEquals(TrackLifecycle.State.ACTIVE, lifecycle.getState("FAST"));
+        assertEquals(1, engine.getFlightStore().size());
+
+        // Weather is not a surveillance source
+        assertThrows(IllegalArgumentException.class,
+                () -> fusion.accept(AdapterType.WEATHER, "FAST", 0, 0, 914400, 20 * SECOND));
+        assertEquals(1, fusion.getPlotCount());
+    }
+
+    @Test
+    @DisplayName("Should forget tracks the lifecycle drops")
+    void shouldForgetDroppedTracks() {
+        fusion.initiate(flight("GONE", 0, 0, SPEED), 0L);
+        fusion.initiate(flight("STAY", 5_000_000, 0, SPEED), 0L);
+
+        fusion.remove("STAY");
+        assertFalse(fusion.hasTrack("STAY"));
+        assertEquals(FlightStore.MISSING_HANDLE, engine.getFlightStore().handleOf("STAY"));
+
+        assertEquals(1, lifecycle.poll(60 * SECOND));
+        assertFalse(fusion.hasTrack("GONE"));
+        assertEquals(0, fusion.getTrackCount());
+        assertFalse(fusion.accept(AdapterType.RADAR, null, SPEED * 60, 0, 914400, 60 * SECOND));
+    }
+}
@@ -0,0 +1,83 @@
+package com.w1k5.atc.engine.domain.geodesy;
+
+import com.w1k5.atc.engine.domain.conflict.Conflict;
+import com.w1k5.atc.engine.domain.constraints.AircraftPerformance;
+import com.w1k5.atc.engine.domain.constraints.AltitudeConstraints;
+import com.w1k5.atc.engine.domain.constraints.SpeedConstraints;
+import com.w1k5.atc.engine.domain.entities.FlightIntent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Regional Conflict Detector Tests")
+class RegionalConflictDetectorTest {
+
+    private RegionalConflictDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        detector = new RegionalConflictDetector();
+    }
+
+    @AfterEach
+    void tearDown() {
+        detector.close();
+    }
+
+    private void report(String flightId, double latitude, double longitude) {
+        FlightIntent intent = new FlightIntent(flightId, List.of(),
+                new SpeedConstraints(200, 400, 300, SpeedConstraints.SpeedUnit.KNOTS),
+                new AltitudeConstraints(25000, 35000, 30000, AltitudeConstraints.AltitudeUnit.FEET), null, null);
+        AircraftPerformance performance = new AircraftPerformance("A320", AircraftPerformance.WakeTurbulenceCategory.MEDIUM,
+                1800, 1800, 380, 180, 39000);
+        detector.updateFlight(flightId, latitude, longitude, 10000.0, 0.0, 0.0, intent, performance, 1, 0L);
+    }
+
+    @Test
+    @DisplayName("Should detect a pair straddling a region boundary once")
+    void shouldDetectPairAcrossBoundaryOnce() {
+        // Either side of the 12E boundary, about 1.4 km apart
+        report("WEST", 51.0, 11.99);
+        report("EAST", 51.0, 12.01);
+        RegionalProjection projection = detector.getProjection();
+        int west = projection.regionOf(51.0, 11.99);
+        int east = projection.regionOf(51.0, 12.01);
+        assertNotEquals(west, east);
+
+        // Each flight is in its own region's engine and its neighbour's, so both engines see the pair
+        assertEquals(2, detector.getEngineCount());
+        assertEquals(1, detector.getEngine(west).detectAllConflicts().size());
+        assertEquals(1, detector.getEngine(east).detectAllConflicts().size());
+
+        List<Conflict> conflicts = detector.detectAllConflicts();
+        assertEquals(1, conflicts.size());
+        assertTrue(conflicts.get(0).involvesFlight("WEST"));
+        assertTrue(conflicts.get(0).involvesFlight("EAST"));
+    }
+
+    @Test
+    @DisplayName("Should drop a flight from regions it has moved away from")
+    void shouldDropFlightFromRegionsLeft() {
+        report("WEST", 51.0, 11.99);
+        report("EAST", 51.0, 12.01);
+        int west = detector.getProjection().regionOf(51.0, 11.99);
+        int east = detector.getProjection().regionOf(51.0, 12.01);
+        assertArrayEquals(new int[] {west, east}, detector.getRegions("WEST"));
+
+        // Deep inside its own region the flight leaves the east engine
+        report("WEST", 51.0, 10.0);
+        assertArrayEquals(new int[] {west}, detector.getRegions("WEST"));
+        assertEquals(1, detector.getEngine(east).getAllFlights().size());
+        assertTrue(detector.detectAllConflicts().isEmpty());
+
+        detector.removeFlight("EAST");
+        assertEquals(1, detector.getFlightCount());
+        assertTrue(detector.getEngine(east).getAllFlights().isEmpty());
+        assertTrue(detector.getEngine(west).getAllFlights().stream().noneMatch(f -> f.getFlightId().equals("EAST")));
+    }
+}
@@ -0,0 +1,124 @@
+package com.w1k5.atc.engine.domain.geodesy;
+
+import com.w1k5.atc.engine.domain.entities.AircraftState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Regional Projection Tests")
+class RegionalProjectionTest {
+
+    private RegionalProjection projection;
+
+    @BeforeEach
+    void setUp() {
+        projection = new RegionalProjection();
+    }
+
+    /**
+     * ECEF chord length between two geodetic positions in meters, the reference distance.
+     */
+    private static double chord(double latitude1, double longitude1, double latitude2, double longitude2, double height) {
+        double[] a = ecef(latitude1, longitude1, height);
+        double[] b = ecef(latitude2, longitude2, height);
+        return Math.sqrt((a[0] - b[0]) * (a[0] - b[0]) + (a[1] - b[1]) * (a[1] - b[1]) + (a[2] - b[2]) * (a[2] - b[2]));
+    }
+
+    private static double[] ecef(double latitude, double longitude, double height) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double n = TangentPlane.primeVerticalRadius(Math.sin(lat));
+        return new double[] {
+            (n + height) * Math.cos(lat) * Math.cos(lon),
+            (n + height) * Math.cos(lat) * Math.sin(lon),
+            (n * (1.0 - TangentPlane.ECCENTRICITY_SQUARED) + height) * Math.sin(lat)
+        };
+    }
+
+    private static double horizontalDistance(AircraftState a, AircraftState b) {
+        double deltaX = a.getPositionXInMeters() - b.getPositionXInMeters();
+        double deltaY = a.getPositionYInMeters() - b.getPositionYInMeters();
+        return Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+    }
+
+    @Test
+    @DisplayName("Should project positions and tracks onto the region's tangent plane")
+    void shouldProjectOntoTangentPlane() {
+        TangentPlane plane = new TangentPlane(50.0, 8.0);
+        double[] enu = new double[3];
+        plane.project(50.0, 8.0, 0.0, enu);
+        assertEquals(0.0, enu[0], 1e-6);
+        assertEquals(0.0, enu[1], 1e-6);
+        assertEquals(0.0, enu[2], 1e-6);
+
+        // The projection is rigid, so 3D plane distances are exact chords
+        plane.project(50.5, 8.7, 10000.0, enu);
+        double[] origin = ecef(50.0, 8.0, 0.0);
+        double[] point = ecef(50.5, 8.7, 10000.0);
+        double expected = Math.sqrt(Math.pow(point[0] - origin[0], 2) + Math.pow(point[1] - origin[1], 2) + Math.pow(point[2] - origin[2], 2));
+        assertEquals(expected, Math.sqrt(enu[0] * enu[0] + enu[1] * enu[1] + enu[2] * enu[2]), 1e-6);
+
+        // Altitude is height above the ellipsoid, not plane up; due east at the origin is +X
+        AircraftState state = plane.toAircraftState(50.0, 8.0, 10668.0, 230.0, 90.0, 7);
+        assertEquals(1066800, state.getAltitude());
+        assertEquals(23000, state.getVelocityX());
+        assertEquals(0, state.getVelocityY());
+        assertEquals(7, state.getSectorId());
+
+        // Away from the origin meridian, local north is rotated on the plane
+        AircraftState eastOfOrigin = plane.toAircraftState(50.0, 10.0, 10668.0, 230.0, 0.0, 7);
+        assertTrue(eastOfOrigin.getVelocityX() < 0);
+        assertEquals(23000.0, Math.hypot(eastOfOrigin.getVelocityX(), eastOfOrigin.getVelocityY()), 2.0);
+
+        assertThrows(IllegalArgumentException.class, () -> new TangentPlane(91.0, 0.0));
+    }
+
+    @Test
+    @DisplayName("Should cache one plane per region")
+    void shouldCachePlanesPerRegion() {
+        int region = projection.regionOf(50.1, 8.6);
+        assertEquals(region, projection.regionOf(51.9, 11.9));
+        assertNotEquals(region, projection.regionOf(54.1, 8.6));
+
+        TangentPlane plane = projection.plane(region);
+        assertSame(plane, projection.plane(region));
+        assertEquals(1, projection.getPlaneCount());
+        assertEquals(52.0, plane.getOriginLatitude(), 1e-9);
+        assertEquals(10.0, plane.getOriginLongitude(), 1e-9);
+
+        // Longitude wraps at the antimeridian
+        assertEquals(projection.regionOf(0.0, -180.0), projection.regionOf(0.0, 180.0));
+        assertThrows(IllegalArgumentException.class, () -> new RegionalProjection(7.0, 1000.0));
+    }
+
+    @Test
+    @DisplayName("Should put flights straddling a region boundary into a shared plane")
+    void shouldShareAPlaneAcrossBoundaries() {
+        // Either side of the 12E boundary, about 5 km apart
+        double latitude = 51.0;
+        double westLongitude = 11.965;
+        double eastLongitude = 12.03;
+        int west = projection.regionOf(latitude, westLongitude);
+        int east = projection.regionOf(latitude, eastLongitude);
+        assertNotEquals(west, east);
+
+        int[] regions = new int[9];
+        int count = projection.regionsNear(latitude, westLongitude, regions);
+        assertEquals(2, count);
+        assertEquals(west, regions[0]);
+        assertEquals(east, regions[1]);
+
+        // Both flights projected into the east plane measure the true distance, within the plane's scale error
+        AircraftState a = projection.project(east, latitude, westLongitude, 10000.0, 0.0, 0.0, 1);
+        AircraftState b = projection.project(east, latitude, eastLongitude, 10000.0, 0.0, 0.0, 1);
+        double expected = chord(latitude, westLongitude, latitude, eastLongitude, 10000.0);
+        assertEquals(expected, horizontalDistance(a, b), expected * 0.0015);
+
+        // A corner picks up both edge neighbours and the diagonal one
+        assertEquals(4, projection.regionsNear(53.99, 11.99, regions));
+        // Well inside a region, only the region itself
+        assertEquals(1, projection.regionsNear(52.0, 10.0, regions));
+    }
+}
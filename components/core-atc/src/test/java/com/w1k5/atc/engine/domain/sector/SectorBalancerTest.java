@@ -1,12 +1,14 @@
 package com.w1k5.atc.engine.domain.sector;
 
 import com.w1k5.atc.engine.domain.entities.AircraftState;
+import com.w1k5.atc.engine.domain.entities.ComplexityCalculator;
 import com.w1k5.atc.engine.domain.entities.Flight;
 import com.w1k5.atc.engine.domain.entities.FlightIntent;
 import com.w1k5.atc.engine.domain.constraints.AircraftPerformance;
 import com.w1k5.atc.engine.domain.constraints.SpeedConstraints;
 import com.w1k5.atc.engine.domain.constraints.AltitudeConstraints;
 import com.w1k5.atc.engine.domain.entities.Waypoint;
+import com.w1k5.atc.engine.domain.time.ManualClock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -104,6 +106,19 @@ class SectorBalancerTest {
         assertTrue(sector1Workload.getCurrentComplexityScore() > 0.0);
     }
 
+    @Test
+    @DisplayName("Should release workload when an aircraft is removed")
+    void shouldReleaseWorkloadOnRemoval() {
+        sectorBalancer.assignAircraftToSector(testFlight);
+
+        assertTrue(sectorBalancer.removeAircraft("FL001"));
+        SectorWorkload sector1Workload = sectorBalancer.getSectorWorkloads().get(1);
+        assertEquals(0, sector1Workload.getCurrentAircraftCount());
+        assertEquals(0.0, sector1Workload.getCurrentComplexityScore(), 1e-9);
+        assertTrue(sectorBalancer.getAircraftSectorAssignments().isEmpty());
+        assertFalse(sectorBalancer.removeAircraft("FL001"));
+    }
+
     @Test
     @DisplayName("Should handle multiple aircraft assignments")
     void shouldHandleMultipleAircraftAssignments() {
@@ -224,7 +239,7 @@ class SectorBalancerTest {
         SectorAssignment assignment = sectorBalancer.assignAircraftToSector(testFlight);
         
         // Test assignment properties
-        assertNotNull(assignment.getAssignmentTime());
+        assertTrue(assignment.getAssignmentTimeNanos() > 0);
         assertNotNull(assignment.getReasoning());
         assertTrue(assignment.getComplexityContribution() > 0.0);
         
@@ -258,4 +273,19 @@ class SectorBalancerTest {
         assertNotNull(assignment);
         assertEquals(4, assignment.getAssignedSectorId());
     }
+
+    @Test
+    @DisplayName("Should stamp assignments and workloads from the injected clock")
+    void shouldStampFromInjectedClock() {
+        ManualClock clock = new ManualClock(1_000_000_000L);
+        SectorBalancer balancer = new SectorBalancer(sectors, clock);
+
+        SectorAssignment first = balancer.assignAircraftToSector(testFlight);
+        assertEquals(1_000_000_000L, first.getAssignmentTimeNanos());
+
+        clock.advance(4_000_000_000L);
+        SectorAssignment second = balancer.assignAircraftToSector(testFlight);
+        assertEquals(5_000_000_000L, second.getAssignmentTimeNanos());
+        assertEquals(5_000_000_000L, balancer.getSectorWorkloads().get(second.getAssignedSectorId()).getLastUpdateNanos());
+    }
 }
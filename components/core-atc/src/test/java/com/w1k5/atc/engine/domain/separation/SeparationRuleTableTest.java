@@ -0,0 +1,60 @@
+package com.w1k5.atc.engine.domain.separation;
+
+import com.w1k5.atc.engine.domain.constraints.AircraftPerformance;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Separation Rule Table Tests")
+class SeparationRuleTableTest {
+
+    private static final int LIGHT = AircraftPerformance.WakeTurbulenceCategory.LIGHT.ordinal();
+    private static final int MEDIUM = AircraftPerformance.WakeTurbulenceCategory.MEDIUM.ordinal();
+    private static final int HEAVY = AircraftPerformance.WakeTurbulenceCategory.HEAVY.ordinal();
+    private static final int REDUCED_SECTOR = 7;
+
+    @Test
+    @DisplayName("Should compile default minima to match wake turbulence minima of the higher category")
+    void shouldMatchWakeTurbulenceMinima() {
+        SeparationRuleTable rules = SeparationRuleTable.compile(new SeparationMinima());
+
+        for (AircraftPerformance.WakeTurbulenceCategory a : AircraftPerformance.WakeTurbulenceCategory.values()) {
+            for (AircraftPerformance.WakeTurbulenceCategory b : AircraftPerformance.WakeTurbulenceCategory.values()) {
+                SeparationMinima expected = SeparationMinima.createWithWakeTurbulence(a.compareTo(b) >= 0 ? a : b);
+                int pair = rules.pairIndex(rules.ruleOf(1, a.ordinal()), rules.ruleOf(1, b.ordinal()));
+
+                assertEquals(Math.round(expected.getHorizontalMinima() * 185200.0), rules.getHorizontalMinima(pair));
+                assertEquals(rules.getHorizontalMinima(pair) * rules.getHorizontalMinima(pair),
+                        rules.getHorizontalMinimaSquared(pair));
+                assertEquals(30480, rules.getVerticalMinima(pair));
+            }
+        }
+        assertEquals(Math.round(SeparationMinima.WAKE_SEPARATION_SUPER * 185200.0), rules.getMaxHorizontalMinima());
+    }
+
+    @Test
+    @DisplayName("Should apply reduced minima only inside the override airspace")
+    void shouldApplyAirspaceOverrides() {
+        SeparationRuleTable rules = SeparationRuleTable.compile(new SeparationMinima(),
+                Map.of(REDUCED_SECTOR, SeparationMinima.createReduced()));
+
+        int reducedLight = rules.pairIndex(rules.ruleOf(REDUCED_SECTOR, LIGHT), rules.ruleOf(REDUCED_SECTOR, LIGHT));
+        assertEquals(463000, rules.getHorizontalMinima(reducedLight)); // 2.5 NM
+        assertEquals(15240, rules.getVerticalMinima(reducedLight));    // 500 ft
+
+        // Wake minima are not reduced
+        int reducedHeavy = rules.pairIndex(rules.ruleOf(REDUCED_SECTOR, MEDIUM), rules.ruleOf(REDUCED_SECTOR, HEAVY));
+        assertEquals(1111200, rules.getHorizontalMinima(reducedHeavy)); // 6 NM
+        assertEquals(15240, rules.getVerticalMinima(reducedHeavy));
+
+        // A pair straddling the boundary takes the stricter airspace
+        int straddling = rules.pairIndex(rules.ruleOf(REDUCED_SECTOR, LIGHT), rules.ruleOf(1, LIGHT));
+        assertEquals(555600, rules.getHorizontalMinima(straddling));
+        assertEquals(30480, rules.getVerticalMinima(straddling));
+        assertEquals(rules.getHorizontalMinima(straddling),
+                rules.getHorizontalMinima(rules.pairIndex(rules.ruleOf(1, LIGHT), rules.ruleOf(REDUCED_SECTOR, LIGHT))));
+    }
+}
@@ -0,0 +1,58 @@
+package com.w1k5.atc.engine.domain.spatial;
+
+import com.w1k5.atc.engine.domain.entities.AircraftState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Fixed-Point Geometry Tests")
+class FixedPointGeometryTest {
+
+    private static final long NAUTICAL_MILE = FixedPointGeometry.CENTIMETERS_PER_NAUTICAL_MILE;
+
+    @Test
+    @DisplayName("Should test minima exactly at the boundary in integer centimeters")
+    void shouldTestMinimaExactlyAtBoundary() {
+        long minima = 5 * NAUTICAL_MILE;
+        long minimaSquared = minima * minima;
+
+        // A 3-4-5 triangle lands exactly on the minima
+        long deltaX = 3 * NAUTICAL_MILE;
+        long deltaY = 4 * NAUTICAL_MILE;
+        assertEquals(minimaSquared, FixedPointGeometry.horizontalDistanceSquared(deltaX, deltaY));
+        assertFalse(FixedPointGeometry.isWithin(deltaX, deltaY, 0, minimaSquared, 30480));
+        assertTrue(FixedPointGeometry.isWithin(deltaX, deltaY - 1, 0, minimaSquared, 30480));
+        assertFalse(FixedPointGeometry.isWithin(deltaX, deltaY - 1, -30480, minimaSquared, 30480));
+        assertEquals(5.0 * NAUTICAL_MILE, FixedPointGeometry.horizontalDistance(-deltaX, deltaY));
+    }
+
+    @Test
+    @DisplayName("Should saturate instead of overflowing at any range")
+    void shouldSaturateInsteadOfOverflowing() {
+        // Squaring these deltas directly wraps around to a small or negative long
+        long far = 4_000_000_000L; // 40,000 km
+        assertTrue(far * far + far * far < 0);
+
+        long squared = FixedPointGeometry.distanceSquared(far, -far, far);
+        assertTrue(squared > 0);
+        assertTrue(squared >= FixedPointGeometry.MAX_EXACT_DELTA * FixedPointGeometry.MAX_EXACT_DELTA);
+        assertFalse(FixedPointGeometry.isWithin(far, far, 0, Long.MAX_VALUE / 4, 30480));
+
+        // Distances fall back to floating point and stay accurate
+        assertEquals(Math.sqrt(3.0) * far, FixedPointGeometry.distance(far, -far, far), 1.0);
+        assertEquals(Math.sqrt(2.0) * far, FixedPointGeometry.horizontalDistance(far, far), 1.0);
+    }
+
+    @Test
+    @DisplayName("Should include altitude in aircraft distance")
+    void shouldIncludeAltitudeInAircraftDistance() {
+        AircraftState a = new AircraftState(0, 0, 0, 0, 0, 1);
+        AircraftState b = new AircraftState(300, 400, 0, 0, 1200, 1);
+        AircraftState antipode = new AircraftState(2_000_000_000L, 0, 0, 0, 0, 1); // 20,000 km
+
+        assertEquals(1300, a.getDistanceToOtherAircraft(b));
+        assertEquals(1300 * 1300, a.getDistanceSquaredToOtherAircraft(b));
+        assertEquals(2_000_000_000L, a.getDistanceToOtherAircraft(antipode));
+    }
+}
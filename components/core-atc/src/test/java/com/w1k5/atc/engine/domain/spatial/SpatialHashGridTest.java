@@ -0,0 +1,65 @@
+package com.w1k5.atc.engine.domain.spatial;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Spatial Hash Grid Tests")
+class SpatialHashGridTest {
+
+    private static Set<Integer> entriesIn(SpatialHashGrid grid, int cellX, int cellY) {
+        Set<Integer> entries = new HashSet<>();
+        for (int node = grid.firstNode(cellX, cellY); node != -1; node = grid.nextNode(node)) {
+            entries.add(grid.entryOf(node));
+        }
+        return entries;
+    }
+
+    @Test
+    @DisplayName("Should reclaim emptied cells as entries move, keeping every cell reachable")
+    void shouldReclaimEmptiedCellsAsEntriesMove() {
+        SpatialHashGrid grid = new SpatialHashGrid(100);
+        int count = 200;
+        int[] cellX = new int[count];
+        int[] cellY = new int[count];
+        for (int entry = 0; entry < count; entry++) {
+            cellX[entry] = entry % 20;
+            cellY[entry] = entry / 20;
+            grid.insertIntoCell(entry, cellX[entry], cellY[entry]);
+        }
+        assertEquals(count, grid.getCellCount());
+
+        // Drift every entry east for many cycles, as long-lived tracks do
+        Random random = new Random(7L);
+        for (int cycle = 0; cycle < 500; cycle++) {
+            for (int entry = 0; entry < count; entry++) {
+                if (random.nextInt(3) == 0) {
+                    assertTrue(grid.removeFromCell(entry, cellX[entry], cellY[entry]));
+                    cellX[entry]++;
+                    cellY[entry] += random.nextInt(3) - 1;
+                    grid.insertIntoCell(entry, cellX[entry], cellY[entry]);
+                }
+            }
+            assertTrue(grid.getCellCount() <= count);
+        }
+
+        Set<Long> occupied = new HashSet<>();
+        for (int entry = 0; entry < count; entry++) {
+            occupied.add(((long) cellX[entry] << 32) | (cellY[entry] & 0xFFFFFFFFL));
+            assertTrue(entriesIn(grid, cellX[entry], cellY[entry]).contains(entry));
+        }
+        assertEquals(occupied.size(), grid.getCellCount());
+
+        for (int entry = 0; entry < count; entry++) {
+            assertTrue(grid.removeFromCell(entry, cellX[entry], cellY[entry]));
+        }
+        assertEquals(0, grid.getCellCount());
+        assertEquals(-1, grid.firstNode(cellX[0], cellY[0]));
+        assertFalse(grid.removeFromCell(0, cellX[0], cellY[0]));
+    }
+}
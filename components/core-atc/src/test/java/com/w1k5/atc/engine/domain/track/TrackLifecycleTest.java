@@ -0,0 +1,197 @@
+package com.w1k5.atc.engine.domain.track;
+
+import com.w1k5.atc.engine.domain.conflict.ConflictDetectionEngine;
+import com.w1k5.atc.engine.domain.constraints.AircraftPerformance;
+import com.w1k5.atc.engine.domain.constraints.AltitudeConstraints;
+import com.w1k5.atc.engine.domain.constraints.SpeedConstraints;
+import com.w1k5.atc.engine.domain.entities.AircraftState;
+import com.w1k5.atc.engine.domain.entities.Flight;
+import com.w1k5.atc.engine.domain.entities.FlightIntent;
+import com.w1k5.atc.engine.domain.entities.FlightStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Track Lifecycle Tests")
+class TrackLifecycleTest {
+
+    private static final long MILLIS = 1_000_000L;
+    private static final long SECOND = 1_000 * MILLIS;
+    private static final long START = 1_700_000_000L * SECOND; // cluster time is wall-clock based
+
+    private ConflictDetectionEngine engine;
+    private TrackLifecycle lifecycle;
+    private List<String> events;
+
+    @BeforeEach
+    void setUp() {
+        engine = new ConflictDetectionEngine();
+        // One report a second; coast after two missed, drop after four
+        lifecycle = new TrackLifecycle(engine, SECOND, 2, 4);
+        events = new ArrayList<>();
+        lifecycle.addListener(new TrackLifecycle.Listener() {
+            @Override
+            public void onCoasting(String flightId, long timeNanos) {
+                events.add("COAST " + flightId + " " + (timeNanos - START) / (100 * MILLIS));
+            }
+
+            @Override
+            public void onResumed(String flightId, long timeNanos) {
+                events.add("RESUME " + flightId);
+            }
+
+            @Override
+            public void onDropped(String flightId, long timeNanos) {
+                events.add("DROP " + flightId + " " + (timeNanos - START) / (100 * MILLIS));
+            }
+        });
+    }
+
+    private static Flight flight(String flightId, long x) {
+        FlightIntent intent = new FlightIntent(flightId, List.of(),
+                new SpeedConstraints(200, 400, 300, SpeedConstraints.SpeedUnit.KNOTS),
+                new AltitudeConstraints(25000, 35000, 30000, AltitudeConstraints.AltitudeUnit.FEET), null, null);
+        AircraftPerformance performance = new AircraftPerformance("A320", AircraftPerformance.WakeTurbulenceCategory.MEDIUM,
+                1800, 1800, 380, 180, 39000);
+        return new Flight(flightId, new AircraftState(x, 0, 0, 0, 914400, 1), intent, performance, 1);
+    }
+
+    /**
+     * Run the cluster clock in 100 ms steps, reporting the listed flights every second.
+     */
+    private void run(long fromNanos, long toNanos, String... reporting) {
+        for (long time = fromNanos; time <= toNanos; time += 100 * MILLIS) {
+            if ((time - START) % SECOND == 0) {
+                for (String flightId : reporting) {
+                    lifecycle.update(flight(flightId, 0), time);
+                }
+            }
+            lifecycle.poll(time);
+        }
+    }
+
+    @Test
+    @DisplayName("Should coast and then drop a track that stops reporting")
+    void shouldCoastAndDropSilentTracks() {
+        lifecycle.updateAll(List.of(flight("LIVE", 0), flight("LOST", 1000000)), START);
+        run(START + 100 * MILLIS, START + 10 * SECOND, "LIVE");
+
+        // Expiry is rounded up to the wheel's tick, about 134 ms
+        assertEquals(2, events.size());
+        assertTrue(events.get(0).matches("COAST LOST 2[0-1]"), events.get(0));
+        assertTrue(events.get(1).matches("DROP LOST 4[0-1]"), events.get(1));
+
+        assertEquals(1, lifecycle.getTrackCount());
+        assertEquals(0, lifecycle.getCoastingCount());
+        assertEquals(1, lifecycle.getDroppedCount());
+        assertEquals(TrackLifecycle.State.ACTIVE, lifecycle.getState("LIVE"));
+        assertNull(lifecycle.getState("LOST"));
+        assertEquals(FlightStore.MISSING_HANDLE, engine.getFlightStore().handleOf("LOST"));
+        assertEquals(1, engine.getFlightStore().size());
+    }
+
+    @Test
+    @DisplayName("Should resume a coasting track that reports again")
+    void shouldResumeCoastingTracks() {
+        lifecycle.update(flight("GAP", 0), START);
+        run(START + 100 * MILLIS, START + 2500 * MILLIS);
+        assertEquals(TrackLifecycle.State.COASTING, lifecycle.getState("GAP"));
+        assertEquals(1, lifecycle.getCoastingCount());
+
+        run(START + 3 * SECOND, START + 6 * SECOND, "GAP");
+        assertEquals(List.of("COAST GAP 20", "RESUME GAP"), events);
+        assertEquals(TrackLifecycle.State.ACTIVE, lifecycle.getState("GAP"));
+        assertEquals(0, lifecycle.getCoastingCount());
+
+        // A late poll drops a silent track outright
+        assertEquals(1, lifecycle.poll(START + 60 * SECOND));
+        assertEquals(0, engine.getFlightStore().size());
+        assertEquals(0, lifecycle.getCoastingCount());
+    }
+
+    @Test
+    @DisplayName("Should record updates at cluster time and extrapolate forward from it")
+    void shouldMeasureAtClusterTime() {
+        FlightStore store = engine.getFlightStore();
+        Flight moving = new Flight("MOVING", new AircraftState(0, 0, 20000, 0, 914400, 1),
+                flight("MOVING", 0).getIntent(), flight("MOVING", 0).getPerformance(), 1);
+        lifecycle.update(moving, START);
+        lifecycle.updateAll(List.of(flight("SCAN", 1000000)), START + SECOND);
+        int handle = store.handleOf("MOVING");
+        assertEquals(START, store.getMeasuredNanos(handle));
+        assertEquals(START + SECOND, store.getMeasuredNanos(store.handleOf("SCAN")));
+
+        // Replayed on any replica, extrapolation runs from the measured cluster time
+        engine.extrapolateTo(START + 2 * SECOND);
+        assertEquals(40000, store.getPositionX(handle));
+    }
+
+    @Test
+    @DisplayName("Should coast after two and drop after five missed scans on the default wheel")
+    void shouldCoastAndDropOnDefaultScanPeriod() {
+        TrackLifecycle scans = new TrackLifecycle(engine);
+        List<String> dropped = new ArrayList<>();
+        scans.addListener(new TrackLifecycle.Listener() {
+            @Override
+            public void onDropped(String flightId, long timeNanos) {
+                dropped.add(flightId);
+            }
+        });
+
+        // More tracks than one wheel tick holds by default, all due in the same tick
+        int count = 100;
+        List<Flight> traffic = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            traffic.add(flight("T" + i, i * 10_000_000L));
+        }
+        scans.updateAll(traffic, START);
+        long scan = TrackLifecycle.DEFAULT_UPDATE_PERIOD_NANOS;
+
+        // Not coasted before two scans are missed, even allowing for tick rounding
+        assertEquals(0, scans.poll(START + 2 * scan - 1));
+        assertEquals(0, scans.getCoastingCount());
+
+        // Expiry lands in the first poll of the deadline's tick, whatever the expiry count
+        assertEquals(0, scans.poll(START + 2 * scan + 200 * MILLIS));
+        assertEquals(count, scans.getCoastingCount());
+        assertEquals(TrackLifecycle.State.COASTING, scans.getState("T0"));
+
+        // One track reports again; removing another cancels its rescheduled timer
+        scans.update(flight("T0", 0), START + 3 * scan);
+        assertEquals(TrackLifecycle.State.ACTIVE, scans.getState("T0"));
+        scans.remove("T1");
+        assertEquals(count - 2, scans.getCoastingCount());
+
+        // Late polls step the wheel over dozens of ticks at once: no track drops early,
+        // and every silent one drops in its deadline's tick
+        assertEquals(0, scans.poll(START + 5 * scan - 1));
+        assertEquals(count - 2, scans.poll(START + 5 * scan + 200 * MILLIS));
+        assertEquals(count - 2, dropped.size());
+        assertFalse(dropped.contains("T0"));
+        assertFalse(dropped.contains("T1"));
+        assertEquals(1, scans.getTrackCount());
+        assertEquals(1, engine.getFlightStore().size());
+
+        // The same poll coasts the track that reported, two scans after its report; it drops five after
+        assertEquals(TrackLifecycle.State.COASTING, scans.getState("T0"));
+        assertEquals(1, scans.getCoastingCount());
+        assertEquals(0, scans.poll(START + 8 * scan - 1));
+        assertEquals(1, scans.poll(START + 8 * scan + 200 * MILLIS));
+        assertNull(scans.getState("T0"));
+        assertEquals(0, engine.getFlightStore().size());
+
+        // The empty wheel restarts at the next poll; a removed track re-acquired later
+        // gets a fresh timer, and a very late poll drops it without coasting
+        assertEquals(0, scans.poll(START + 9 * scan - 1));
+        scans.update(flight("T1", 0), START + 9 * scan);
+        assertEquals(0, scans.poll(START + 10 * scan));
+        assertEquals(1, scans.poll(START + 20 * scan));
+        assertEquals(0, scans.getCoastingCount());
+        assertEquals(count, scans.getDroppedCount());
+    }
+}